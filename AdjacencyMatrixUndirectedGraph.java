@@ -1,8 +1,14 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Classe che implementa un grafo non orientato tramite matrice di adiacenza.
@@ -48,12 +54,22 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     // dimensione gradualmente ad ogni inserimento di un nuovo nodo.
     protected ArrayList<ArrayList<GraphEdge<L>>> matrix;
 
+    // Associazione inversa di nodesIndex: l'elemento in posizione i è il nodo
+    // di indice i
+    protected ArrayList<GraphNode<L>> nodesList;
+
+    // Grado di ogni nodo, indicizzato come la matrice e aggiornato ad ogni
+    // inserimento o cancellazione di archi
+    protected int[] degrees;
+
     /**
      * Crea un grafo vuoto.
      */
     public AdjacencyMatrixUndirectedGraph() {
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodesList = new ArrayList<GraphNode<L>>();
+        this.degrees = new int[0];
     }
 
     @Override
@@ -78,6 +94,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public void clear() {
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodesList = new ArrayList<GraphNode<L>>();
+        this.degrees = new int[0];
     }
 
     @Override
@@ -99,6 +117,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         }
         if (!nodesIndex.containsKey(node)) {
             nodesIndex.put(node, nodesIndex.size());
+            nodesList.add(node);
+            ensureDegreesCapacity(nodesIndex.size());
             for (ArrayList<GraphEdge<L>> row : matrix) {
                 row.add(null);
             }
@@ -112,6 +132,51 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         return false;
     }
 
+    /*
+     * Valida l'intera collezione prima di modificare il grafo, poi allarga
+     * ogni riga esistente una sola volta e crea le nuove righe già della
+     * dimensione finale.
+     */
+    @Override
+    public int addNodes(Collection<GraphNode<L>> nodes) {
+        if (nodes == null) {
+            throw new NullPointerException("Nodes cannot be null");
+        }
+        ArrayList<GraphNode<L>> newNodes = new ArrayList<>(nodes.size());
+        Set<GraphNode<L>> seen = new HashSet<>();
+        for (GraphNode<L> node : nodes) {
+            if (node == null) {
+                throw new NullPointerException("Node cannot be null");
+            }
+            if (!nodesIndex.containsKey(node) && seen.add(node)) {
+                newNodes.add(node);
+            }
+        }
+        if (newNodes.isEmpty()) {
+            return 0;
+        }
+        int oldSize = nodesIndex.size();
+        int newSize = oldSize + newNodes.size();
+        for (ArrayList<GraphEdge<L>> row : matrix) {
+            row.ensureCapacity(newSize);
+            for (int i = oldSize; i < newSize; i++) {
+                row.add(null);
+            }
+        }
+        matrix.ensureCapacity(newSize);
+        nodesList.ensureCapacity(newSize);
+        ensureDegreesCapacity(newSize);
+        for (GraphNode<L> node : newNodes) {
+            nodesIndex.put(node, nodesIndex.size());
+            nodesList.add(node);
+            ArrayList<GraphEdge<L>> newRow = new ArrayList<>(newSize);
+            for (int i = 0; i < newSize; i++) {
+                newRow.add(null);
+            }
+            matrix.add(newRow);
+        }
+        return newNodes.size();
+    }
 
     @Override
     public boolean removeNode(GraphNode<L> node) {
@@ -120,6 +185,16 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         }
         if (nodesIndex.containsKey(node)) {
             int indexToRemove = nodesIndex.get(node);
+            ArrayList<GraphEdge<L>> removedRow = matrix.get(indexToRemove);
+            for (int i = 0; i < removedRow.size(); i++) {
+                if (removedRow.get(i) != null && i != indexToRemove) {
+                    degrees[i]--;
+                }
+            }
+            System.arraycopy(degrees, indexToRemove + 1, degrees, indexToRemove,
+                    nodesIndex.size() - indexToRemove - 1);
+            degrees[nodesIndex.size() - 1] = 0;
+            nodesList.remove(indexToRemove);
             matrix.remove(indexToRemove);
             for (ArrayList<GraphEdge<L>> row : matrix) {
                 row.remove(indexToRemove);
@@ -182,12 +257,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (index < 0 || index >= nodesIndex.size()) {
             throw new IndexOutOfBoundsException("Index is out of bounds: " + index);
         }
-        for (Map.Entry<GraphNode<L>, Integer> entry : nodesIndex.entrySet()) {
-            if (entry.getValue() == index) {
-                return entry.getKey();
-            }
-        }
-        return null;
+        return nodesList.get(index);
     }
 
     @Override
@@ -246,9 +316,51 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         }
         matrix.get(index1).set(index2, edge);
         matrix.get(index2).set(index1, edge);
+        incrementDegrees(index1, index2, 1);
         return true;
     }
 
+    /*
+     * Tutti gli archi vengono validati prima di inserirne qualcuno, per cui in
+     * caso di eccezione il grafo non viene modificato.
+     */
+    @Override
+    public int addEdges(Collection<GraphEdge<L>> edges) {
+        if (edges == null) {
+            throw new NullPointerException("Edges cannot be null");
+        }
+        int[] indexes = new int[2 * edges.size()];
+        int k = 0;
+        for (GraphEdge<L> edge : edges) {
+            if (edge == null) {
+                throw new NullPointerException("Edge cannot be null");
+            }
+            Integer index1 = nodesIndex.get(edge.getNode1());
+            Integer index2 = nodesIndex.get(edge.getNode2());
+            if (index1 == null || index2 == null) {
+                throw new IllegalArgumentException("One or both nodes are not in the graph");
+            }
+            if (edge.isDirected()) {
+                throw new IllegalArgumentException("Edge is directed, but the graph is undirected");
+            }
+            indexes[k++] = index1;
+            indexes[k++] = index2;
+        }
+        int added = 0;
+        k = 0;
+        for (GraphEdge<L> edge : edges) {
+            int index1 = indexes[k++];
+            int index2 = indexes[k++];
+            if (matrix.get(index1).get(index2) == null) {
+                matrix.get(index1).set(index2, edge);
+                matrix.get(index2).set(index1, edge);
+                incrementDegrees(index1, index2, 1);
+                added++;
+            }
+        }
+        return added;
+    }
+
     @Override
     public boolean removeEdge(GraphEdge<L> edge) {
         if (edge == null) {
@@ -264,6 +376,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         }
         matrix.get(index1).set(index2, null);
         matrix.get(index2).set(index1, null);
+        incrementDegrees(index1, index2, -1);
         return true;
     }
     
@@ -305,4 +418,117 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         throw new UnsupportedOperationException(
                 "Operazione non supportata in un grafo non orientato");
     }
+
+    /*
+     * Il grado è mantenuto ad ogni modifica degli archi, per cui non serve
+     * costruire l'insieme degli archi del nodo.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        return degrees[indexOfExisting(node)];
+    }
+
+    @Override
+    public void forEachNode(Consumer<? super GraphNode<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        for (int i = 0; i < nodesList.size(); i++) {
+            action.accept(nodesList.get(i));
+        }
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        for (int i = 0; i < matrix.size(); i++) {
+            ArrayList<GraphEdge<L>> row = matrix.get(i);
+            for (int j = i; j < row.size(); j++) { // Each edge is only visited once
+                GraphEdge<L> edge = row.get(j);
+                if (edge != null) {
+                    action.accept(edge);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void forEachNeighbor(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        ArrayList<GraphEdge<L>> row = matrix.get(indexOfExisting(node));
+        for (int i = 0; i < row.size(); i++) {
+            if (row.get(i) != null) {
+                action.accept(nodesList.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        ArrayList<GraphEdge<L>> row = matrix.get(indexOfExisting(node));
+        for (int i = 0; i < row.size(); i++) {
+            GraphEdge<L> edge = row.get(i);
+            if (edge != null) {
+                action.accept(edge);
+            }
+        }
+    }
+
+    @Override
+    public void forEachNeighborIndex(int index, IntConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        if (index < 0 || index >= nodesIndex.size()) {
+            throw new IndexOutOfBoundsException("Index is out of bounds: " + index);
+        }
+        ArrayList<GraphEdge<L>> row = matrix.get(index);
+        for (int i = 0; i < row.size(); i++) {
+            if (row.get(i) != null) {
+                action.accept(i);
+            }
+        }
+    }
+
+    /*
+     * Restituisce l'indice di un nodo controllando che non sia null e che sia
+     * presente nel grafo.
+     */
+    private int indexOfExisting(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        Integer nodeIndex = nodesIndex.get(node);
+        if (nodeIndex == null) {
+            throw new IllegalArgumentException("Node does not exist in the graph");
+        }
+        return nodeIndex;
+    }
+
+    /*
+     * Aggiorna il grado dei due estremi di un arco; un cappio conta una sola
+     * volta, come in getEdgesOf.
+     */
+    private void incrementDegrees(int index1, int index2, int delta) {
+        degrees[index1] += delta;
+        if (index1 != index2) {
+            degrees[index2] += delta;
+        }
+    }
+
+    /*
+     * Garantisce che l'array dei gradi possa contenere almeno capacity nodi.
+     */
+    private void ensureDegreesCapacity(int capacity) {
+        if (degrees.length < capacity) {
+            degrees = Arrays.copyOf(degrees, Math.max(capacity, 2 * degrees.length));
+        }
+    }
 }
@@ -1,7 +1,10 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -521,4 +524,117 @@ class AdjacencyMatrixUndirectedGraphTest {
         // Prova a rimuovere un arco null
         assertThrows(NullPointerException.class, () -> graph.removeEdge(null));
     }
+
+    @Test
+    void testAddNodes() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNode(nodeA);
+
+        // A è già presente e B è ripetuto: viene aggiunto solo C oltre a B
+        assertEquals(2, graph.addNodes(List.of(nodeA, nodeB, nodeC, nodeB)));
+        assertEquals(3, graph.nodeCount());
+        assertEquals(1, graph.getNodeIndexOf("B"));
+        assertEquals(2, graph.getNodeIndexOf("C"));
+
+        // La matrice deve restare quadrata
+        for (ArrayList<GraphEdge<String>> row : graph.matrix) {
+            assertEquals(3, row.size());
+        }
+        assertThrows(NullPointerException.class, () -> graph.addNodes(null));
+    }
+
+    @Test
+    void testAddEdges() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB, nodeC));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false, 1);
+        GraphEdge<String> edgeBC = new GraphEdge<>(nodeB, nodeC, false, 2);
+
+        // L'arco ripetuto viene ignorato
+        assertEquals(2, graph.addEdges(List.of(edgeAB, edgeBC, edgeAB)));
+        assertEquals(2, graph.edgeCount());
+        assertTrue(graph.containsEdge(edgeAB));
+        assertTrue(graph.containsEdge(edgeBC));
+    }
+
+    @Test
+    void testAddEdgesInvalidLeavesGraphUnchanged() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeX = new GraphNode<>("X");
+        graph.addNodes(List.of(nodeA, nodeB));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false);
+        GraphEdge<String> edgeAX = new GraphEdge<>(nodeA, nodeX, false);
+
+        // Il nodo X non esiste: nessun arco deve essere inserito
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.addEdges(List.of(edgeAB, edgeAX)));
+        assertEquals(0, graph.edgeCount());
+    }
+
+    @Test
+    void testForEachNeighborAndEdge() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB, nodeC));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false);
+        GraphEdge<String> edgeAC = new GraphEdge<>(nodeA, nodeC, false);
+        graph.addEdges(List.of(edgeAB, edgeAC));
+
+        Set<GraphNode<String>> neighbors = new HashSet<>();
+        graph.forEachNeighbor(nodeA, neighbors::add);
+        assertEquals(graph.getAdjacentNodesOf(nodeA), neighbors);
+
+        Set<GraphEdge<String>> edges = new HashSet<>();
+        graph.forEachEdge(edges::add);
+        assertEquals(graph.getEdges(), edges);
+
+        Set<GraphEdge<String>> edgesOfB = new HashSet<>();
+        graph.forEachEdgeOf(nodeB, edgesOfB::add);
+        assertEquals(graph.getEdgesOf(nodeB), edgesOfB);
+
+        Set<Integer> indexes = new HashSet<>();
+        graph.forEachNeighborIndex(0, indexes::add);
+        assertEquals(Set.of(1, 2), indexes);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.forEachNeighbor(new GraphNode<>("X"), n -> {}));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> graph.forEachNeighborIndex(3, i -> {}));
+    }
+
+    @Test
+    void testDegreeIsMaintained() {
+        AdjacencyMatrixUndirectedGraph<String> graph = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB, nodeC));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false);
+        graph.addEdge(edgeAB);
+        graph.addEdge(new GraphEdge<>(nodeB, nodeC, false));
+        graph.addEdge(new GraphEdge<>(nodeC, nodeC, false));
+        assertEquals(1, graph.getDegreeOf(nodeA));
+        assertEquals(2, graph.getDegreeOf(nodeB));
+        assertEquals(2, graph.getDegreeOf(nodeC));
+
+        graph.removeEdge(edgeAB);
+        assertEquals(0, graph.getDegreeOf(nodeA));
+        assertEquals(1, graph.getDegreeOf(nodeB));
+
+        // Rimuovendo B il grado di C diminuisce e gli indici scorrono
+        graph.removeNode(nodeB);
+        assertEquals(0, graph.getDegreeOf(nodeA));
+        assertEquals(1, graph.getDegreeOf(nodeC));
+        assertEquals(nodeC, graph.getNodeAtIndex(1));
+    }
 }
@@ -0,0 +1,30 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento di JDK Flight Recorder che registra il valore finale di un contatore
+ * di un'esecuzione di un algoritmo sui grafi. Viene emesso da
+ * {@code PhaseRecorder} solo se l'evento è abilitato nella registrazione in
+ * corso.
+ */
+@Name("it.unicam.cs.asdl2425.mp2.AlgorithmCounter")
+@Label("Algorithm Counter")
+@Category({ "Graph Algorithms" })
+@Description("Valore di un contatore al termine di un algoritmo sui grafi")
+@StackTrace(false)
+public class AlgorithmCounterEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Counter")
+    String name;
+
+    @Label("Value")
+    long value;
+}
@@ -0,0 +1,24 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento di JDK Flight Recorder che registra la durata di una fase di un
+ * algoritmo sui grafi. Viene emesso da {@code PhaseRecorder} solo se l'evento
+ * è abilitato nella registrazione in corso.
+ */
+@Name("it.unicam.cs.asdl2425.mp2.AlgorithmPhase")
+@Label("Algorithm Phase")
+@Category({ "Graph Algorithms" })
+@Description("Durata di una fase di un algoritmo sui grafi")
+public class AlgorithmPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Phase")
+    String phase;
+}
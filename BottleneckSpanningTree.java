@@ -0,0 +1,333 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Classe singoletto che calcola un albero di copertura con collo di bottiglia
+ * minimo di un grafo non orientato e pesato, cioè un albero di copertura in
+ * cui il peso massimo di un arco è il più piccolo possibile, con l'algoritmo
+ * di Camerini. Ogni albero di copertura minimo ha questa proprietà, ma non
+ * viceversa: non essendo richiesto l'ordinamento di tutti gli archi, il tempo
+ * atteso è O(E) invece di O(E log E). Se il grafo non è connesso viene
+ * calcolata una foresta di copertura, con un albero per ogni componente
+ * connessa.
+ *
+ * Ad ogni passo gli archi rimasti vengono divisi attorno al loro peso
+ * mediano, trovato con una selezione casuale. Se gli archi della metà più
+ * leggera bastano a connettere tutto ciò che è connesso nel grafo la metà
+ * pesante viene scartata; altrimenti una foresta di copertura della metà
+ * leggera fa parte del risultato, i suoi alberi vengono contratti in un
+ * {@code ForestDisjointSets<GraphNode<L>>} e si prosegue con la metà
+ * pesante. In entrambi i casi gli archi rimasti si dimezzano.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class BottleneckSpanningTree<L> {
+
+    /*
+     * Contrazioni definitive: gli alberi della foresta già scelta.
+     */
+    private final ForestDisjointSets<GraphNode<L>> disjointSets;
+
+    /*
+     * Archi del grafo dell'ultima esecuzione, indicizzati come in edgeIds.
+     */
+    private GraphEdge<L>[] edges;
+
+    /*
+     * Archi ancora in gioco, in array paralleli permutati dalla selezione:
+     * handle degli estremi, peso e indice in edges.
+     */
+    private int[] ends1;
+
+    private int[] ends2;
+
+    private double[] weights;
+
+    private int[] edgeIds;
+
+    /*
+     * Insiemi disgiunti di prova sugli handle dei rappresentanti, usati per
+     * stabilire se la metà leggera basta: un handle è inizializzato solo se
+     * il suo stamp coincide con il turno corrente, per cui ogni turno costa
+     * un tempo proporzionale agli archi esaminati e non ai nodi.
+     */
+    private int[] trialParent;
+
+    private int[] trialStamp;
+
+    private int round;
+
+    /*
+     * Indici in edges degli archi scelti e loro numero.
+     */
+    private int[] chosen;
+
+    private int chosenCount;
+
+    private double bottleneck;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura con collo di
+     * bottiglia minimo.
+     */
+    public BottleneckSpanningTree() {
+        this.disjointSets = new ForestDisjointSets<GraphNode<L>>();
+    }
+
+    /**
+     * Calcola un albero di copertura con collo di bottiglia minimo di un grafo
+     * non orientato e pesato. I pesi possono essere negativi.
+     *
+     * @param g
+     *              un grafo non orientato e pesato
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero (o
+     *         la foresta) di copertura trovato
+     * @throws NullPointerException
+     *                                      se il grafo g è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato
+     */
+    public Set<GraphEdge<L>> computeBottleneckSpanningTree(Graph<L> g) {
+        compute(g);
+        Set<GraphEdge<L>> result = new HashSet<>(chosenCount * 4 / 3 + 1);
+        for (int i = 0; i < chosenCount; i++) {
+            result.add(edges[chosen[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * Calcola il valore di collo di bottiglia di un grafo non orientato e
+     * pesato: il più piccolo peso massimo di un arco di un albero (o di una
+     * foresta) di copertura. Coincide con il peso massimo di un arco di un
+     * qualunque albero di copertura minimo.
+     *
+     * @param g
+     *              un grafo non orientato e pesato
+     * @return il valore di collo di bottiglia, {@code Double.NEGATIVE_INFINITY}
+     *         se il grafo non ha archi
+     * @throws NullPointerException
+     *                                      se il grafo g è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato
+     */
+    public double computeBottleneckValue(Graph<L> g) {
+        compute(g);
+        return bottleneck;
+    }
+
+    /**
+     * Determina se gli archi di peso al più {@code threshold} bastano a
+     * connettere tutte le coppie di nodi connesse nel grafo, cioè se
+     * {@code threshold} non è minore del valore di collo di bottiglia. Richiede
+     * una sola unione per arco leggero e una sola ricerca per arco pesante,
+     * senza selezioni, e si ferma al primo arco pesante che collega due
+     * componenti diverse.
+     *
+     * @param g
+     *                      un grafo non orientato e pesato
+     * @param threshold
+     *                      il peso massimo degli archi utilizzabili
+     * @return true se gli archi di peso al più threshold hanno le stesse
+     *         componenti connesse del grafo, false altrimenti
+     * @throws NullPointerException
+     *                                      se il grafo g è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato
+     */
+    public boolean isConnectedWithin(Graph<L> g, double threshold) {
+        int m = load(g);
+        for (int i = 0; i < m; i++) {
+            if (weights[i] <= threshold) {
+                disjointSets.unionHandles(ends1[i], ends2[i]);
+            }
+        }
+        for (int i = 0; i < m; i++) {
+            if (weights[i] > threshold && !disjointSets.connectedHandles(ends1[i], ends2[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Esegue l'algoritmo di Camerini, lasciando gli archi scelti in chosen e
+     * il loro peso massimo in bottleneck.
+     */
+    private void compute(Graph<L> g) {
+        int len = load(g);
+        int n = g.nodeCount();
+        chosen = new int[Math.max(n - 1, 0)];
+        chosenCount = 0;
+        bottleneck = Double.NEGATIVE_INFINITY;
+        if (trialParent == null || trialParent.length < n) {
+            trialParent = new int[n];
+            trialStamp = new int[n];
+            round = 0;
+        }
+        // Unioni ancora da fare, cioè nodi meno componenti connesse
+        nextRound();
+        int needed = 0;
+        for (int i = 0; i < len; i++) {
+            int root1 = trialFind(ends1[i]);
+            int root2 = trialFind(ends2[i]);
+            if (root1 != root2) {
+                trialParent[root1] = root2;
+                needed++;
+            }
+        }
+        while (needed > 0) {
+            int half = (len + 1) / 2;
+            if (half < len) {
+                select(len, half);
+            }
+            // Foresta di copertura della metà leggera sul grafo contratto: gli
+            // archi che la compongono vengono spostati in testa
+            nextRound();
+            int merged = 0;
+            for (int i = 0; i < half; i++) {
+                int root1 = trialFind(disjointSets.findHandle(ends1[i]));
+                int root2 = trialFind(disjointSets.findHandle(ends2[i]));
+                if (root1 != root2) {
+                    trialParent[root1] = root2;
+                    swap(i, merged++);
+                }
+            }
+            if (merged == needed && half < len) {
+                // La metà leggera basta: quella pesante non serve
+                len = half;
+                continue;
+            }
+            for (int i = 0; i < merged; i++) {
+                disjointSets.unionHandles(ends1[i], ends2[i]);
+                chosen[chosenCount++] = edgeIds[i];
+                bottleneck = Math.max(bottleneck, weights[i]);
+            }
+            needed -= merged;
+            // Restano solo gli archi pesanti tra alberi diversi
+            int kept = 0;
+            for (int i = half; i < len; i++) {
+                if (!disjointSets.connectedHandles(ends1[i], ends2[i])) {
+                    swap(i, kept++);
+                }
+            }
+            len = kept;
+        }
+    }
+
+    /*
+     * Inserisce i nodi del grafo in disjointSets e gli archi negli array
+     * paralleli, restituendo il numero di archi.
+     */
+    @SuppressWarnings("unchecked")
+    private int load(Graph<L> g) {
+        if (g == null) {
+            throw new NullPointerException("Graph cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        disjointSets.clear();
+        for (GraphNode<L> node : g.getNodes()) {
+            disjointSets.makeSetHandle(node);
+        }
+        int m = g.edgeCount();
+        edges = (GraphEdge<L>[]) new GraphEdge<?>[m];
+        ends1 = new int[m];
+        ends2 = new int[m];
+        weights = new double[m];
+        edgeIds = new int[m];
+        int[] count = new int[1];
+        // I cappi non fanno mai parte dell'albero e vengono scartati; edgeCount
+        // ne conta metà, per cui gli array bastano per gli archi restanti
+        g.forEachEdge(edge -> {
+            if (edge.getNode1().equals(edge.getNode2())) {
+                return;
+            }
+            int i = count[0]++;
+            edges[i] = edge;
+            ends1[i] = disjointSets.handleOf(edge.getNode1());
+            ends2[i] = disjointSets.handleOf(edge.getNode2());
+            weights[i] = edge.getWeight();
+            edgeIds[i] = i;
+        });
+        return count[0];
+    }
+
+    /*
+     * Permuta i primi len archi in modo che i primi k abbiano peso non
+     * maggiore di quello dei successivi: selezione casuale con partizione a
+     * tre vie, che resta lineare anche con molti pesi uguali.
+     */
+    private void select(int len, int k) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lo = 0;
+        int hi = len;
+        while (hi - lo > 1) {
+            double pivot = weights[lo + random.nextInt(hi - lo)];
+            // [lo, lt) minori, [lt, i) uguali, (gt, hi) maggiori del pivot
+            int lt = lo;
+            int gt = hi - 1;
+            int i = lo;
+            while (i <= gt) {
+                if (weights[i] < pivot) {
+                    swap(i++, lt++);
+                } else if (weights[i] > pivot) {
+                    swap(i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (k <= lt) {
+                hi = lt;
+            } else if (k > gt + 1) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        int t = ends1[i];
+        ends1[i] = ends1[j];
+        ends1[j] = t;
+        t = ends2[i];
+        ends2[i] = ends2[j];
+        ends2[j] = t;
+        t = edgeIds[i];
+        edgeIds[i] = edgeIds[j];
+        edgeIds[j] = t;
+        double w = weights[i];
+        weights[i] = weights[j];
+        weights[j] = w;
+    }
+
+    private void nextRound() {
+        if (++round == 0) {
+            Arrays.fill(trialStamp, 0);
+            round = 1;
+        }
+    }
+
+    /*
+     * Rappresentante di prova di un handle, con dimezzamento dei cammini.
+     */
+    private int trialFind(int handle) {
+        if (trialStamp[handle] != round) {
+            trialStamp[handle] = round;
+            trialParent[handle] = handle;
+            return handle;
+        }
+        while (trialParent[handle] != handle) {
+            trialParent[handle] = trialParent[trialParent[handle]];
+            handle = trialParent[handle];
+        }
+        return handle;
+    }
+}
@@ -0,0 +1,128 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe BottleneckSpanningTree.
+ */
+class BottleneckSpanningTreeTest {
+
+    @Test
+    final void testSelfLoops() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 3));
+        gr.addEdge(new GraphEdge<String>(a, a, false, 10));
+        BottleneckSpanningTree<String> alg = new BottleneckSpanningTree<String>();
+        assertEquals(3.0, alg.computeBottleneckValue(gr));
+        assertEquals(Set.of(new GraphEdge<String>(a, b, false, 3)),
+                alg.computeBottleneckSpanningTree(gr));
+        assertTrue(alg.isConnectedWithin(gr, 3));
+        assertFalse(alg.isConnectedWithin(gr, 2));
+    }
+
+    @Test
+    final void testSmallGraph() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 9));
+        BottleneckSpanningTree<String> alg = new BottleneckSpanningTree<String>();
+        assertEquals(7.0, alg.computeBottleneckValue(gr));
+        Set<GraphEdge<String>> tree = alg.computeBottleneckSpanningTree(gr);
+        assertEquals(3, tree.size());
+        assertTrue(tree.contains(new GraphEdge<String>(c, d, false, 7)));
+        assertTrue(alg.isConnectedWithin(gr, 7));
+        assertFalse(alg.isConnectedWithin(gr, 6.5));
+        // Un nodo isolato non cambia il valore
+        gr.addNode(new GraphNode<String>("e"));
+        assertEquals(7.0, alg.computeBottleneckValue(gr));
+        assertTrue(alg.isConnectedWithin(gr, 7));
+    }
+
+    @Test
+    final void testNoEdges() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        BottleneckSpanningTree<String> alg = new BottleneckSpanningTree<String>();
+        assertEquals(Double.NEGATIVE_INFINITY, alg.computeBottleneckValue(gr));
+        gr.addNode(new GraphNode<String>("a"));
+        gr.addNode(new GraphNode<String>("b"));
+        assertTrue(alg.computeBottleneckSpanningTree(gr).isEmpty());
+        assertTrue(alg.isConnectedWithin(gr, 0));
+        assertThrows(NullPointerException.class, () -> alg.computeBottleneckValue(null));
+    }
+
+    @Test
+    final void testAgainstKruskal() {
+        Random random = new Random(46);
+        BottleneckSpanningTree<Integer> alg = new BottleneckSpanningTree<>();
+        KruskalMSP<Integer> kruskal = new KruskalMSP<>();
+        for (int trial = 0; trial < 40; trial++) {
+            int n = 2 + random.nextInt(60);
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+            List<GraphNode<Integer>> nodes = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                nodes.add(new GraphNode<>(i));
+            }
+            gr.addNodes(nodes);
+            // Pochi pesi distinti per avere molti pareggi, grafi spesso non
+            // connessi
+            int m = random.nextInt(3 * n);
+            int distinct = 1 + random.nextInt(10);
+            for (int k = 0; k < m; k++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if (u != v) {
+                    gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, random.nextInt(distinct)));
+                }
+            }
+            Set<GraphEdge<Integer>> mst = kruskal.computeMSP(gr);
+            double expected = Double.NEGATIVE_INFINITY;
+            for (GraphEdge<Integer> edge : mst) {
+                expected = Math.max(expected, edge.getWeight());
+            }
+            assertEquals(expected, alg.computeBottleneckValue(gr));
+
+            // Il risultato è una foresta di copertura con lo stesso numero di
+            // archi e lo stesso peso massimo
+            Set<GraphEdge<Integer>> tree = alg.computeBottleneckSpanningTree(gr);
+            assertEquals(mst.size(), tree.size());
+            ForestDisjointSets<GraphNode<Integer>> sets = new ForestDisjointSets<>();
+            for (GraphNode<Integer> node : nodes) {
+                sets.makeSet(node);
+            }
+            double max = Double.NEGATIVE_INFINITY;
+            for (GraphEdge<Integer> edge : tree) {
+                assertTrue(gr.containsEdge(edge));
+                assertFalse(sets.findSet(edge.getNode1()).equals(sets.findSet(edge.getNode2())));
+                sets.union(edge.getNode1(), edge.getNode2());
+                max = Math.max(max, edge.getWeight());
+            }
+            assertEquals(expected, max);
+
+            if (!mst.isEmpty()) {
+                assertTrue(alg.isConnectedWithin(gr, expected));
+                assertFalse(alg.isConnectedWithin(gr, expected - 0.5));
+            }
+        }
+    }
+}
@@ -0,0 +1,735 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Classe che implementa un grafo non orientato tramite matrice di adiacenza
+ * utilizzabile contemporaneamente da più thread. La rappresentazione è la
+ * stessa di {@code AdjacencyMatrixUndirectedGraph<L>}: i nodi sono indicizzati
+ * da 0 a nodeCount() - 1 seguendo l'ordine di inserimento e la posizione i,j
+ * della matrice è null oppure contiene l'arco tra i nodi di indice i e j.
+ *
+ * La sincronizzazione è organizzata su due livelli:
+ * <ul>
+ * <li>le operazioni che cambiano l'insieme dei nodi (e quindi la dimensione
+ * della matrice o gli indici) acquisiscono in scrittura un lock strutturale,
+ * mentre tutte le altre operazioni lo acquisiscono in lettura;</li>
+ * <li>le righe della matrice sono protette da un insieme fissato di lock
+ * (lock striping): la riga i è protetta dal lock {@code i % stripes}. Un arco
+ * tra i nodi i e j viene modificato tenendo i lock di entrambe le righe,
+ * acquisiti sempre in ordine crescente per evitare stalli.</li>
+ * </ul>
+ * In questo modo inserimenti e cancellazioni di archi su nodi appartenenti a
+ * stripe diverse procedono in parallelo. Il numero di archi è mantenuto in un
+ * contatore atomico e può essere letto senza acquisire lock.
+ *
+ * Ogni singola operazione vede uno stato consistente del grafo, ma chiamate
+ * successive possono vedere stati diversi se altri thread stanno modificando
+ * il grafo. Gli algoritmi che leggono il grafo più volte, come
+ * {@code KruskalMSP<L>}, devono essere eseguiti su {@code snapshot()}.
+ *
+ * Anche i metodi {@code forEach*} sono singole operazioni: eseguono l'azione
+ * tenendo il lock strutturale in lettura, per cui durante la visita l'insieme
+ * dei nodi non cambia. {@code forEachEdge} tiene anche tutti i lock delle
+ * righe e vede quindi un unico stato degli archi; i metodi che visitano una
+ * sola riga la copiano tenendone il lock e la visitano dopo averlo rilasciato.
+ * L'azione può leggere il grafo e modificarne gli archi, ma non aggiungere o
+ * rimuovere nodi: il lock strutturale non può passare da lettura a scrittura
+ * e il thread resterebbe bloccato.
+ *
+ * @param <L>
+ *                etichette dei nodi del grafo
+ */
+public class ConcurrentAdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /**
+     * Numero di lock sulle righe usato dal costruttore senza parametri.
+     */
+    public static final int DEFAULT_STRIPES = 64;
+
+    // Lock sull'insieme dei nodi e sulla dimensione della matrice
+    private final ReentrantReadWriteLock structureLock;
+
+    // Lock sulle righe della matrice, la riga i è protetta da stripes[i & mask]
+    private final ReentrantLock[] stripes;
+
+    private final int mask;
+
+    // Insieme dei nodi e associazione di ogni nodo con il proprio indice, e
+    // associazione inversa. Modificati solo tenendo il lock strutturale in
+    // scrittura.
+    private Map<GraphNode<L>, Integer> nodesIndex;
+
+    private ArrayList<GraphNode<L>> nodesList;
+
+    // Matrice di adiacenza, di capacità eventualmente maggiore di nodeCount()
+    private GraphEdge<L>[][] matrix;
+
+    // Grado di ogni nodo, protetto dallo stesso lock della riga del nodo
+    private int[] degrees;
+
+    private final AtomicInteger edgeCount;
+
+    /**
+     * Crea un grafo vuoto con {@code DEFAULT_STRIPES} lock sulle righe.
+     */
+    public ConcurrentAdjacencyMatrixUndirectedGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Crea un grafo vuoto con un certo numero di lock sulle righe, arrotondato
+     * alla potenza di due successiva.
+     *
+     * @param stripes
+     *                    il numero di lock sulle righe della matrice
+     * @throws IllegalArgumentException
+     *                                      se il numero di lock non è positivo
+     */
+    public ConcurrentAdjacencyMatrixUndirectedGraph(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be positive");
+        }
+        int n = Integer.highestOneBit(stripes);
+        if (n < stripes) {
+            n <<= 1;
+        }
+        this.structureLock = new ReentrantReadWriteLock();
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = n - 1;
+        this.edgeCount = new AtomicInteger();
+        initStorage();
+    }
+
+    @Override
+    public int nodeCount() {
+        structureLock.readLock().lock();
+        try {
+            return nodesList.size();
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Non acquisisce lock: il contatore è aggiornato atomicamente da ogni
+     * inserimento o cancellazione di archi.
+     */
+    @Override
+    public int edgeCount() {
+        return edgeCount.get();
+    }
+
+    @Override
+    public void clear() {
+        structureLock.writeLock().lock();
+        try {
+            initStorage();
+            edgeCount.set(0);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        structureLock.readLock().lock();
+        try {
+            return new HashSet<>(nodesList);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        structureLock.writeLock().lock();
+        try {
+            if (nodesIndex.containsKey(node)) {
+                return false;
+            }
+            ensureCapacity(nodesList.size() + 1);
+            nodesIndex.put(node, nodesList.size());
+            nodesList.add(node);
+            return true;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int addNodes(Collection<GraphNode<L>> nodes) {
+        if (nodes == null) {
+            throw new NullPointerException("Nodes cannot be null");
+        }
+        for (GraphNode<L> node : nodes) {
+            if (node == null) {
+                throw new NullPointerException("Node cannot be null");
+            }
+        }
+        structureLock.writeLock().lock();
+        try {
+            ensureCapacity(nodesList.size() + nodes.size());
+            int added = 0;
+            for (GraphNode<L> node : nodes) {
+                if (!nodesIndex.containsKey(node)) {
+                    nodesIndex.put(node, nodesList.size());
+                    nodesList.add(node);
+                    added++;
+                }
+            }
+            return added;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeNode(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        structureLock.writeLock().lock();
+        try {
+            Integer boxed = nodesIndex.get(node);
+            if (boxed == null) {
+                return false;
+            }
+            int r = boxed;
+            int n = nodesList.size();
+            int removedEdges = 0;
+            for (int i = 0; i < n; i++) {
+                if (matrix[r][i] != null) {
+                    removedEdges++;
+                    if (i != r) {
+                        degrees[i]--;
+                    }
+                }
+            }
+            // Elimina la riga r facendo scorrere le successive e azzerando
+            // l'ultima, che viene riutilizzata come riga libera
+            GraphEdge<L>[] freed = matrix[r];
+            System.arraycopy(matrix, r + 1, matrix, r, n - r - 1);
+            Arrays.fill(freed, null);
+            matrix[n - 1] = freed;
+            // Elimina la colonna r da ogni riga rimasta
+            for (int i = 0; i < n - 1; i++) {
+                System.arraycopy(matrix[i], r + 1, matrix[i], r, n - r - 1);
+                matrix[i][n - 1] = null;
+            }
+            System.arraycopy(degrees, r + 1, degrees, r, n - r - 1);
+            degrees[n - 1] = 0;
+            nodesList.remove(r);
+            nodesIndex.remove(node);
+            for (int i = r; i < nodesList.size(); i++) {
+                nodesIndex.put(nodesList.get(i), i);
+            }
+            edgeCount.addAndGet(-removedEdges);
+            return true;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsNode(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            return nodesIndex.containsKey(node);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Due nodi sono uguali se hanno la stessa etichetta, per cui la ricerca
+     * nella mappa con un nodo costruito sull'etichetta è sufficiente.
+     */
+    @Override
+    public GraphNode<L> getNodeOf(L label) {
+        if (label == null) {
+            throw new NullPointerException("Label cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            Integer index = nodesIndex.get(new GraphNode<L>(label));
+            return index == null ? null : nodesList.get(index);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null) {
+            throw new NullPointerException("Label cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            Integer index = nodesIndex.get(new GraphNode<L>(label));
+            if (index == null) {
+                throw new IllegalArgumentException("Node with the given label does not exist");
+            }
+            return index;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public GraphNode<L> getNodeAtIndex(int index) {
+        structureLock.readLock().lock();
+        try {
+            if (index < 0 || index >= nodesList.size()) {
+                throw new IndexOutOfBoundsException("Index is out of bounds: " + index);
+            }
+            return nodesList.get(index);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        structureLock.readLock().lock();
+        try {
+            int index = indexOfExisting(node);
+            Set<GraphNode<L>> adjacentNodes = new HashSet<>();
+            ReentrantLock lock = stripeOf(index);
+            lock.lock();
+            try {
+                GraphEdge<L>[] row = matrix[index];
+                for (int i = 0; i < nodesList.size(); i++) {
+                    if (row[i] != null) {
+                        adjacentNodes.add(nodesList.get(i));
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return adjacentNodes;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    /*
+     * Acquisisce tutti i lock delle righe, per cui l'insieme restituito
+     * corrisponde a un unico stato del grafo.
+     */
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        structureLock.readLock().lock();
+        lockAllStripes();
+        try {
+            Set<GraphEdge<L>> edges = new HashSet<>();
+            int n = nodesList.size();
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) { // Each edge is only considered once
+                    if (matrix[i][j] != null) {
+                        edges.add(matrix[i][j]);
+                    }
+                }
+            }
+            return edges;
+        } finally {
+            unlockAllStripes();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            Integer index1 = nodesIndex.get(edge.getNode1());
+            Integer index2 = nodesIndex.get(edge.getNode2());
+            if (index1 == null || index2 == null) {
+                throw new IllegalArgumentException("One or both nodes are not in the graph");
+            }
+            if (edge.isDirected()) {
+                throw new IllegalArgumentException("Edge is directed, but the graph is undirected");
+            }
+            return setEdge(index1, index2, edge);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeEdge(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            Integer index1 = nodesIndex.get(edge.getNode1());
+            Integer index2 = nodesIndex.get(edge.getNode2());
+            if (index1 == null || index2 == null) {
+                return false;
+            }
+            return setEdge(index1, index2, null);
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsEdge(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            Integer index1 = nodesIndex.get(edge.getNode1());
+            Integer index2 = nodesIndex.get(edge.getNode2());
+            if (index1 == null || index2 == null) {
+                throw new IllegalArgumentException("One or both nodes are not in the graph");
+            }
+            ReentrantLock lock = stripeOf(index1);
+            lock.lock();
+            try {
+                return matrix[index1][index2] != null;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        structureLock.readLock().lock();
+        try {
+            int index = indexOfExisting(node);
+            Set<GraphEdge<L>> edges = new HashSet<>();
+            ReentrantLock lock = stripeOf(index);
+            lock.lock();
+            try {
+                GraphEdge<L>[] row = matrix[index];
+                for (int i = 0; i < nodesList.size(); i++) {
+                    if (row[i] != null) {
+                        edges.add(row[i]);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return edges;
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        structureLock.readLock().lock();
+        try {
+            int index = indexOfExisting(node);
+            ReentrantLock lock = stripeOf(index);
+            lock.lock();
+            try {
+                return degrees[index];
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Come getEdges(), acquisisce tutti i lock delle righe: l'azione viene
+     * eseguita tenendoli, per cui vede un unico stato del grafo e le modifiche
+     * degli altri thread attendono la fine della visita.
+     */
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        structureLock.readLock().lock();
+        lockAllStripes();
+        try {
+            int n = nodesList.size();
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) { // Each edge is only visited once
+                    if (matrix[i][j] != null) {
+                        action.accept(matrix[i][j]);
+                    }
+                }
+            }
+        } finally {
+            unlockAllStripes();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachNode(Consumer<? super GraphNode<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            for (int i = 0; i < nodesList.size(); i++) {
+                action.accept(nodesList.get(i));
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachNeighbor(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            for (int i : neighborsOf(indexOfExisting(node))) {
+                action.accept(nodesList.get(i));
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            int index = indexOfExisting(node);
+            ArrayList<GraphEdge<L>> edges = new ArrayList<>();
+            ReentrantLock lock = stripeOf(index);
+            lock.lock();
+            try {
+                GraphEdge<L>[] row = matrix[index];
+                for (int i = 0; i < nodesList.size(); i++) {
+                    if (row[i] != null) {
+                        edges.add(row[i]);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (GraphEdge<L> edge : edges) {
+                action.accept(edge);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachNeighborIndex(int index, IntConsumer action) {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        structureLock.readLock().lock();
+        try {
+            if (index < 0 || index >= nodesList.size()) {
+                throw new IndexOutOfBoundsException("Index is out of bounds: " + index);
+            }
+            for (int i : neighborsOf(index)) {
+                action.accept(i);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restituisce una copia di questo grafo corrispondente a un unico stato,
+     * sulla quale possono essere eseguiti algoritmi che leggono il grafo più
+     * volte, come {@code KruskalMSP<L>} o
+     * {@code UndirectedGraphConnectedComponentsComputer<L>}. Durante la copia
+     * le modifiche degli altri thread vengono sospese; gli oggetti nodo e arco
+     * sono condivisi con questo grafo.
+     *
+     * @return una copia non sincronizzata dello stato corrente di questo grafo
+     */
+    public AdjacencyMatrixUndirectedGraph<L> snapshot() {
+        structureLock.readLock().lock();
+        lockAllStripes();
+        try {
+            AdjacencyMatrixUndirectedGraph<L> copy = new AdjacencyMatrixUndirectedGraph<>();
+            copy.addNodes(nodesList);
+            int n = nodesList.size();
+            ArrayList<GraphEdge<L>> edges = new ArrayList<>(edgeCount.get());
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) {
+                    if (matrix[i][j] != null) {
+                        edges.add(matrix[i][j]);
+                    }
+                }
+            }
+            copy.addEdges(edges);
+            return copy;
+        } finally {
+            unlockAllStripes();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Imposta la posizione i,j (e j,i) della matrice tenendo i lock di
+     * entrambe le righe. Restituisce true se la posizione è cambiata da vuota
+     * a piena o viceversa. Va chiamato tenendo il lock strutturale in lettura.
+     */
+    private boolean setEdge(int index1, int index2, GraphEdge<L> edge) {
+        int s1 = index1 & mask;
+        int s2 = index2 & mask;
+        ReentrantLock first = stripes[Math.min(s1, s2)];
+        ReentrantLock second = stripes[Math.max(s1, s2)];
+        first.lock();
+        second.lock();
+        try {
+            boolean present = matrix[index1][index2] != null;
+            if (present == (edge != null)) {
+                return false;
+            }
+            matrix[index1][index2] = edge;
+            matrix[index2][index1] = edge;
+            int delta = edge != null ? 1 : -1;
+            degrees[index1] += delta;
+            if (index1 != index2) {
+                degrees[index2] += delta;
+            }
+            edgeCount.addAndGet(delta);
+            return true;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    /*
+     * Restituisce gli indici delle posizioni piene della riga index, letti
+     * tenendo il lock della riga. L'azione dei forEach* è eseguita dopo averlo
+     * rilasciato: se acquisisse il lock di un'altra riga potrebbe andare in
+     * stallo con setEdge(), che li acquisisce in ordine crescente. Va chiamato
+     * tenendo il lock strutturale in lettura.
+     */
+    private int[] neighborsOf(int index) {
+        ReentrantLock lock = stripeOf(index);
+        lock.lock();
+        try {
+            GraphEdge<L>[] row = matrix[index];
+            int[] neighbors = new int[degrees[index]];
+            int k = 0;
+            for (int i = 0; i < nodesList.size(); i++) {
+                if (row[i] != null) {
+                    neighbors[k++] = i;
+                }
+            }
+            return neighbors;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Restituisce l'indice di un nodo controllando che non sia null e che sia
+     * presente nel grafo. Va chiamato tenendo il lock strutturale.
+     */
+    private int indexOfExisting(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        Integer index = nodesIndex.get(node);
+        if (index == null) {
+            throw new IllegalArgumentException("Node does not exist in the graph");
+        }
+        return index;
+    }
+
+    private ReentrantLock stripeOf(int index) {
+        return stripes[index & mask];
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    /*
+     * Garantisce che la matrice possa contenere almeno capacity nodi. Va
+     * chiamato tenendo il lock strutturale in scrittura.
+     */
+    private void ensureCapacity(int capacity) {
+        if (matrix.length >= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, 2 * matrix.length);
+        GraphEdge<L>[][] newMatrix = newMatrix(newCapacity);
+        for (int i = 0; i < nodesList.size(); i++) {
+            System.arraycopy(matrix[i], 0, newMatrix[i], 0, nodesList.size());
+        }
+        matrix = newMatrix;
+        degrees = Arrays.copyOf(degrees, newCapacity);
+    }
+
+    private void initStorage() {
+        this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodesList = new ArrayList<GraphNode<L>>();
+        this.matrix = newMatrix(0);
+        this.degrees = new int[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private GraphEdge<L>[][] newMatrix(int capacity) {
+        return (GraphEdge<L>[][]) new GraphEdge<?>[capacity][capacity];
+    }
+}
@@ -0,0 +1,186 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe ConcurrentAdjacencyMatrixUndirectedGraph.
+ */
+class ConcurrentAdjacencyMatrixUndirectedGraphTest {
+
+    @Test
+    void testAddAndRemove() {
+        ConcurrentAdjacencyMatrixUndirectedGraph<String> graph = new ConcurrentAdjacencyMatrixUndirectedGraph<>(4);
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        assertEquals(3, graph.addNodes(List.of(nodeA, nodeB, nodeC)));
+        assertFalse(graph.addNode(nodeA));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false, 1);
+        GraphEdge<String> edgeBC = new GraphEdge<>(nodeB, nodeC, false, 2);
+        assertTrue(graph.addEdge(edgeAB));
+        assertFalse(graph.addEdge(edgeAB));
+        assertTrue(graph.addEdge(edgeBC));
+        assertEquals(2, graph.edgeCount());
+        assertEquals(2, graph.getDegreeOf(nodeB));
+        assertEquals(Set.of(nodeA, nodeC), graph.getAdjacentNodesOf(nodeB));
+        assertSame(nodeC, graph.getNodeOf("C"));
+        assertEquals(2, graph.getNodeIndexOf("C"));
+
+        // Rimuovendo A gli indici scorrono e l'arco AB scompare
+        assertTrue(graph.removeNode(nodeA));
+        assertEquals(1, graph.edgeCount());
+        assertEquals(0, graph.getNodeIndexOf("B"));
+        assertEquals(1, graph.getDegreeOf(nodeB));
+        assertEquals(Set.of(edgeBC), graph.getEdges());
+
+        assertTrue(graph.removeEdge(edgeBC));
+        assertEquals(0, graph.edgeCount());
+        assertFalse(graph.containsEdge(edgeBC));
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.addEdge(new GraphEdge<>(nodeA, nodeB, false)));
+        assertThrows(IllegalArgumentException.class,
+                () -> graph.addEdge(new GraphEdge<>(nodeB, nodeC, true)));
+    }
+
+    @Test
+    void testConcurrentAddEdge() throws InterruptedException {
+        ConcurrentAdjacencyMatrixUndirectedGraph<Integer> graph = new ConcurrentAdjacencyMatrixUndirectedGraph<>();
+        int n = 200;
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        graph.addNodes(nodes);
+        int threads = 8;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            Thread worker = new Thread(() -> {
+                // Ogni thread inserisce gli archi (i, j) con i + j congruo al
+                // proprio numero modulo threads
+                for (int i = 0; i < n; i++) {
+                    for (int j = i + 1; j < n; j++) {
+                        if ((i + j) % threads == offset) {
+                            graph.addEdge(new GraphEdge<>(nodes.get(i), nodes.get(j), false, i + j));
+                        }
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(n * (n - 1) / 2, graph.edgeCount());
+        assertEquals(n * (n - 1) / 2, graph.getEdges().size());
+        for (GraphNode<Integer> node : nodes) {
+            assertEquals(n - 1, graph.getDegreeOf(node));
+        }
+    }
+
+    @Test
+    void testForEachWhileMutating() throws InterruptedException {
+        ConcurrentAdjacencyMatrixUndirectedGraph<Integer> graph = new ConcurrentAdjacencyMatrixUndirectedGraph<>(4);
+        int n = 50;
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        graph.addNodes(nodes);
+        AtomicBoolean done = new AtomicBoolean();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            final int offset = t;
+            // Ogni scrittore aggiunge un nodo, lo collega ai nodi fissi e lo
+            // rimuove, e intanto aggiunge e rimuove archi tra i nodi fissi
+            threads.add(new Thread(() -> {
+                for (int k = 0; k < 300; k++) {
+                    GraphNode<Integer> extra = new GraphNode<>(n + 2 * k + offset);
+                    graph.addNode(extra);
+                    for (int i = offset; i < n; i += 2) {
+                        graph.addEdge(new GraphEdge<>(extra, nodes.get(i), false, k));
+                        GraphEdge<Integer> edge = new GraphEdge<>(nodes.get(i), nodes.get((i + k) % n), false, i);
+                        if (!graph.addEdge(edge)) {
+                            graph.removeEdge(edge);
+                        }
+                    }
+                    graph.removeNode(extra);
+                }
+            }));
+        }
+        for (int t = 0; t < 2; t++) {
+            // I lettori controllano che ogni arco visitato colleghi nodi
+            // ancora presenti e che nessun arco sia visitato due volte
+            threads.add(new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        Set<GraphEdge<Integer>> seen = new HashSet<>();
+                        graph.forEachEdge(edge -> {
+                            assertTrue(graph.containsNode(edge.getNode1()));
+                            assertTrue(graph.containsNode(edge.getNode2()));
+                            assertTrue(seen.add(edge));
+                        });
+                        for (GraphNode<Integer> node : nodes) {
+                            graph.forEachEdgeOf(node, edge -> {
+                                assertTrue(graph.containsNode(edge.getNode1()));
+                                assertTrue(graph.containsNode(edge.getNode2()));
+                            });
+                            graph.forEachNeighbor(node, neighbor -> assertTrue(graph.containsNode(neighbor)));
+                            graph.forEachNeighborIndex(graph.getNodeIndexOf(node.getLabel()),
+                                    i -> assertNotNull(graph.getNodeAtIndex(i)));
+                        }
+                        int[] count = new int[1];
+                        graph.forEachNode(node -> count[0]++);
+                        assertTrue(count[0] >= n);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        threads.get(0).join();
+        threads.get(1).join();
+        done.set(true);
+        threads.get(2).join();
+        threads.get(3).join();
+        assertTrue(failures.isEmpty(), () -> failures.peek().toString());
+        assertEquals(n, graph.nodeCount());
+    }
+
+    @Test
+    void testSnapshot() {
+        ConcurrentAdjacencyMatrixUndirectedGraph<String> graph = new ConcurrentAdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB, nodeC));
+        graph.addEdge(new GraphEdge<>(nodeA, nodeB, false, 1));
+        graph.addEdge(new GraphEdge<>(nodeB, nodeC, false, 2));
+        graph.addEdge(new GraphEdge<>(nodeA, nodeC, false, 3));
+
+        AdjacencyMatrixUndirectedGraph<String> snapshot = graph.snapshot();
+        graph.removeNode(nodeC);
+        assertEquals(3, snapshot.nodeCount());
+        assertEquals(3, snapshot.edgeCount());
+
+        Set<GraphEdge<String>> mst = new KruskalMSP<String>().computeMSP(snapshot);
+        Set<GraphEdge<String>> expected = new HashSet<>();
+        expected.add(new GraphEdge<>(nodeA, nodeB, false));
+        expected.add(new GraphEdge<>(nodeB, nodeC, false));
+        assertEquals(expected, mst);
+    }
+}
@@ -0,0 +1,705 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Classe che implementa un grafo non orientato con matrice di adiacenza in cui
+ * ogni modifica produce una nuova versione del grafo (copy-on-write). Le
+ * versioni sono immutabili: un algoritmo può ottenere la versione corrente
+ * tramite {@code snapshot()} ed eseguire su di essa, ad esempio,
+ * {@code KruskalMSP.computeMSP} mentre altri thread continuano a modificare il
+ * grafo senza essere bloccati.
+ *
+ * Le versioni condividono tutto ciò che non cambia:
+ * <ul>
+ * <li>una modifica degli archi copia l'array delle righe (solo i riferimenti)
+ * e le sole righe dei due estremi dell'arco; tutte le altre righe sono
+ * condivise con la versione precedente;</li>
+ * <li>l'aggiunta di nodi non copia le righe esistenti: una riga più corta del
+ * numero di nodi è considerata vuota nelle colonne mancanti;</li>
+ * <li>l'array dei nodi e la mappa nodo-indice sono condivisi e crescono solo
+ * in coda; ogni versione ne vede solo i primi nodeCount() elementi. La
+ * rimozione di un nodo, che cambia gli indici, crea invece strutture
+ * nuove.</li>
+ * </ul>
+ * Una versione non più referenziata da nessun lettore viene recuperata dal
+ * garbage collector.
+ *
+ * Le modifiche sono serializzate tra loro; le letture non acquisiscono lock e
+ * leggono la versione corrente al momento della chiamata.
+ *
+ * @param <L>
+ *                etichette dei nodi del grafo
+ */
+public class CopyOnWriteUndirectedGraph<L> extends Graph<L> {
+
+    // Versione corrente, sostituita atomicamente ad ogni modifica
+    private volatile Snapshot<L> current;
+
+    // Serializza le modifiche
+    private final Object writeLock = new Object();
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public CopyOnWriteUndirectedGraph() {
+        this.current = Snapshot.empty();
+    }
+
+    /**
+     * Restituisce la versione corrente di questo grafo. La versione
+     * restituita non cambia più, qualunque modifica venga fatta in seguito a
+     * questo grafo, e supporta tutte le operazioni di lettura di
+     * {@code Graph<L>}; le operazioni di modifica lanciano
+     * {@code UnsupportedOperationException}.
+     *
+     * @return la versione corrente di questo grafo, in sola lettura
+     */
+    public Snapshot<L> snapshot() {
+        return current;
+    }
+
+    @Override
+    public int nodeCount() {
+        return current.nodeCount();
+    }
+
+    @Override
+    public int edgeCount() {
+        return current.edgeCount();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (writeLock) {
+            current = Snapshot.empty();
+        }
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return current.getNodes();
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            if (v.containsNode(node)) {
+                return false;
+            }
+            GraphNode<L>[] nodes = v.appendableNodes(v.nodeCount + 1);
+            nodes[v.nodeCount] = node;
+            v.index.put(node, v.nodeCount);
+            GraphEdge<L>[][] rows = Arrays.copyOf(v.rows, v.nodeCount + 1);
+            rows[v.nodeCount] = Snapshot.emptyRow();
+            current = new Snapshot<>(nodes, v.nodeCount + 1, v.index, rows,
+                    v.edgeCount);
+            return true;
+        }
+    }
+
+    @Override
+    public int addNodes(Collection<GraphNode<L>> nodes) {
+        if (nodes == null) {
+            throw new NullPointerException("Nodes cannot be null");
+        }
+        for (GraphNode<L> node : nodes) {
+            if (node == null) {
+                throw new NullPointerException("Node cannot be null");
+            }
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            GraphNode<L>[] newNodes = v.appendableNodes(v.nodeCount + nodes.size());
+            int n = v.nodeCount;
+            for (GraphNode<L> node : nodes) {
+                // La mappa contiene esattamente i nodi della versione corrente
+                // e quelli già aggiunti da questo ciclo
+                if (!v.index.containsKey(node)) {
+                    newNodes[n] = node;
+                    v.index.put(node, n);
+                    n++;
+                }
+            }
+            if (n == v.nodeCount) {
+                return 0;
+            }
+            GraphEdge<L>[][] rows = Arrays.copyOf(v.rows, n);
+            for (int i = v.nodeCount; i < n; i++) {
+                rows[i] = Snapshot.emptyRow();
+            }
+            current = new Snapshot<>(newNodes, n, v.index, rows, v.edgeCount);
+            return n - v.nodeCount;
+        }
+    }
+
+    /*
+     * La rimozione cambia gli indici dei nodi successivi, per cui costruisce
+     * un nuovo array dei nodi, una nuova mappa e nuove righe senza la colonna
+     * del nodo rimosso. Le versioni precedenti restano invariate.
+     */
+    @Override
+    public boolean removeNode(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            if (!v.containsNode(node)) {
+                return false;
+            }
+            int r = v.index.get(node);
+            int n = v.nodeCount - 1;
+            GraphNode<L>[] nodes = Snapshot.newNodeArray(n);
+            Map<GraphNode<L>, Integer> index = new ConcurrentHashMap<>();
+            GraphEdge<L>[][] rows = Snapshot.newRowArray(n);
+            int removedEdges = 0;
+            GraphEdge<L>[] removedRow = v.rows[r];
+            for (int j = 0; j < removedRow.length; j++) {
+                if (removedRow[j] != null) {
+                    removedEdges++;
+                }
+            }
+            for (int i = 0, k = 0; i < v.nodeCount; i++) {
+                if (i == r) {
+                    continue;
+                }
+                nodes[k] = v.nodes[i];
+                index.put(v.nodes[i], k);
+                GraphEdge<L>[] row = v.rows[i];
+                if (row.length <= r) {
+                    rows[k] = row;
+                } else {
+                    GraphEdge<L>[] newRow = Arrays.copyOf(row, row.length - 1);
+                    System.arraycopy(row, r + 1, newRow, r, row.length - r - 1);
+                    rows[k] = newRow;
+                }
+                k++;
+            }
+            current = new Snapshot<>(nodes, n, index, rows,
+                    v.edgeCount - removedEdges);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean containsNode(GraphNode<L> node) {
+        return current.containsNode(node);
+    }
+
+    @Override
+    public GraphNode<L> getNodeOf(L label) {
+        return current.getNodeOf(label);
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        return current.getNodeIndexOf(label);
+    }
+
+    @Override
+    public GraphNode<L> getNodeAtIndex(int i) {
+        return current.getNodeAtIndex(i);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        return current.getAdjacentNodesOf(node);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        return current.getEdges();
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null");
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            int index1 = v.indexOfEdgeNode(edge.getNode1());
+            int index2 = v.indexOfEdgeNode(edge.getNode2());
+            if (edge.isDirected()) {
+                throw new IllegalArgumentException("Edge is directed, but the graph is undirected");
+            }
+            if (v.cell(index1, index2) != null) {
+                return false;
+            }
+            current = v.withCell(index1, index2, edge, v.edgeCount + 1);
+            return true;
+        }
+    }
+
+    /*
+     * Tutti gli archi vengono validati prima di creare la nuova versione, che
+     * copia ogni riga toccata una sola volta.
+     */
+    @Override
+    public int addEdges(Collection<GraphEdge<L>> edges) {
+        if (edges == null) {
+            throw new NullPointerException("Edges cannot be null");
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            int[] indexes = new int[2 * edges.size()];
+            int k = 0;
+            for (GraphEdge<L> edge : edges) {
+                if (edge == null) {
+                    throw new NullPointerException("Edge cannot be null");
+                }
+                indexes[k++] = v.indexOfEdgeNode(edge.getNode1());
+                indexes[k++] = v.indexOfEdgeNode(edge.getNode2());
+                if (edge.isDirected()) {
+                    throw new IllegalArgumentException("Edge is directed, but the graph is undirected");
+                }
+            }
+            GraphEdge<L>[][] rows = v.rows.clone();
+            boolean[] copied = new boolean[v.nodeCount];
+            int added = 0;
+            k = 0;
+            for (GraphEdge<L> edge : edges) {
+                int index1 = indexes[k++];
+                int index2 = indexes[k++];
+                if (index2 < rows[index1].length && rows[index1][index2] != null) {
+                    continue;
+                }
+                copyRowOnce(rows, copied, index1);
+                copyRowOnce(rows, copied, index2);
+                rows[index1][index2] = edge;
+                rows[index2][index1] = edge;
+                added++;
+            }
+            if (added > 0) {
+                current = new Snapshot<>(v.nodes, v.nodeCount, v.index, rows,
+                        v.edgeCount + added);
+            }
+            return added;
+        }
+    }
+
+    /*
+     * Sostituisce la riga i con una sua copia lunga quanto il numero di nodi,
+     * se non è già stata copiata durante la modifica corrente.
+     */
+    private static <L> void copyRowOnce(GraphEdge<L>[][] rows, boolean[] copied,
+            int i) {
+        if (!copied[i]) {
+            rows[i] = Arrays.copyOf(rows[i], copied.length);
+            copied[i] = true;
+        }
+    }
+
+    @Override
+    public boolean removeEdge(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null");
+        }
+        synchronized (writeLock) {
+            Snapshot<L> v = current;
+            if (!v.containsNode(edge.getNode1()) || !v.containsNode(edge.getNode2())) {
+                return false;
+            }
+            int index1 = v.index.get(edge.getNode1());
+            int index2 = v.index.get(edge.getNode2());
+            if (v.cell(index1, index2) == null) {
+                return false;
+            }
+            current = v.withCell(index1, index2, null, v.edgeCount - 1);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean containsEdge(GraphEdge<L> edge) {
+        return current.containsEdge(edge);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        return current.getEdgesOf(node);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        return current.getDegreeOf(node);
+    }
+
+    @Override
+    public void forEachNode(Consumer<? super GraphNode<L>> action) {
+        current.forEachNode(action);
+    }
+
+    @Override
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        current.forEachEdge(action);
+    }
+
+    @Override
+    public void forEachNeighbor(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+        current.forEachNeighbor(node, action);
+    }
+
+    @Override
+    public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+        current.forEachEdgeOf(node, action);
+    }
+
+    @Override
+    public void forEachNeighborIndex(int i, IntConsumer action) {
+        current.forEachNeighborIndex(i, action);
+    }
+
+    /**
+     * Versione immutabile di un {@code CopyOnWriteUndirectedGraph<L>}. Tutte
+     * le operazioni di lettura sono supportate, mentre quelle di modifica
+     * lanciano {@code UnsupportedOperationException}. Può essere letta da più
+     * thread contemporaneamente senza sincronizzazione.
+     *
+     * @param <L>
+     *                etichette dei nodi del grafo
+     */
+    public static final class Snapshot<L> extends Graph<L> {
+
+        @SuppressWarnings("rawtypes")
+        private static final GraphEdge[] EMPTY_ROW = new GraphEdge[0];
+
+        // Array dei nodi, possibilmente condiviso con versioni successive che
+        // lo estendono oltre nodeCount
+        private final GraphNode<L>[] nodes;
+
+        private final int nodeCount;
+
+        // Mappa nodo-indice condivisa con le altre versioni che non hanno
+        // rimosso nodi; un nodo appartiene a questa versione solo se il suo
+        // indice è minore di nodeCount
+        private final Map<GraphNode<L>, Integer> index;
+
+        // Righe della matrice; le colonne oltre la lunghezza di una riga sono
+        // vuote
+        private final GraphEdge<L>[][] rows;
+
+        private final int edgeCount;
+
+        private Snapshot(GraphNode<L>[] nodes, int nodeCount,
+                Map<GraphNode<L>, Integer> index, GraphEdge<L>[][] rows,
+                int edgeCount) {
+            this.nodes = nodes;
+            this.nodeCount = nodeCount;
+            this.index = index;
+            this.rows = rows;
+            this.edgeCount = edgeCount;
+        }
+
+        private static <L> Snapshot<L> empty() {
+            return new Snapshot<>(newNodeArray(0), 0,
+                    new ConcurrentHashMap<>(), newRowArray(0), 0);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <L> GraphNode<L>[] newNodeArray(int length) {
+            return (GraphNode<L>[]) new GraphNode<?>[length];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <L> GraphEdge<L>[][] newRowArray(int length) {
+            return (GraphEdge<L>[][]) new GraphEdge<?>[length][];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <L> GraphEdge<L>[] emptyRow() {
+            return (GraphEdge<L>[]) EMPTY_ROW;
+        }
+
+        /*
+         * Restituisce un array dei nodi in cui si può scrivere dalla posizione
+         * nodeCount in poi senza modificare ciò che vede questa versione o
+         * qualunque versione precedente.
+         */
+        private GraphNode<L>[] appendableNodes(int capacity) {
+            if (capacity <= nodes.length) {
+                return nodes;
+            }
+            return Arrays.copyOf(nodes, Math.max(capacity, 2 * nodes.length));
+        }
+
+        private GraphEdge<L> cell(int i, int j) {
+            GraphEdge<L>[] row = rows[i];
+            return j < row.length ? row[j] : null;
+        }
+
+        /*
+         * Crea una nuova versione in cui le posizioni i,j e j,i contengono
+         * edge, copiando solo le due righe interessate.
+         */
+        private Snapshot<L> withCell(int i, int j, GraphEdge<L> edge,
+                int newEdgeCount) {
+            GraphEdge<L>[][] newRows = rows.clone();
+            newRows[i] = Arrays.copyOf(rows[i], Math.max(rows[i].length, j + 1));
+            newRows[i][j] = edge;
+            if (i != j) {
+                newRows[j] = Arrays.copyOf(rows[j], Math.max(rows[j].length, i + 1));
+                newRows[j][i] = edge;
+            }
+            return new Snapshot<>(nodes, nodeCount, index, newRows, newEdgeCount);
+        }
+
+        private Integer indexOf(GraphNode<L> node) {
+            Integer i = index.get(node);
+            return i != null && i < nodeCount ? i : null;
+        }
+
+        private int indexOfExisting(GraphNode<L> node) {
+            if (node == null) {
+                throw new NullPointerException("Node cannot be null");
+            }
+            Integer i = indexOf(node);
+            if (i == null) {
+                throw new IllegalArgumentException("Node does not exist in the graph");
+            }
+            return i;
+        }
+
+        private int indexOfEdgeNode(GraphNode<L> node) {
+            Integer i = indexOf(node);
+            if (i == null) {
+                throw new IllegalArgumentException("One or both nodes are not in the graph");
+            }
+            return i;
+        }
+
+        @Override
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        @Override
+        public int edgeCount() {
+            return edgeCount;
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException("Snapshot in sola lettura");
+        }
+
+        @Override
+        public boolean isDirected() {
+            return false;
+        }
+
+        @Override
+        public Set<GraphNode<L>> getNodes() {
+            Set<GraphNode<L>> result = new HashSet<>();
+            for (int i = 0; i < nodeCount; i++) {
+                result.add(nodes[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean addNode(GraphNode<L> node) {
+            throw new UnsupportedOperationException("Snapshot in sola lettura");
+        }
+
+        @Override
+        public boolean removeNode(GraphNode<L> node) {
+            throw new UnsupportedOperationException("Snapshot in sola lettura");
+        }
+
+        @Override
+        public boolean containsNode(GraphNode<L> node) {
+            if (node == null) {
+                throw new NullPointerException("Node cannot be null");
+            }
+            return indexOf(node) != null;
+        }
+
+        @Override
+        public GraphNode<L> getNodeOf(L label) {
+            if (label == null) {
+                throw new NullPointerException("Label cannot be null");
+            }
+            Integer i = indexOf(new GraphNode<L>(label));
+            return i == null ? null : nodes[i];
+        }
+
+        @Override
+        public int getNodeIndexOf(L label) {
+            if (label == null) {
+                throw new NullPointerException("Label cannot be null");
+            }
+            Integer i = indexOf(new GraphNode<L>(label));
+            if (i == null) {
+                throw new IllegalArgumentException("Node with the given label does not exist");
+            }
+            return i;
+        }
+
+        @Override
+        public GraphNode<L> getNodeAtIndex(int i) {
+            if (i < 0 || i >= nodeCount) {
+                throw new IndexOutOfBoundsException("Index is out of bounds: " + i);
+            }
+            return nodes[i];
+        }
+
+        @Override
+        public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+            Set<GraphNode<L>> adjacentNodes = new HashSet<>();
+            forEachNeighbor(node, adjacentNodes::add);
+            return adjacentNodes;
+        }
+
+        @Override
+        public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+            throw new UnsupportedOperationException(
+                    "Operazione non supportata in un grafo non orientato");
+        }
+
+        @Override
+        public Set<GraphEdge<L>> getEdges() {
+            Set<GraphEdge<L>> edges = new HashSet<>();
+            forEachEdge(edges::add);
+            return edges;
+        }
+
+        @Override
+        public boolean addEdge(GraphEdge<L> edge) {
+            throw new UnsupportedOperationException("Snapshot in sola lettura");
+        }
+
+        @Override
+        public boolean removeEdge(GraphEdge<L> edge) {
+            throw new UnsupportedOperationException("Snapshot in sola lettura");
+        }
+
+        @Override
+        public boolean containsEdge(GraphEdge<L> edge) {
+            if (edge == null) {
+                throw new NullPointerException("Edge cannot be null");
+            }
+            return cell(indexOfEdgeNode(edge.getNode1()),
+                    indexOfEdgeNode(edge.getNode2())) != null;
+        }
+
+        @Override
+        public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+            Set<GraphEdge<L>> edges = new HashSet<>();
+            forEachEdgeOf(node, edges::add);
+            return edges;
+        }
+
+        @Override
+        public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+            throw new UnsupportedOperationException(
+                    "Operazione non supportata in un grafo non orientato");
+        }
+
+        @Override
+        public int getDegreeOf(GraphNode<L> node) {
+            int degree = 0;
+            for (GraphEdge<L> edge : rows[indexOfExisting(node)]) {
+                if (edge != null) {
+                    degree++;
+                }
+            }
+            return degree;
+        }
+
+        @Override
+        public void forEachNode(Consumer<? super GraphNode<L>> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                action.accept(nodes[i]);
+            }
+        }
+
+        @Override
+        public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                GraphEdge<L>[] row = rows[i];
+                for (int j = i; j < row.length; j++) { // Each edge is only visited once
+                    if (row[j] != null) {
+                        action.accept(row[j]);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void forEachNeighbor(GraphNode<L> node, Consumer<? super GraphNode<L>> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            GraphEdge<L>[] row = rows[indexOfExisting(node)];
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] != null) {
+                    action.accept(nodes[j]);
+                }
+            }
+        }
+
+        @Override
+        public void forEachEdgeOf(GraphNode<L> node, Consumer<? super GraphEdge<L>> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            for (GraphEdge<L> edge : rows[indexOfExisting(node)]) {
+                if (edge != null) {
+                    action.accept(edge);
+                }
+            }
+        }
+
+        @Override
+        public void forEachNeighborIndex(int i, IntConsumer action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            if (i < 0 || i >= nodeCount) {
+                throw new IndexOutOfBoundsException("Index is out of bounds: " + i);
+            }
+            GraphEdge<L>[] row = rows[i];
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] != null) {
+                    action.accept(j);
+                }
+            }
+        }
+    }
+}
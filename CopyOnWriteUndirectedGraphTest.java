@@ -0,0 +1,103 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe CopyOnWriteUndirectedGraph.
+ */
+class CopyOnWriteUndirectedGraphTest {
+
+    @Test
+    void testSnapshotIsFrozen() {
+        CopyOnWriteUndirectedGraph<String> graph = new CopyOnWriteUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB));
+        GraphEdge<String> edgeAB = new GraphEdge<>(nodeA, nodeB, false, 1);
+        assertTrue(graph.addEdge(edgeAB));
+        CopyOnWriteUndirectedGraph.Snapshot<String> before = graph.snapshot();
+
+        // Le modifiche successive non devono essere visibili nello snapshot
+        assertTrue(graph.addNode(nodeC));
+        GraphEdge<String> edgeBC = new GraphEdge<>(nodeB, nodeC, false, 2);
+        assertTrue(graph.addEdge(edgeBC));
+        assertTrue(graph.removeEdge(edgeAB));
+
+        assertEquals(2, before.nodeCount());
+        assertEquals(1, before.edgeCount());
+        assertFalse(before.containsNode(nodeC));
+        assertNull(before.getNodeOf("C"));
+        assertEquals(Set.of(edgeAB), before.getEdges());
+        assertEquals(1, before.getDegreeOf(nodeB));
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(Set.of(edgeBC), graph.getEdges());
+        assertEquals(Set.of(nodeC), graph.getAdjacentNodesOf(nodeB));
+
+        assertThrows(UnsupportedOperationException.class, () -> before.addNode(nodeC));
+        assertThrows(UnsupportedOperationException.class, () -> before.removeEdge(edgeAB));
+    }
+
+    @Test
+    void testRemoveNode() {
+        CopyOnWriteUndirectedGraph<String> graph = new CopyOnWriteUndirectedGraph<>();
+        GraphNode<String> nodeA = new GraphNode<>("A");
+        GraphNode<String> nodeB = new GraphNode<>("B");
+        GraphNode<String> nodeC = new GraphNode<>("C");
+        graph.addNodes(List.of(nodeA, nodeB, nodeC));
+        graph.addEdges(List.of(new GraphEdge<>(nodeA, nodeB, false),
+                new GraphEdge<>(nodeB, nodeC, false), new GraphEdge<>(nodeA, nodeC, false)));
+        CopyOnWriteUndirectedGraph.Snapshot<String> before = graph.snapshot();
+
+        assertTrue(graph.removeNode(nodeB));
+        assertFalse(graph.removeNode(nodeB));
+        assertEquals(2, graph.nodeCount());
+        assertEquals(1, graph.edgeCount());
+        assertEquals(1, graph.getNodeIndexOf("C"));
+        assertTrue(graph.containsEdge(new GraphEdge<>(nodeA, nodeC, false)));
+
+        assertEquals(3, before.nodeCount());
+        assertEquals(3, before.edgeCount());
+        assertEquals(1, before.getNodeIndexOf("B"));
+
+        // Il nodo rimosso può essere reinserito con un nuovo indice
+        assertTrue(graph.addNode(nodeB));
+        assertEquals(2, graph.getNodeIndexOf("B"));
+        assertEquals(0, graph.getDegreeOf(nodeB));
+    }
+
+    @Test
+    void testComputeMSPWhileWriting() throws InterruptedException {
+        CopyOnWriteUndirectedGraph<Integer> graph = new CopyOnWriteUndirectedGraph<>();
+        int n = 50;
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        graph.addNodes(nodes);
+        // Un cammino 0 - 1 - ... - n-1 con pesi unitari
+        for (int i = 0; i + 1 < n; i++) {
+            graph.addEdge(new GraphEdge<>(nodes.get(i), nodes.get(i + 1), false, 1));
+        }
+        CopyOnWriteUndirectedGraph.Snapshot<Integer> snapshot = graph.snapshot();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i + 2 < n; i++) {
+                graph.addEdge(new GraphEdge<>(nodes.get(i), nodes.get(i + 2), false, 0.5));
+            }
+        });
+        writer.start();
+        Set<GraphEdge<Integer>> mst = new KruskalMSP<Integer>().computeMSP(snapshot);
+        writer.join();
+        assertEquals(new HashSet<>(snapshot.getEdges()), mst);
+        assertEquals(n - 1 + n - 2, graph.edgeCount());
+    }
+}
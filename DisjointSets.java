@@ -1,3 +1,5 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import java.util.Set;
 
 /**
@@ -0,0 +1,210 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Lista di archi non orientati e pesati rappresentata con array di tipi
+ * primitivi: l'arco i collega i nodi {@code from(i)} e {@code to(i)}, che sono
+ * interi nell'intervallo <code>[0, nodeCount() - 1]</code>, e ha peso
+ * {@code weight(i)}. Rispetto a un {@code Graph<L>} occupa solo 16 byte per
+ * arco e non crea oggetti, per cui è adatta a rappresentare grafi molto
+ * grandi, ad esempio quelli prodotti da {@code GraphGenerator}.
+ *
+ * La lista può contenere archi ripetuti e cappi. Tramite
+ * {@code addTo(Graph, IntFunction)} gli archi possono essere inseriti in un
+ * qualunque grafo non orientato.
+ */
+public class EdgeList {
+
+    private final int nodeCount;
+
+    private int size;
+
+    private int[] from;
+
+    private int[] to;
+
+    private double[] weight;
+
+    /**
+     * Crea una lista di archi vuota su un certo numero di nodi.
+     *
+     * @param nodeCount
+     *                      il numero di nodi
+     * @param capacity
+     *                      il numero di archi inseribili senza riallocare
+     * @throws IllegalArgumentException
+     *                                      se il numero di nodi o la capacità
+     *                                      sono negativi
+     */
+    public EdgeList(int nodeCount, int capacity) {
+        if (nodeCount < 0 || capacity < 0)
+            throw new IllegalArgumentException("Dimensioni negative");
+        this.nodeCount = nodeCount;
+        this.from = new int[capacity];
+        this.to = new int[capacity];
+        this.weight = new double[capacity];
+    }
+
+    /**
+     * Restituisce il numero di nodi.
+     *
+     * @return il numero di nodi su cui sono definiti gli archi
+     */
+    public int nodeCount() {
+        return this.nodeCount;
+    }
+
+    /**
+     * Restituisce il numero di archi.
+     *
+     * @return il numero di archi in questa lista
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Aggiunge un arco in coda alla lista.
+     *
+     * @param u
+     *                   il primo nodo dell'arco
+     * @param v
+     *                   il secondo nodo dell'arco
+     * @param w
+     *                   il peso dell'arco
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due nodi è fuori
+     *                                       dall'intervallo
+     *                                       <code>[0, nodeCount() - 1]</code>
+     */
+    public void add(int u, int v, double w) {
+        if (u < 0 || u >= this.nodeCount || v < 0 || v >= this.nodeCount)
+            throw new IndexOutOfBoundsException("Nodo fuori dai limiti: " + u + ", " + v);
+        if (this.size == this.from.length) {
+            int capacity = Math.max(16, 2 * this.size);
+            this.from = Arrays.copyOf(this.from, capacity);
+            this.to = Arrays.copyOf(this.to, capacity);
+            this.weight = Arrays.copyOf(this.weight, capacity);
+        }
+        this.from[this.size] = u;
+        this.to[this.size] = v;
+        this.weight[this.size] = w;
+        this.size++;
+    }
+
+    /**
+     * Restituisce il primo nodo di un arco.
+     *
+     * @param i
+     *              la posizione dell'arco
+     * @return il primo nodo dell'arco in posizione i
+     */
+    public int from(int i) {
+        checkIndex(i);
+        return this.from[i];
+    }
+
+    /**
+     * Restituisce il secondo nodo di un arco.
+     *
+     * @param i
+     *              la posizione dell'arco
+     * @return il secondo nodo dell'arco in posizione i
+     */
+    public int to(int i) {
+        checkIndex(i);
+        return this.to[i];
+    }
+
+    /**
+     * Restituisce il peso di un arco.
+     *
+     * @param i
+     *              la posizione dell'arco
+     * @return il peso dell'arco in posizione i
+     */
+    public double weight(int i) {
+        checkIndex(i);
+        return this.weight[i];
+    }
+
+    /**
+     * Concatena più liste di archi definite sullo stesso numero di nodi,
+     * conservandone l'ordine.
+     *
+     * @param nodeCount
+     *                      il numero di nodi comune a tutte le liste
+     * @param parts
+     *                      le liste da concatenare
+     * @return una nuova lista con tutti gli archi delle liste passate
+     * @throws IllegalArgumentException
+     *                                      se qualche lista ha un numero di
+     *                                      nodi diverso
+     */
+    public static EdgeList concat(int nodeCount, List<EdgeList> parts) {
+        long total = 0;
+        for (EdgeList part : parts) {
+            if (part.nodeCount != nodeCount)
+                throw new IllegalArgumentException("Numero di nodi diverso");
+            total += part.size;
+        }
+        if (total > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Troppi archi: " + total);
+        EdgeList result = new EdgeList(nodeCount, (int) total);
+        for (EdgeList part : parts) {
+            System.arraycopy(part.from, 0, result.from, result.size, part.size);
+            System.arraycopy(part.to, 0, result.to, result.size, part.size);
+            System.arraycopy(part.weight, 0, result.weight, result.size, part.size);
+            result.size += part.size;
+        }
+        return result;
+    }
+
+    /**
+     * Inserisce nodi e archi di questa lista in un grafo non orientato. Il
+     * nodo i diventa il nodo con etichetta {@code labels.apply(i)}; i nodi e
+     * gli archi già presenti nel grafo vengono ignorati.
+     *
+     * @param <L>
+     *                   il tipo delle etichette dei nodi del grafo
+     * @param g
+     *                   il grafo in cui inserire gli archi
+     * @param labels
+     *                   la funzione che associa un'etichetta ad ogni nodo
+     * @return il grafo passato
+     * @throws NullPointerException
+     *                                      se il grafo o la funzione sono null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato
+     */
+    public <L> Graph<L> addTo(Graph<L> g, IntFunction<L> labels) {
+        if (g == null || labels == null)
+            throw new NullPointerException("Grafo o etichette nulli");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo deve essere non orientato");
+        List<GraphNode<L>> nodes = new ArrayList<>(this.nodeCount);
+        for (int i = 0; i < this.nodeCount; i++)
+            nodes.add(new GraphNode<L>(labels.apply(i)));
+        if (g.addNodes(nodes) < this.nodeCount)
+            // Alcuni nodi erano già presenti: usa gli oggetti memorizzati nel
+            // grafo, che potrebbero essere diversi pur avendo la stessa
+            // etichetta
+            for (int i = 0; i < this.nodeCount; i++)
+                nodes.set(i, g.getNodeOf(nodes.get(i).getLabel()));
+        List<GraphEdge<L>> edges = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++)
+            edges.add(new GraphEdge<L>(nodes.get(this.from[i]),
+                    nodes.get(this.to[i]), false, this.weight[i]));
+        g.addEdges(edges);
+        return g;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.size)
+            throw new IndexOutOfBoundsException("Indice fuori dai limiti: " + i);
+    }
+}
@@ -1,3 +1,7 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -9,17 +13,90 @@ import java.util.Set;
  * vedano le istruzioni o il libro di testo Cormen et al. (terza edizione)
  * Capitolo 21 Sezione 3.
  *
+ * Oltre agli alberi, i nodi di ogni insieme formano una lista circolare,
+ * concatenata in tempo costante ad ogni unione, e le radici formano una lista
+ * a parte. In questo modo gli elementi di un insieme si ottengono in tempo
+ * proporzionale alla sua dimensione e i rappresentanti in tempo proporzionale
+ * al numero di insiemi.
+ *
+ * Ad ogni elemento inserito viene assegnato un handle intero, restituito da
+ * {@code makeSetHandle}: i metodi {@code findHandle}, {@code unionHandles} e
+ * {@code connectedHandles} lavorano direttamente sugli handle, senza
+ * consultare la mappa degli elementi. Gli handle sono assegnati
+ * consecutivamente a partire da zero e restano validi fino alla successiva
+ * chiamata di {@code clear()} o all'eliminazione del loro elemento: in
+ * quest'ultimo caso i metodi che li ricevono lanciano
+ * {@code IllegalArgumentException}.
+ *
+ * Gli elementi possono essere eliminati con {@code delete}, secondo l'idea di
+ * Kaplan, Shafrir e Tarjan: il nodo dell'elemento eliminato resta nell'albero
+ * come nodo vacante, utile solo per raggiungere la radice, e quando i nodi
+ * vacanti di un albero superano quelli degli elementi presenti l'albero viene
+ * ricostruito con tutti gli elementi figli della radice. La radice contiene
+ * sempre un elemento presente.
+ *
  * @param <E>
  *                il tipo degli elementi degli insiemi disgiunti
  */
 public class ForestDisjointSets<E> implements DisjointSets<E> {
 
+    /**
+     * Numero di posizioni dell'istogramma delle lunghezze dei cammini
+     * restituito da {@code getFindPathLengthHistogram()}.
+     */
+    public static final int PATH_LENGTH_BUCKETS = 32;
+
     /*
      * Mappa che associa ad ogni elemento inserito il corrispondente nodo di un
      * albero della foresta. La variabile è protected unicamente per permettere
      * i test JUnit.
      */
     protected Map<E, Node<E>> currentElements;
+
+    /*
+     * Nodi in ordine di handle: il nodo con handle h è in posizione h.
+     */
+    private final ArrayList<Node<E>> nodesByHandle = new ArrayList<>();
+
+    /*
+     * Contatori per le misure delle prestazioni, aggiornati solo quando
+     * metricsEnabled è true.
+     */
+    private boolean metricsEnabled;
+
+    private long findCount;
+
+    private long findPathLength;
+
+    private long unionCount;
+
+    private long compressionWrites;
+
+    // pathLengthHistogram[i] conta le chiamate di findSet con cammino lungo i
+    // prima della compressione, l'ultima posizione anche quelle più lunghe
+    private final long[] pathLengthHistogram = new long[PATH_LENGTH_BUCKETS];
+
+    /*
+     * Statistiche sempre aggiornate: numero di insiemi correnti e numero di
+     * radici per ogni rango. Il rango è al più log2 del numero di elementi,
+     * per cui 64 posizioni sono sempre sufficienti.
+     */
+    private int setCount;
+
+    private final long[] rootsByRank = new long[64];
+
+    /*
+     * Dimensione dell'insieme più grande e numero di insiemi per classe di
+     * dimensione: la posizione k conta gli insiemi con dimensione in
+     * [2^k, 2^(k+1)). Le dimensioni sono int, per cui bastano 32 posizioni.
+     */
+    private int largestSetSize;
+
+    private final long[] setsBySizeClass = new long[32];
+
+    // setsBySize[s] è il numero di insiemi con esattamente s elementi,
+    // necessario per aggiornare largestSetSize dopo un'eliminazione
+    private int[] setsBySize = new int[16];
     
     /*
      * Classe interna statica che rappresenta i nodi degli alberi della foresta.
@@ -44,6 +121,43 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
          */
         protected int rank;
 
+        /*
+         * Il nodo successivo nella lista circolare dei nodi dello stesso
+         * insieme. Un nodo singoletto punta a se stesso.
+         */
+        protected Node<E> next;
+
+        /*
+         * Il nodo precedente nella lista circolare dei nodi dello stesso
+         * insieme, necessario per togliere dalla lista i nodi eliminati.
+         */
+        protected Node<E> previous;
+
+        /*
+         * Il precedente e il successivo nella lista circolare delle radici.
+         * Significativi solo se il nodo è una radice.
+         */
+        protected Node<E> previousRoot;
+
+        protected Node<E> nextRoot;
+
+        /*
+         * L'handle assegnato all'elemento di questo nodo.
+         */
+        protected int handle;
+
+        /*
+         * Il numero di elementi dell'insieme. Significativo solo se il nodo è
+         * una radice.
+         */
+        protected int size;
+
+        /*
+         * Il numero di nodi vacanti, cioè di elementi eliminati, nell'albero.
+         * Significativo solo se il nodo è una radice.
+         */
+        protected int vacant;
+
         /**
          * Costruisce un nodo radice con parent che punta a se stesso e rango
          * zero.
@@ -57,8 +171,19 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
             this.item = item;
             this.parent = this;
             this.rank = 0;
+            this.size = 1;
+            this.next = this;
+            this.previous = this;
+            this.previousRoot = this;
+            this.nextRoot = this;
         }
     }
+
+    /*
+     * Sentinella della lista circolare delle radici, cioè dei rappresentanti
+     * degli insiemi correnti.
+     */
+    private final Node<E> roots = new Node<>(null);
     /**
      * Costruisce una foresta vuota di insiemi disgiunti rappresentati da
      * alberi.
@@ -78,10 +203,71 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      */
     @Override
     public void makeSet(E e) {
+        makeSetHandle(e);
+    }
+
+    /**
+     * Crea un nuovo insieme disgiunto contenente solo l'elemento dato e
+     * restituisce l'handle assegnato all'elemento.
+     * 
+     * @param e
+     *              l'elemento da inserire nell'insieme creato
+     * @return l'handle dell'elemento inserito
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato è già presente
+     *                                      in uno degli insiemi disgiunti
+     *                                      correnti
+     */
+    public int makeSetHandle(E e) {
         if (e == null) throw new NullPointerException("Elemento nullo non ammesso.");
         if (this.isPresent(e)) throw new IllegalArgumentException("Elemento già presente nella struttura.");
         Node<E> newNode = new Node<>(e);
+        newNode.handle = this.nodesByHandle.size();
+        this.nodesByHandle.add(newNode);
         this.currentElements.put(e, newNode);
+        newNode.nextRoot = roots.nextRoot;
+        newNode.previousRoot = roots;
+        roots.nextRoot.previousRoot = newNode;
+        roots.nextRoot = newNode;
+        this.setCount++;
+        this.rootsByRank[0]++;
+        this.setsBySizeClass[0]++;
+        if (this.nodesByHandle.size() >= this.setsBySize.length) {
+            this.setsBySize = Arrays.copyOf(this.setsBySize, 2 * this.setsBySize.length);
+        }
+        this.setsBySize[1]++;
+        this.largestSetSize = Math.max(this.largestSetSize, 1);
+        return newNode.handle;
+    }
+
+    /**
+     * Restituisce l'handle assegnato a un elemento presente.
+     * 
+     * @param e
+     *              l'elemento di cui cercare l'handle
+     * @return l'handle dell'elemento
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è presente
+     */
+    public int handleOf(E e) {
+        return nodeOf(e).handle;
+    }
+
+    /**
+     * Restituisce l'elemento a cui è stato assegnato un handle.
+     * 
+     * @param handle
+     *                   l'handle dell'elemento
+     * @return l'elemento con l'handle dato
+     * @throws IndexOutOfBoundsException
+     *                                       se l'handle non è stato assegnato
+     */
+    public E elementOf(int handle) {
+        return nodeAt(handle).item;
     }
 
     /*
@@ -91,20 +277,162 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      */
     @Override
     public E findSet(E e) {
+        return find(nodeOf(e)).item;
+    }
+
+    /**
+     * Restituisce l'handle del rappresentante dell'insieme disgiunto in cui si
+     * trova l'elemento con l'handle passato, comprimendo il cammino come
+     * {@code findSet}.
+     * 
+     * @param handle
+     *                   l'handle di un elemento presente
+     * @return l'handle del rappresentante del suo insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se l'handle non è stato assegnato
+     */
+    public int findHandle(int handle) {
+        return find(nodeAt(handle)).handle;
+    }
+
+    /**
+     * Elimina un elemento dal suo insieme disgiunto. Gli altri elementi
+     * dell'insieme restano uniti; se l'elemento era il solo del suo insieme,
+     * l'insieme scompare. L'handle dell'elemento non è più valido, mentre
+     * l'elemento può essere inserito di nuovo con {@code makeSet}, come
+     * singoletto e con un nuovo handle. Il tempo ammortizzato è quello di una
+     * ricerca del rappresentante.
+     * 
+     * @param e
+     *              l'elemento da eliminare
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è presente
+     */
+    public void delete(E e) {
+        Node<E> node = nodeOf(e);
+        int handle = node.handle;
+        Node<E> root = find(node);
+        Node<E> vacant = node;
+        if (node == root && root.size > 1) {
+            // La radice deve restare un elemento presente: le viene trasferito
+            // l'elemento del nodo successivo, che diventa vacante al suo posto
+            vacant = root.next;
+            root.item = vacant.item;
+            root.handle = vacant.handle;
+            currentElements.put(root.item, root);
+            nodesByHandle.set(root.handle, root);
+        }
+        currentElements.remove(e);
+        nodesByHandle.set(handle, null);
+        vacant.previous.next = vacant.next;
+        vacant.next.previous = vacant.previous;
+        vacant.next = vacant;
+        vacant.previous = vacant;
+        vacant.item = null;
+
+        int size = root.size;
+        setsBySizeClass[sizeClass(size)]--;
+        setsBySize[size]--;
+        if (size == largestSetSize && setsBySize[size] == 0) {
+            // L'insieme più grande è appena diventato di dimensione size - 1
+            largestSetSize = size - 1;
+        }
+        root.size = size - 1;
+        if (root.size == 0) {
+            setCount--;
+            rootsByRank[root.rank]--;
+            unlinkRoot(root);
+            return;
+        }
+        setsBySizeClass[sizeClass(root.size)]++;
+        setsBySize[root.size]++;
+        root.vacant++;
+        if (root.vacant > root.size) {
+            rebuild(root);
+        }
+    }
+
+    /*
+     * Ricostruisce l'albero di una radice rendendo tutti gli elementi presenti
+     * figli della radice, per cui i nodi vacanti vengono abbandonati. Richiede
+     * tempo proporzionale alla dimensione dell'insieme, che viene ripagato
+     * dalle eliminazioni che hanno prodotto più nodi vacanti che elementi.
+     */
+    private void rebuild(Node<E> root) {
+        for (Node<E> node = root.next; node != root; node = node.next) {
+            node.parent = root;
+            node.rank = 0;
+        }
+        rootsByRank[root.rank]--;
+        root.rank = root.size > 1 ? 1 : 0;
+        rootsByRank[root.rank]++;
+        root.vacant = 0;
+    }
+
+    /*
+     * Restituisce il nodo con l'handle passato, controllando che l'elemento
+     * non sia stato eliminato.
+     */
+    private Node<E> nodeAt(int handle) {
+        Node<E> node = this.nodesByHandle.get(handle);
+        if (node == null) {
+            throw new IllegalArgumentException("Elemento eliminato: " + handle);
+        }
+        return node;
+    }
+
+    /*
+     * Restituisce il nodo associato a un elemento, controllando che sia
+     * presente. E' l'unico punto in cui le operazioni sugli elementi
+     * consultano la mappa.
+     */
+    private Node<E> nodeOf(E e) {
         if (e == null) {
             throw new NullPointerException("Elemento nullo non ammesso.");
         }
-        if (!currentElements.containsKey(e)) {
+        Node<E> node = currentElements.get(e);
+        if (node == null) {
             throw new IllegalArgumentException("Elemento non presente nella struttura.");
         }
-        Node<E> node = currentElements.get(e);
-        if (node != null) {
-            if (node != node.parent) {
-                node.parent = currentElements.get(findSet(node.parent.item));
+        return node;
+    }
+
+    /*
+     * Cerca la radice del nodo aggiornando i contatori se abilitati.
+     */
+    private Node<E> find(Node<E> node) {
+        if (metricsEnabled) {
+            findCount++;
+            long before = findPathLength;
+            Node<E> root = findRoot(node);
+            pathLengthHistogram[(int) Math.min(findPathLength - before,
+                    PATH_LENGTH_BUCKETS - 1)]++;
+            return root;
+        }
+        return findRoot(node);
+    }
+
+    /*
+     * Restituisce la radice dell'albero di cui fa parte il nodo passato,
+     * facendo puntare alla radice tutti i nodi del cammino percorso. Lavora
+     * direttamente sui nodi, senza passare dalla mappa ad ogni passo.
+     */
+    private Node<E> findRoot(Node<E> node) {
+        if (node != node.parent) {
+            if (metricsEnabled) {
+                findPathLength++;
+            }
+            Node<E> root = findRoot(node.parent);
+            if (node.parent != root) {
+                if (metricsEnabled) {
+                    compressionWrites++;
+                }
+                node.parent = root;
             }
-            return node.parent.item;
         }
-        return null;
+        return node.parent;
     }
 
     /*
@@ -122,54 +450,410 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         if (e1 == null || e2 == null) {
             throw new NullPointerException("Elements cannot be null");
         }
-        if (!currentElements.containsKey(e1) || !currentElements.containsKey(e2)) {
+        Node<E> node1 = currentElements.get(e1);
+        Node<E> node2 = currentElements.get(e2);
+        if (node1 == null || node2 == null) {
             throw new IllegalArgumentException("One or both elements are not in the sets");
         }
-        Node<E> root1 = currentElements.get(findSet(e1));
-        Node<E> root2 = currentElements.get(findSet(e2));
-
-        if (root1 != root2) {
-            if (root1.rank < root2.rank) {
-                root1.parent = root2;
-            } else if (root1.rank > root2.rank) {
-                root2.parent = root1;
-            } else {
-                root1.parent = root2;
-                root2.rank++;
+        link(find(node1), find(node2));
+    }
+
+    /**
+     * Unisce gli insiemi disgiunti di cui fanno parte gli elementi con gli
+     * handle passati, con le stesse regole di {@code union}.
+     * 
+     * @param handle1
+     *                    l'handle di un elemento del primo insieme
+     * @param handle2
+     *                    l'handle di un elemento del secondo insieme
+     * @return true se i due insiemi erano diversi e sono stati uniti, false
+     *         se gli elementi erano già nello stesso insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due handle non è stato
+     *                                       assegnato
+     */
+    public boolean unionHandles(int handle1, int handle2) {
+        return link(find(nodeAt(handle1)),
+                find(nodeAt(handle2)));
+    }
+
+    /**
+     * Determina se gli elementi con gli handle passati sono nello stesso
+     * insieme disgiunto.
+     * 
+     * @param handle1
+     *                    l'handle del primo elemento
+     * @param handle2
+     *                    l'handle del secondo elemento
+     * @return true se i due elementi sono nello stesso insieme, false
+     *         altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due handle non è stato
+     *                                       assegnato
+     */
+    public boolean connectedHandles(int handle1, int handle2) {
+        return find(nodeAt(handle1)) == find(
+                nodeAt(handle2));
+    }
+
+    /**
+     * Esegue in ordine le unioni degli elementi con handle
+     * <code>handles1[i]</code> e <code>handles2[i]</code>, con lo stesso
+     * risultato di altrettante chiamate di {@code unionHandles}. Gli handle
+     * vengono controllati tutti prima di iniziare, per cui in caso di errore
+     * la struttura non viene modificata.
+     * 
+     * @param handles1
+     *                     gli handle dei primi elementi
+     * @param handles2
+     *                     gli handle dei secondi elementi
+     * @return il numero di unioni che hanno unito due insiemi diversi
+     * @throws NullPointerException
+     *                                       se uno dei due array è null
+     * @throws IllegalArgumentException
+     *                                       se gli array hanno lunghezze
+     *                                       diverse
+     * @throws IndexOutOfBoundsException
+     *                                       se qualche handle non è stato
+     *                                       assegnato
+     */
+    public int unionAll(int[] handles1, int[] handles2) {
+        if (handles1.length != handles2.length) {
+            throw new IllegalArgumentException("Array di lunghezze diverse");
+        }
+        checkHandles(handles1);
+        checkHandles(handles2);
+        int merged = 0;
+        for (int i = 0; i < handles1.length; i++) {
+            if (link(find(nodeAt(handles1[i])),
+                    find(nodeAt(handles2[i])))) {
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Scrive in <code>representatives[i]</code> l'handle del rappresentante
+     * dell'insieme che contiene l'elemento con handle <code>handles[i]</code>,
+     * comprimendo i cammini come {@code findHandle}.
+     * 
+     * @param handles
+     *                            gli handle degli elementi
+     * @param representatives
+     *                            l'array in cui scrivere gli handle dei
+     *                            rappresentanti, lungo almeno quanto
+     *                            <code>handles</code>; può essere lo stesso
+     *                            array
+     * @throws NullPointerException
+     *                                       se uno dei due array è null
+     * @throws IllegalArgumentException
+     *                                       se l'array dei rappresentanti è
+     *                                       troppo corto
+     * @throws IndexOutOfBoundsException
+     *                                       se qualche handle non è stato
+     *                                       assegnato
+     */
+    public void findAll(int[] handles, int[] representatives) {
+        if (representatives.length < handles.length) {
+            throw new IllegalArgumentException("Array dei rappresentanti troppo corto");
+        }
+        checkHandles(handles);
+        for (int i = 0; i < handles.length; i++) {
+            representatives[i] = find(nodeAt(handles[i])).handle;
+        }
+    }
+
+    /*
+     * Controlla che tutti gli handle dell'array siano stati assegnati.
+     */
+    private void checkHandles(int[] handles) {
+        int count = this.nodesByHandle.size();
+        for (int i = 0; i < handles.length; i++) {
+            if (handles[i] < 0 || handles[i] >= count) {
+                throw new IndexOutOfBoundsException("Handle non valido: " + handles[i]);
             }
-          }
-       }
+            if (this.nodesByHandle.get(handles[i]) == null) {
+                throw new IllegalArgumentException("Elemento eliminato: " + handles[i]);
+            }
+        }
+    }
 
+    /*
+     * Unisce gli alberi con le due radici passate secondo l'euristica
+     * dell'unione per rango; a parità di rango vince root2. Restituisce false
+     * se le radici coincidono.
+     */
+    private boolean link(Node<E> root1, Node<E> root2) {
+        if (root1 == root2) {
+            return false;
+        }
+        if (metricsEnabled) {
+            unionCount++;
+        }
+        setCount--;
+        int size = root1.size + root2.size;
+        setsBySizeClass[sizeClass(root1.size)]--;
+        setsBySizeClass[sizeClass(root2.size)]--;
+        setsBySizeClass[sizeClass(size)]++;
+        setsBySize[root1.size]--;
+        setsBySize[root2.size]--;
+        setsBySize[size]++;
+        largestSetSize = Math.max(largestSetSize, size);
+        int vacant = root1.vacant + root2.vacant;
+        root1.size = size;
+        root2.size = size;
+        root1.vacant = vacant;
+        root2.vacant = vacant;
+        // Concatena le due liste circolari dei membri scambiando i
+        // successori delle radici
+        Node<E> next1 = root1.next;
+        Node<E> next2 = root2.next;
+        root1.next = next2;
+        next2.previous = root1;
+        root2.next = next1;
+        next1.previous = root2;
+        if (root1.rank < root2.rank) {
+            root1.parent = root2;
+            rootsByRank[root1.rank]--;
+            unlinkRoot(root1);
+        } else if (root1.rank > root2.rank) {
+            root2.parent = root1;
+            rootsByRank[root2.rank]--;
+            unlinkRoot(root2);
+        } else {
+            root1.parent = root2;
+            rootsByRank[root1.rank] -= 2;
+            root2.rank++;
+            rootsByRank[root2.rank]++;
+            unlinkRoot(root1);
+        }
+        return true;
+    }
+
+    /*
+     * Scorre la lista delle radici, per cui richiede tempo proporzionale al
+     * numero di insiemi correnti.
+     */
     @Override
     public Set<E> getCurrentRepresentatives() {
         Set<E> representatives = new HashSet<>();
-        for (E element : currentElements.keySet()) {
-            representatives.add(findSet(element)); 
-         }
+        for (Node<E> root = roots.nextRoot; root != roots; root = root.nextRoot) {
+            representatives.add(root.item);
+        }
         return representatives;
     }
 
+    /*
+     * Scorre la lista circolare dei membri dell'insieme, per cui richiede
+     * tempo proporzionale alla dimensione dell'insieme.
+     */
     @Override
     public Set<E> getCurrentElementsOfSetContaining(E e) {
         if (e == null) {
             throw new NullPointerException("Elemento nullo non ammesso.");
         }
-        if (!this.isPresent(e)) {
+        Node<E> start = currentElements.get(e);
+        if (start == null) {
             throw new IllegalArgumentException("Elemento non presente nella struttura.");
         }
         Set<E> elements = new HashSet<>();
-        E representative = findSet(e);
-        for (Map.Entry<E, Node<E>> entry : this.currentElements.entrySet()) {
-            if (findSet(entry.getKey()).equals(representative)) {
-                elements.add(entry.getKey());
-            }
-        }
-        if (!elements.isEmpty()) return elements;
-            return null; 
+        Node<E> node = start;
+        do {
+            elements.add(node.item);
+            node = node.next;
+        } while (node != start);
+        return elements;
+    }
+
+    /*
+     * Toglie dalla lista delle radici un nodo che ha appena smesso di essere
+     * radice.
+     */
+    private void unlinkRoot(Node<E> node) {
+        node.previousRoot.nextRoot = node.nextRoot;
+        node.nextRoot.previousRoot = node.previousRoot;
+        node.previousRoot = node;
+        node.nextRoot = node;
     }
 
     @Override
     public void clear() {
         this.currentElements.clear();
+        this.nodesByHandle.clear();
+        this.roots.previousRoot = this.roots;
+        this.roots.nextRoot = this.roots;
+        this.setCount = 0;
+        Arrays.fill(this.rootsByRank, 0);
+        this.largestSetSize = 0;
+        Arrays.fill(this.setsBySizeClass, 0);
+        Arrays.fill(this.setsBySize, 0);
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti in tempo costante.
+     * 
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public int numberOfSets() {
+        return this.setCount;
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene un elemento.
+     * Richiede solo la ricerca del rappresentante, perché la dimensione è
+     * memorizzata nella radice.
+     * 
+     * @param e
+     *              l'elemento di cui si vuole la dimensione dell'insieme
+     * @return il numero di elementi dell'insieme che contiene <code>e</code>
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è presente
+     */
+    public int sizeOfSetContaining(E e) {
+        return find(nodeOf(e)).size;
+    }
+
+    /**
+     * Restituisce il numero di elementi dell'insieme che contiene l'elemento
+     * con l'handle passato.
+     * 
+     * @param handle
+     *                   l'handle di un elemento presente
+     * @return il numero di elementi del suo insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se l'handle non è stato assegnato
+     */
+    public int sizeOfSetHandle(int handle) {
+        return find(nodeAt(handle)).size;
+    }
+
+    /**
+     * Restituisce in tempo costante la dimensione dell'insieme più grande.
+     * 
+     * @return il numero di elementi dell'insieme corrente più grande, 0 se non
+     *         ci sono insiemi
+     */
+    public int largestSetSize() {
+        return this.largestSetSize;
+    }
+
+    /**
+     * Restituisce la distribuzione delle dimensioni degli insiemi, aggiornata
+     * ad ogni unione: la posizione k contiene il numero di insiemi correnti
+     * con un numero di elementi compreso tra 2^k e 2^(k+1) - 1. L'array
+     * termina con la classe più grande presente, per cui la copia richiede al
+     * più 32 passi.
+     * 
+     * @return il numero di insiemi per ogni classe di dimensione
+     */
+    public long[] getSetSizeDistribution() {
+        int maxClass = this.setsBySizeClass.length - 1;
+        while (maxClass > 0 && this.setsBySizeClass[maxClass] == 0) {
+            maxClass--;
+        }
+        return Arrays.copyOf(this.setsBySizeClass, maxClass + 1);
+    }
+
+    /*
+     * Classe di dimensione di un insieme con size elementi, cioè floor(log2
+     * size).
+     */
+    private static int sizeClass(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size);
+    }
+
+    /**
+     * Restituisce la distribuzione dei ranghi delle radici: la posizione r
+     * contiene il numero di insiemi correnti la cui radice ha rango r.
+     * L'array termina con il rango massimo presente.
+     * 
+     * @return il numero di radici per ogni rango
+     */
+    public long[] getRankDistribution() {
+        int maxRank = this.rootsByRank.length - 1;
+        while (maxRank > 0 && this.rootsByRank[maxRank] == 0) {
+            maxRank--;
+        }
+        return Arrays.copyOf(this.rootsByRank, maxRank + 1);
+    }
+
+    /**
+     * Abilita o disabilita il conteggio delle operazioni. Quando il conteggio
+     * è disabilitato, che è il default, i contatori non vengono aggiornati.
+     * 
+     * @param enabled
+     *                    true per abilitare il conteggio, false per
+     *                    disabilitarlo
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        this.metricsEnabled = enabled;
+    }
+
+    /**
+     * Azzera i contatori delle operazioni.
+     */
+    public void resetMetrics() {
+        this.findCount = 0;
+        this.findPathLength = 0;
+        this.unionCount = 0;
+        this.compressionWrites = 0;
+        Arrays.fill(this.pathLengthHistogram, 0);
+    }
+
+    /**
+     * Restituisce il numero di chiamate di findSet contate.
+     * 
+     * @return il numero di chiamate di findSet dall'ultimo azzeramento
+     */
+    public long getFindCount() {
+        return this.findCount;
+    }
+
+    /**
+     * Restituisce il numero totale di archi percorsi da findSet prima della
+     * compressione dei cammini.
+     * 
+     * @return la somma delle lunghezze dei cammini percorsi da findSet
+     *         dall'ultimo azzeramento
+     */
+    public long getFindPathLength() {
+        return this.findPathLength;
+    }
+
+    /**
+     * Restituisce il numero di unioni che hanno effettivamente unito due
+     * insiemi diversi.
+     * 
+     * @return il numero di unioni eseguite dall'ultimo azzeramento
+     */
+    public long getUnionCount() {
+        return this.unionCount;
+    }
+
+    /**
+     * Restituisce il numero di puntatori al parent modificati dalla
+     * compressione dei cammini.
+     * 
+     * @return il numero di scritture dovute alla compressione dei cammini
+     *         dall'ultimo azzeramento
+     */
+    public long getCompressionWrites() {
+        return this.compressionWrites;
+    }
+
+    /**
+     * Restituisce l'istogramma delle lunghezze dei cammini percorsi da
+     * findSet prima della compressione: la posizione i contiene il numero di
+     * chiamate con cammino lungo i, l'ultima posizione il numero di chiamate
+     * con cammino lungo almeno {@code PATH_LENGTH_BUCKETS - 1}.
+     * 
+     * @return una copia dell'istogramma delle lunghezze dei cammini
+     *         dall'ultimo azzeramento
+     */
+    public long[] getFindPathLengthHistogram() {
+        return this.pathLengthHistogram.clone();
     }
 }
@@ -2,7 +2,9 @@ package it.unicam.cs.asdl2425.mp2;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -199,4 +201,327 @@ class ForestDisjointSetsTest {
         assertTrue(ds.getCurrentRepresentatives().isEmpty());
         assertTrue(ds.currentElements.isEmpty());
     }
+
+    /**
+     * verifica i contatori delle operazioni.
+     */
+    @Test
+    final void testMetrics() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        ds.makeSet(1);
+        ds.makeSet(2);
+        ds.makeSet(3);
+        // Con il conteggio disabilitato i contatori restano a zero
+        ds.union(1, 2);
+        assertEquals(0, ds.getUnionCount());
+
+        ds.setMetricsEnabled(true);
+        ds.union(3, 2); // 3 finisce sotto 2, che ha rango maggiore
+        ds.union(1, 3); // già nello stesso insieme: non conta come unione
+        assertEquals(1, ds.getUnionCount());
+        ds.resetMetrics();
+        assertEquals(2, ds.findSet(1));
+        assertEquals(1, ds.getFindCount());
+        assertEquals(1, ds.getFindPathLength()); // 1 punta direttamente alla radice
+        assertEquals(0, ds.getUnionCount());
+    }
+
+    /**
+     * verifica il numero di insiemi, la distribuzione dei ranghi e
+     * l'istogramma delle lunghezze dei cammini.
+     */
+    @Test
+    final void testSetCountAndDistributions() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 1; i <= 4; i++) {
+            ds.makeSet(i);
+        }
+        assertEquals(4, ds.numberOfSets());
+        ds.union(1, 2); // radice 2 di rango 1
+        ds.union(3, 4); // radice 4 di rango 1
+        ds.union(2, 4); // radice 4 di rango 2, 1 è a distanza 2 dalla radice
+        ds.union(1, 3); // già uniti
+        assertEquals(1, ds.numberOfSets());
+        assertEquals(1, ds.getCurrentRepresentatives().size());
+        assertTrue(Arrays.equals(new long[] { 0, 0, 1 }, ds.getRankDistribution()));
+
+        ds.setMetricsEnabled(true);
+        ds.makeSet(5);
+        assertEquals(2, ds.numberOfSets());
+        assertTrue(Arrays.equals(new long[] { 1, 0, 1 }, ds.getRankDistribution()));
+
+        ds.findSet(4); // cammino di lunghezza 0
+        ds.findSet(3); // cammino di lunghezza 1
+        long[] histogram = ds.getFindPathLengthHistogram();
+        assertEquals(ForestDisjointSets.PATH_LENGTH_BUCKETS, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[1]);
+        assertEquals(0, ds.getCompressionWrites());
+
+        ds.clear();
+        assertEquals(0, ds.numberOfSets());
+        assertTrue(Arrays.equals(new long[] { 0 }, ds.getRankDistribution()));
+    }
+
+    /**
+     * verifica gli elementi e i rappresentanti degli insiemi dopo molte
+     * unioni.
+     */
+    @Test
+    final void testMembersAndRepresentativesAfterUnions() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 0; i < 100; i++) {
+            ds.makeSet(i);
+        }
+        // Unisce gli elementi con lo stesso resto modulo 3
+        for (int i = 3; i < 100; i++) {
+            ds.union(i, i - 3);
+        }
+        Set<Integer> representatives = ds.getCurrentRepresentatives();
+        assertEquals(3, representatives.size());
+        for (int r = 0; r < 3; r++) {
+            Set<Integer> expected = new HashSet<>();
+            for (int i = r; i < 100; i += 3) {
+                expected.add(i);
+            }
+            assertEquals(expected, ds.getCurrentElementsOfSetContaining(r));
+            assertTrue(representatives.contains(ds.findSet(r)));
+        }
+        ds.clear();
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        ds.makeSet(7);
+        assertEquals(Set.of(7), ds.getCurrentRepresentatives());
+        assertEquals(Set.of(7), ds.getCurrentElementsOfSetContaining(7));
+    }
+
+    /**
+     * Test method for
+     * {@link it.unicam.cs.asdl2425.mp2.ForestDisjointSets#unionHandles(int, int)}:
+     * verifica che le operazioni sugli handle siano coerenti con quelle sugli
+     * elementi.
+     */
+    @Test
+    final void testHandles() {
+        ForestDisjointSets<String> ds = new ForestDisjointSets<>();
+        int a = ds.makeSetHandle("a");
+        int b = ds.makeSetHandle("b");
+        ds.makeSet("c");
+        int c = ds.handleOf("c");
+        assertEquals(0, a);
+        assertEquals(1, b);
+        assertEquals(2, c);
+        assertEquals("b", ds.elementOf(b));
+        assertFalse(ds.connectedHandles(a, b));
+
+        assertTrue(ds.unionHandles(a, b));
+        assertFalse(ds.unionHandles(b, a));
+        assertTrue(ds.connectedHandles(a, b));
+        assertFalse(ds.connectedHandles(a, c));
+        // A parità di rango il rappresentante è quello del secondo insieme
+        assertEquals(b, ds.findHandle(a));
+        assertEquals("b", ds.findSet("a"));
+        assertEquals(2, ds.numberOfSets());
+
+        ds.union("c", "a");
+        assertEquals(b, ds.findHandle(c));
+        assertEquals(Set.of("a", "b", "c"), ds.getCurrentElementsOfSetContaining("c"));
+
+        assertThrows(IllegalArgumentException.class, () -> ds.handleOf("d"));
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.findHandle(3));
+        ds.clear();
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.elementOf(a));
+        assertEquals(0, ds.makeSetHandle("d"));
+    }
+
+    /**
+     * Test method for
+     * {@link it.unicam.cs.asdl2425.mp2.ForestDisjointSets#unionAll(int[], int[])}:
+     * verifica che le operazioni in blocco diano lo stesso risultato di quelle
+     * singole.
+     */
+    @Test
+    final void testUnionAllAndFindAll() {
+        ForestDisjointSets<Integer> bulk = new ForestDisjointSets<>();
+        ForestDisjointSets<Integer> single = new ForestDisjointSets<>();
+        for (int i = 0; i < 50; i++) {
+            bulk.makeSet(i);
+            single.makeSet(i);
+        }
+        int[] a = { 0, 2, 4, 1, 7, 0, 9 };
+        int[] b = { 1, 3, 5, 3, 8, 2, 9 };
+        for (int i = 0; i < a.length; i++) {
+            single.unionHandles(a[i], b[i]);
+        }
+        assertEquals(5, bulk.unionAll(a, b));
+        assertEquals(single.numberOfSets(), bulk.numberOfSets());
+
+        int[] handles = { 3, 0, 5, 9, 49 };
+        int[] representatives = new int[handles.length];
+        bulk.findAll(handles, representatives);
+        for (int i = 0; i < handles.length; i++) {
+            assertEquals(single.findHandle(handles[i]), representatives[i]);
+        }
+        // L'array di ingresso può essere riusato per i risultati
+        bulk.findAll(handles, handles);
+        assertArrayEquals(representatives, handles);
+
+        // Un handle non valido non modifica la struttura
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> bulk.unionAll(new int[] { 10, 50 }, new int[] { 11, 0 }));
+        assertNotEquals(bulk.findHandle(10), bulk.findHandle(11));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulk.unionAll(new int[] { 1 }, new int[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> bulk.findAll(new int[] { 1 }, new int[0]));
+    }
+
+    /**
+     * Test method for
+     * {@link it.unicam.cs.asdl2425.mp2.ForestDisjointSets#sizeOfSetContaining(java.lang.Object)}:
+     * verifica le dimensioni degli insiemi e la loro distribuzione.
+     */
+    @Test
+    final void testSetSizes() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        assertEquals(0, ds.largestSetSize());
+        for (int i = 0; i < 10; i++) {
+            ds.makeSet(i);
+        }
+        assertEquals(1, ds.largestSetSize());
+        assertArrayEquals(new long[] { 10 }, ds.getSetSizeDistribution());
+
+        ds.union(0, 1);
+        ds.union(2, 3);
+        ds.union(0, 2);
+        ds.union(4, 5);
+        ds.union(5, 6);
+        // Insiemi di dimensioni 4, 3, 1, 1, 1
+        assertEquals(4, ds.sizeOfSetContaining(3));
+        assertEquals(3, ds.sizeOfSetContaining(6));
+        assertEquals(1, ds.sizeOfSetHandle(9));
+        assertEquals(4, ds.largestSetSize());
+        assertArrayEquals(new long[] { 3, 1, 1 }, ds.getSetSizeDistribution());
+        // Un'unione di elementi già nello stesso insieme non cambia nulla
+        ds.union(1, 3);
+        assertArrayEquals(new long[] { 3, 1, 1 }, ds.getSetSizeDistribution());
+
+        ds.union(6, 0);
+        assertEquals(7, ds.sizeOfSetContaining(4));
+        assertEquals(7, ds.largestSetSize());
+        assertArrayEquals(new long[] { 3, 0, 1 }, ds.getSetSizeDistribution());
+        assertThrows(IllegalArgumentException.class, () -> ds.sizeOfSetContaining(10));
+
+        ds.clear();
+        assertEquals(0, ds.largestSetSize());
+        assertArrayEquals(new long[] { 0 }, ds.getSetSizeDistribution());
+    }
+
+    /**
+     * Test method for
+     * {@link it.unicam.cs.asdl2425.mp2.ForestDisjointSets#delete(java.lang.Object)}.
+     */
+    @Test
+    final void testDelete() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 0; i < 6; i++) {
+            ds.makeSet(i);
+        }
+        ds.union(0, 1);
+        ds.union(2, 3);
+        ds.union(0, 2);
+        Integer representative = ds.findSet(0);
+        int handle = ds.handleOf(representative);
+        // Eliminando il rappresentante l'insieme resta unito
+        ds.delete(representative);
+        assertFalse(ds.isPresent(representative));
+        assertEquals(3, ds.sizeOfSetContaining(0 == representative ? 1 : 0));
+        Set<Integer> expected = new HashSet<>(Set.of(0, 1, 2, 3));
+        expected.remove(representative);
+        assertEquals(expected, ds.getCurrentElementsOfSetContaining(expected.iterator().next()));
+        for (Integer x : expected) {
+            assertTrue(expected.contains(ds.findSet(x)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> ds.findHandle(handle));
+        assertEquals(3, ds.largestSetSize());
+
+        // Eliminando l'unico elemento di un insieme l'insieme scompare
+        ds.delete(5);
+        assertEquals(2, ds.numberOfSets());
+        assertTrue(ds.getCurrentRepresentatives().contains(4));
+        assertThrows(IllegalArgumentException.class, () -> ds.delete(5));
+
+        // Un elemento eliminato può essere reinserito come singoletto
+        ds.makeSet(representative);
+        assertEquals(1, ds.sizeOfSetContaining(representative));
+        assertEquals(3, ds.numberOfSets());
+    }
+
+    /**
+     * Test method for
+     * {@link it.unicam.cs.asdl2425.mp2.ForestDisjointSets#delete(java.lang.Object)}:
+     * confronta molte eliminazioni e unioni casuali con un calcolo diretto
+     * delle partizioni.
+     */
+    @Test
+    final void testDeleteAgainstPartition() {
+        int n = 300;
+        Random random = new Random(5);
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        // label[i] è l'insieme di i, -1 se i è stato eliminato
+        int[] label = new int[n];
+        for (int i = 0; i < n; i++) {
+            ds.makeSet(i);
+            label[i] = i;
+        }
+        for (int step = 0; step < 3000; step++) {
+            int x = random.nextInt(n);
+            int y = random.nextInt(n);
+            if (label[x] < 0 || label[y] < 0) {
+                continue;
+            }
+            if (random.nextInt(3) == 0) {
+                ds.delete(x);
+                label[x] = -1;
+                // Reinserisce un elemento eliminato per mantenere la struttura
+                // popolata
+                int z = random.nextInt(n);
+                if (label[z] < 0) {
+                    ds.makeSet(z);
+                    label[z] = n + step;
+                }
+            } else {
+                ds.union(x, y);
+                int from = label[x];
+                int to = label[y];
+                for (int i = 0; i < n; i++) {
+                    if (label[i] == from) {
+                        label[i] = to;
+                    }
+                }
+            }
+        }
+        Set<Integer> labels = new HashSet<>();
+        int[] sizes = new int[2 * n + 3000];
+        int largest = 0;
+        for (int i = 0; i < n; i++) {
+            if (label[i] >= 0) {
+                labels.add(label[i]);
+                largest = Math.max(largest, ++sizes[label[i]]);
+            }
+        }
+        assertEquals(labels.size(), ds.numberOfSets());
+        assertEquals(largest, ds.largestSetSize());
+        for (int i = 0; i < n; i++) {
+            if (label[i] < 0) {
+                assertFalse(ds.isPresent(i));
+                continue;
+            }
+            assertEquals(sizes[label[i]], ds.sizeOfSetContaining(i));
+            for (int j = 0; j < n; j++) {
+                if (label[j] >= 0) {
+                    assertEquals(label[i] == label[j], ds.findSet(i).equals(ds.findSet(j)));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,218 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Calcolo offline, per un insieme di archi, dell'arco più pesante sul
+ * cammino che ne collega gli estremi in una foresta, con l'algoritmo di
+ * Tarjan basato sulla compressione dei cammini. Serve a riconoscere gli archi
+ * che non possono far parte di una foresta di copertura minima
+ * ({@code RandomizedMSP}) e a verificare foreste di copertura minime
+ * ({@code MinimumSpanningForestVerifier}).
+ *
+ * Gli archi sono descritti da array paralleli: estremi, peso e un indice che
+ * ordina gli archi di peso uguale. I nodi della foresta sono visitati dalle
+ * foglie verso le radici e ogni nodo visitato viene unito al padre in un
+ * insieme disgiunto che ricorda, con la compressione dei cammini, l'arco più
+ * pesante verso la radice dell'insieme. Ogni interrogazione viene risolta
+ * quando viene visitato il minimo antenato comune dei suoi estremi, per cui
+ * il tempo è quasi lineare nel numero di nodi e di archi.
+ */
+final class ForestPathMaxima {
+
+    private ForestPathMaxima() {
+    }
+
+    /**
+     * Calcola l'arco più pesante sul cammino nella foresta tra gli estremi di
+     * ogni arco.
+     *
+     * @param n
+     *                   il numero di nodi, con estremi degli archi in [0, n)
+     * @param u
+     *                   il primo estremo di ogni arco
+     * @param v
+     *                   il secondo estremo di ogni arco, diverso dal primo
+     * @param w
+     *                   il peso di ogni arco
+     * @param id
+     *                   l'indice di ogni arco, che ordina gli archi di peso
+     *                   uguale
+     * @param m
+     *                   il numero di archi
+     * @param forest
+     *                   le posizioni degli archi che formano la foresta
+     * @return per ogni arco la posizione dell'arco più pesante sul cammino
+     *         tra i suoi estremi, -1 se gli estremi sono in alberi diversi
+     */
+    static int[] compute(int n, int[] u, int[] v, double[] w, int[] id, int m,
+            int[] forest) {
+        // Liste di adiacenza della foresta e degli archi interrogati
+        int[] treeStart = new int[n + 1];
+        int[] queryStart = new int[n + 1];
+        for (int e : forest) {
+            treeStart[u[e] + 1]++;
+            treeStart[v[e] + 1]++;
+        }
+        for (int i = 0; i < m; i++) {
+            queryStart[u[i] + 1]++;
+            queryStart[v[i] + 1]++;
+        }
+        for (int x = 0; x < n; x++) {
+            treeStart[x + 1] += treeStart[x];
+            queryStart[x + 1] += queryStart[x];
+        }
+        int[] treeEdges = new int[2 * forest.length];
+        int[] queryEdges = new int[2 * m];
+        int[] fill = Arrays.copyOf(treeStart, n);
+        for (int e : forest) {
+            treeEdges[fill[u[e]]++] = e;
+            treeEdges[fill[v[e]]++] = e;
+        }
+        fill = Arrays.copyOf(queryStart, n);
+        for (int i = 0; i < m; i++) {
+            queryEdges[fill[u[i]]++] = i;
+            queryEdges[fill[v[i]]++] = i;
+        }
+
+        // Visita in profondità iterativa: ordine anticipato, padre, arco verso
+        // il padre e albero di ogni nodo
+        int[] order = new int[n];
+        int[] preorder = new int[n];
+        int[] parent = new int[n];
+        int[] parentEdge = new int[n];
+        int[] tree = new int[n];
+        Arrays.fill(preorder, -1);
+        int[] stack = new int[n];
+        int visited = 0;
+        for (int r = 0; r < n; r++) {
+            if (preorder[r] >= 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = r;
+            parent[r] = -1;
+            parentEdge[r] = -1;
+            preorder[r] = -2;
+            while (top > 0) {
+                int x = stack[--top];
+                preorder[x] = visited;
+                order[visited++] = x;
+                tree[x] = r;
+                for (int a = treeStart[x]; a < treeStart[x + 1]; a++) {
+                    int e = treeEdges[a];
+                    int y = u[e] == x ? v[e] : u[e];
+                    if (preorder[y] == -1) {
+                        preorder[y] = -2;
+                        parent[y] = x;
+                        parentEdge[y] = e;
+                        stack[top++] = y;
+                    }
+                }
+            }
+        }
+
+        int[] pathMax = new int[m];
+        Arrays.fill(pathMax, -1);
+        // Insiemi disgiunti con il massimo verso la radice: maxEdge[x] è la
+        // posizione dell'arco più pesante tra x e setParent[x]
+        int[] setParent = new int[n];
+        int[] maxEdge = new int[n];
+        for (int x = 0; x < n; x++) {
+            setParent[x] = x;
+            maxEdge[x] = -1;
+        }
+        // Interrogazioni rinviate al minimo antenato comune, in liste
+        // concatenate
+        int[] pendingHead = new int[n];
+        Arrays.fill(pendingHead, -1);
+        int[] pendingNext = new int[m];
+        for (int k = n - 1; k >= 0; k--) {
+            int x = order[k];
+            // I figli, visitati prima, entrano nell'insieme di x
+            for (int a = treeStart[x]; a < treeStart[x + 1]; a++) {
+                int e = treeEdges[a];
+                int child = u[e] == x ? v[e] : u[e];
+                if (parent[child] == x && parentEdge[child] == e) {
+                    setParent[child] = x;
+                    maxEdge[child] = e;
+                }
+            }
+            for (int a = queryStart[x]; a < queryStart[x + 1]; a++) {
+                int i = queryEdges[a];
+                int y = u[i] == x ? v[i] : u[i];
+                if (tree[y] != tree[x] || preorder[y] < preorder[x]) {
+                    // Estremi in alberi diversi, oppure interrogazione che
+                    // sarà risolta quando verrà visitato y
+                    continue;
+                }
+                // y è già stato visitato: la radice del suo insieme è x se y
+                // discende da x, altrimenti è il figlio del minimo antenato
+                // comune che sta sul cammino verso y
+                int root = find(setParent, maxEdge, y, stack, w, id);
+                int ancestor = root == x ? x : parent[root];
+                pendingNext[i] = pendingHead[ancestor];
+                pendingHead[ancestor] = i;
+            }
+            for (int i = pendingHead[x]; i >= 0; i = pendingNext[i]) {
+                find(setParent, maxEdge, u[i], stack, w, id);
+                find(setParent, maxEdge, v[i], stack, w, id);
+                pathMax[i] = heavier(u[i] == x ? -1 : maxEdge[u[i]],
+                        v[i] == x ? -1 : maxEdge[v[i]], w, id);
+            }
+        }
+        return pathMax;
+    }
+
+    /**
+     * Ordine totale degli archi: per peso e, a parità di peso, per indice.
+     *
+     * @param i
+     *               la posizione del primo arco
+     * @param j
+     *               la posizione del secondo arco
+     * @param w
+     *               il peso di ogni arco
+     * @param id
+     *               l'indice di ogni arco
+     * @return true se il primo arco precede il secondo
+     */
+    static boolean lighter(int i, int j, double[] w, int[] id) {
+        int c = Double.compare(w[i], w[j]);
+        return c < 0 || (c == 0 && id[i] < id[j]);
+    }
+
+    /*
+     * Il più pesante di due archi, ignorando le posizioni negative.
+     */
+    private static int heavier(int i, int j, double[] w, int[] id) {
+        if (i < 0) {
+            return j;
+        }
+        if (j < 0) {
+            return i;
+        }
+        return lighter(i, j, w, id) ? j : i;
+    }
+
+    /*
+     * Radice dell'insieme di x, con compressione del cammino che aggiorna
+     * maxEdge: alla fine maxEdge[x] è l'arco più pesante tra x e la radice.
+     */
+    private static int find(int[] setParent, int[] maxEdge, int x, int[] path,
+            double[] w, int[] id) {
+        int length = 0;
+        while (setParent[x] != x) {
+            path[length++] = x;
+            x = setParent[x];
+        }
+        int root = x;
+        // Il nodo più vicino alla radice conserva il proprio arco
+        for (int k = length - 2; k >= 0; k--) {
+            int node = path[k];
+            maxEdge[node] = heavier(maxEdge[node], maxEdge[path[k + 1]], w, id);
+            setParent[node] = root;
+        }
+        return root;
+    }
+}
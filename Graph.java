@@ -3,7 +3,10 @@
  */
 package it.unicam.cs.asdl2425.mp2;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Classe astratta per un generico grafo i cui nodi sono etichettati con
@@ -90,6 +93,31 @@ public abstract class Graph<L> {
      */
     public abstract boolean addNode(GraphNode<L> node);
 
+    /**
+     * Aggiunge a questo grafo tutti i nodi di una collezione. I nodi già
+     * presenti, o ripetuti nella collezione, vengono ignorati.
+     * 
+     * L'implementazione di default chiama {@code addNode} per ogni nodo; le
+     * sottoclassi possono ridefinirla per dimensionare le proprie strutture una
+     * sola volta e inserire tutti i nodi in un'unica passata.
+     * 
+     * @param nodes
+     *                  i nuovi nodi da aggiungere
+     * @return il numero di nodi effettivamente aggiunti
+     * @throws NullPointerException
+     *                                  se la collezione passata è null o
+     *                                  contiene un nodo null
+     */
+    public int addNodes(Collection<GraphNode<L>> nodes) {
+        if (nodes == null)
+            throw new NullPointerException("Collezione di nodi nulla");
+        int added = 0;
+        for (GraphNode<L> node : nodes)
+            if (this.addNode(node))
+                added++;
+        return added;
+    }
+
     /**
      * Rimuove un nodo da questo grafo. Tutti gli archi collegati al nodo
      * vengono anch'essi eliminati.
@@ -254,6 +282,38 @@ public abstract class Graph<L> {
      */
     public abstract boolean addEdge(GraphEdge<L> edge);
 
+    /**
+     * Aggiunge a questo grafo tutti gli archi di una collezione. Gli archi già
+     * presenti, o ripetuti nella collezione, vengono ignorati.
+     * 
+     * L'implementazione di default chiama {@code addEdge} per ogni arco, per
+     * cui se viene lanciata un'eccezione gli archi precedenti possono essere
+     * già stati inseriti. Le sottoclassi possono ridefinirla per validare
+     * tutti gli archi prima di inserirne qualcuno.
+     * 
+     * @param edges
+     *                  gli archi da inserire
+     * @return il numero di archi effettivamente inseriti
+     * @throws NullPointerException
+     *                                      se la collezione passata è null o
+     *                                      contiene un arco null
+     * @throws IllegalArgumentException
+     *                                      se almeno uno dei due nodi di
+     *                                      qualche arco non esiste
+     * @throws IllegalArgumentException
+     *                                      se qualche arco è orientato e questo
+     *                                      grafo non è orientato o viceversa
+     */
+    public int addEdges(Collection<GraphEdge<L>> edges) {
+        if (edges == null)
+            throw new NullPointerException("Collezione di archi nulla");
+        int added = 0;
+        for (GraphEdge<L> edge : edges)
+            if (this.addEdge(edge))
+                added++;
+        return added;
+    }
+
     /**
      * Rimuove un arco da questo grafo.
      * 
@@ -351,4 +411,118 @@ public abstract class Graph<L> {
                     + this.getIngoingEdgesOf(node).size();
     }
 
+    /**
+     * Esegue un'azione su ogni nodo di questo grafo senza costruire un
+     * insieme di appoggio.
+     * 
+     * L'implementazione di default scorre l'insieme restituito da
+     * {@code getNodes()}; le sottoclassi possono ridefinirla per leggere
+     * direttamente la propria rappresentazione.
+     * 
+     * @param action
+     *                   l'azione da eseguire su ogni nodo
+     * @throws NullPointerException
+     *                                  se l'azione passata è nulla
+     */
+    public void forEachNode(Consumer<? super GraphNode<L>> action) {
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        for (GraphNode<L> node : this.getNodes())
+            action.accept(node);
+    }
+
+    /**
+     * Esegue un'azione su ogni arco di questo grafo, visitando ogni arco una
+     * sola volta.
+     * 
+     * L'implementazione di default scorre l'insieme restituito da
+     * {@code getEdges()}; le sottoclassi possono ridefinirla per leggere
+     * direttamente la propria rappresentazione.
+     * 
+     * @param action
+     *                   l'azione da eseguire su ogni arco
+     * @throws NullPointerException
+     *                                  se l'azione passata è nulla
+     */
+    public void forEachEdge(Consumer<? super GraphEdge<L>> action) {
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        for (GraphEdge<L> edge : this.getEdges())
+            action.accept(edge);
+    }
+
+    /**
+     * Esegue un'azione su ogni nodo adiacente a un certo nodo. Se il grafo è
+     * orientato, vengono visitati solo i nodi collegati da un arco uscente.
+     * 
+     * @param node
+     *                   il nodo di cui visitare i nodi adiacenti
+     * @param action
+     *                   l'azione da eseguire su ogni nodo adiacente
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste
+     * @throws NullPointerException
+     *                                      se il nodo o l'azione passati sono
+     *                                      nulli
+     */
+    public void forEachNeighbor(GraphNode<L> node,
+            Consumer<? super GraphNode<L>> action) {
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        for (GraphNode<L> adjacent : this.getAdjacentNodesOf(node))
+            action.accept(adjacent);
+    }
+
+    /**
+     * Esegue un'azione su ogni arco connesso a un certo nodo. Nel caso di
+     * grafo orientato vengono visitati solo gli archi uscenti.
+     * 
+     * @param node
+     *                   il nodo di cui visitare gli archi connessi
+     * @param action
+     *                   l'azione da eseguire su ogni arco
+     * @throws IllegalArgumentException
+     *                                      se il nodo passato non esiste
+     * @throws NullPointerException
+     *                                      se il nodo o l'azione passati sono
+     *                                      nulli
+     */
+    public void forEachEdgeOf(GraphNode<L> node,
+            Consumer<? super GraphEdge<L>> action) {
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        for (GraphEdge<L> edge : this.getEdgesOf(node))
+            action.accept(edge);
+    }
+
+    /**
+     * Esegue un'azione sull'indice di ogni nodo adiacente al nodo di indice
+     * dato, secondo gli indici definiti da {@code getNodeIndexOf}. Se il grafo
+     * è orientato, vengono visitati solo i nodi collegati da un arco uscente.
+     * 
+     * Questa operazione è opzionale.
+     * 
+     * @param i
+     *                   l'indice del nodo di cui visitare i nodi adiacenti
+     * @param action
+     *                   l'azione da eseguire sull'indice di ogni nodo
+     *                   adiacente
+     * @throws IndexOutOfBoundsException
+     *                                           se l'indice passato è fuori
+     *                                           dai limiti dell'intervallo
+     *                                           <code>[0, this.nodeCount() - 1]</code>
+     * @throws NullPointerException
+     *                                           se l'azione passata è nulla
+     * @throws UnsupportedOperationException
+     *                                           se l'implementazione di questo
+     *                                           grafo non supporta gli indici
+     */
+    public void forEachNeighborIndex(int i, IntConsumer action) {
+        if (action == null)
+            throw new NullPointerException("Azione nulla");
+        for (GraphNode<L> adjacent : this.getAdjacentNodesOf(
+                this.getNodeAtIndex(i)))
+            action.accept(this.getNodeIndexOf(adjacent.getLabel()));
+    }
+
 }
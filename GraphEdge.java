@@ -1,3 +1,5 @@
+package it.unicam.cs.asdl2425.mp2;
+
 /**
  * Questa classe raggruppa le caratteristiche di un arco, possibilmente pesato
  * ed etichettato, facente parte di un grafo. I nodi del grafo sono etichettati
@@ -0,0 +1,492 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Generatore riproducibile di grafi non orientati e pesati sintetici, pensato
+ * per benchmark e test di carico. Sono disponibili i modelli di
+ * Erdős–Rényi, R-MAT (Kronecker), griglie bidimensionali e tridimensionali,
+ * grafi geometrici casuali e grafi con distribuzione dei gradi a legge di
+ * potenza (modello di Chung–Lu). I pesi degli archi sono estratti da una
+ * {@code WeightDistribution} configurabile.
+ *
+ * Ogni generatore produce una {@code EdgeList}, che può essere inserita in un
+ * qualunque {@code Graph<L>} tramite {@code EdgeList.addTo}. Il lavoro è
+ * suddiviso in un numero fissato di blocchi, ognuno con il proprio generatore
+ * pseudocasuale derivato dal seme, ed i blocchi sono eseguiti in parallelo
+ * se richiesto. Poiché la suddivisione non dipende dal numero di processori,
+ * a parità di seme e di parametri il risultato è sempre lo stesso, con o
+ * senza parallelismo.
+ */
+public class GraphGenerator {
+
+    /**
+     * Distribuzione da cui vengono estratti i pesi degli archi.
+     */
+    @FunctionalInterface
+    public interface WeightDistribution {
+
+        /**
+         * Estrae un peso.
+         *
+         * @param random
+         *                   il generatore pseudocasuale da usare
+         * @return il peso estratto
+         */
+        double next(SplittableRandom random);
+
+        /**
+         * Pesi reali uniformi nell'intervallo <code>[min, max)</code>.
+         *
+         * @param min
+         *                il peso minimo
+         * @param max
+         *                il limite superiore, escluso
+         * @return la distribuzione uniforme
+         */
+        static WeightDistribution uniform(double min, double max) {
+            if (!(min < max))
+                throw new IllegalArgumentException("Intervallo vuoto");
+            return r -> r.nextDouble(min, max);
+        }
+
+        /**
+         * Pesi interi uniformi nell'intervallo <code>[min, max]</code>.
+         *
+         * @param min
+         *                il peso minimo
+         * @param max
+         *                il peso massimo, incluso
+         * @return la distribuzione uniforme sugli interi
+         */
+        static WeightDistribution integers(long min, long max) {
+            if (min > max)
+                throw new IllegalArgumentException("Intervallo vuoto");
+            return r -> min + r.nextLong(max - min + 1);
+        }
+
+        /**
+         * Pesi con distribuzione esponenziale.
+         *
+         * @param mean
+         *                 la media dei pesi
+         * @return la distribuzione esponenziale
+         */
+        static WeightDistribution exponential(double mean) {
+            if (!(mean > 0))
+                throw new IllegalArgumentException("Media non positiva");
+            return r -> -mean * Math.log(1 - r.nextDouble());
+        }
+
+        /**
+         * Tutti gli archi con lo stesso peso.
+         *
+         * @param weight
+         *                   il peso di tutti gli archi
+         * @return la distribuzione costante
+         */
+        static WeightDistribution constant(double weight) {
+            return r -> weight;
+        }
+    }
+
+    /*
+     * Numero di blocchi in cui viene suddiviso il lavoro. È fissato per
+     * rendere il risultato indipendente dal numero di processori.
+     */
+    private static final int CHUNKS = 256;
+
+    private final long seed;
+
+    private WeightDistribution weights;
+
+    private boolean parallel;
+
+    /**
+     * Crea un generatore con un certo seme, pesi uniformi in
+     * <code>[0, 1)</code> ed esecuzione parallela.
+     *
+     * @param seed
+     *                 il seme da cui derivare tutte le scelte casuali
+     */
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+        this.weights = WeightDistribution.uniform(0, 1);
+        this.parallel = true;
+    }
+
+    /**
+     * Imposta la distribuzione dei pesi degli archi.
+     *
+     * @param weights
+     *                    la distribuzione dei pesi
+     * @return questo generatore
+     * @throws NullPointerException
+     *                                  se la distribuzione è null
+     */
+    public GraphGenerator withWeights(WeightDistribution weights) {
+        if (weights == null)
+            throw new NullPointerException("Distribuzione dei pesi nulla");
+        this.weights = weights;
+        return this;
+    }
+
+    /**
+     * Stabilisce se i blocchi di lavoro vengono eseguiti in parallelo.
+     *
+     * @param parallel
+     *                     true per l'esecuzione parallela, false per quella
+     *                     sequenziale
+     * @return questo generatore
+     */
+    public GraphGenerator withParallelism(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Genera un grafo di Erdős–Rényi G(n, p) in cui ogni coppia di nodi
+     * distinti è collegata indipendentemente con probabilità p. Usa il metodo
+     * di Batagelj e Brandes, che salta direttamente alla coppia successiva da
+     * collegare, per cui richiede tempo proporzionale a n più il numero di
+     * archi generati.
+     *
+     * @param n
+     *              il numero di nodi
+     * @param p
+     *              la probabilità di ogni arco
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se n è negativo o p non è in
+     *                                      <code>[0, 1]</code>
+     */
+    public EdgeList erdosRenyi(int n, double p) {
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di nodi negativo");
+        if (!(p >= 0 && p <= 1))
+            throw new IllegalArgumentException("Probabilità non valida: " + p);
+        double logq = Math.log(1 - p);
+        return generate(n, Math.min(n, CHUNKS), (chunk, chunks, r, out) -> {
+            if (p == 0)
+                return;
+            // Il blocco gestisce le righe u = chunk, chunk + chunks, ... per
+            // bilanciare il lavoro tra righe lunghe e corte
+            for (int u = chunk; u < n; u += chunks) {
+                long v = u;
+                while (true) {
+                    v += p == 1 ? 1 : 1 + (long) Math.floor(Math.log(1 - r.nextDouble()) / logq);
+                    if (v >= n)
+                        break;
+                    out.add(u, (int) v, weights.next(r));
+                }
+            }
+        });
+    }
+
+    /**
+     * Genera un grafo R-MAT con 2<sup>scale</sup> nodi. Ogni arco è ottenuto
+     * scendendo ricorsivamente nei quadranti della matrice di adiacenza con
+     * probabilità a, b, c e 1 - a - b - c. I cappi vengono scartati, mentre
+     * gli archi ripetuti restano nella lista e vengono ignorati
+     * dall'inserimento in un grafo.
+     *
+     * @param scale
+     *                  il logaritmo in base 2 del numero di nodi
+     * @param edges
+     *                  il numero di archi da generare
+     * @param a
+     *                  probabilità del quadrante in alto a sinistra
+     * @param b
+     *                  probabilità del quadrante in alto a destra
+     * @param c
+     *                  probabilità del quadrante in basso a sinistra
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se i parametri non sono validi
+     */
+    public EdgeList rmat(int scale, int edges, double a, double b, double c) {
+        if (scale < 1 || scale > 30)
+            throw new IllegalArgumentException("Scala non valida: " + scale);
+        if (edges < 0)
+            throw new IllegalArgumentException("Numero di archi negativo");
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1)
+            throw new IllegalArgumentException("Probabilità non valide");
+        int n = 1 << scale;
+        return generate(n, CHUNKS, (chunk, chunks, r, out) -> {
+            int count = share(edges, chunk, chunks);
+            while (count > 0) {
+                int u = 0;
+                int v = 0;
+                for (int level = 0; level < scale; level++) {
+                    double x = r.nextDouble();
+                    u <<= 1;
+                    v <<= 1;
+                    if (x < a) {
+                        // quadrante in alto a sinistra
+                    } else if (x < a + b) {
+                        v |= 1;
+                    } else if (x < a + b + c) {
+                        u |= 1;
+                    } else {
+                        u |= 1;
+                        v |= 1;
+                    }
+                }
+                if (u != v) {
+                    out.add(u, v, weights.next(r));
+                    count--;
+                }
+            }
+        });
+    }
+
+    /**
+     * Genera una griglia bidimensionale in cui ogni nodo è collegato ai nodi
+     * adiacenti sulla stessa riga e sulla stessa colonna. Il nodo in riga i e
+     * colonna j ha indice i * cols + j.
+     *
+     * @param rows
+     *                 il numero di righe
+     * @param cols
+     *                 il numero di colonne
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se le dimensioni non sono valide
+     */
+    public EdgeList grid2D(int rows, int cols) {
+        return grid3D(rows, cols, 1);
+    }
+
+    /**
+     * Genera una griglia tridimensionale in cui ogni nodo è collegato ai nodi
+     * adiacenti lungo i tre assi. Il nodo di coordinate (i, j, k) ha indice
+     * (i * ny + j) * nz + k.
+     *
+     * @param nx
+     *               la dimensione lungo il primo asse
+     * @param ny
+     *               la dimensione lungo il secondo asse
+     * @param nz
+     *               la dimensione lungo il terzo asse
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se le dimensioni non sono valide
+     */
+    public EdgeList grid3D(int nx, int ny, int nz) {
+        if (nx < 1 || ny < 1 || nz < 1)
+            throw new IllegalArgumentException("Dimensioni non valide");
+        long total = (long) nx * ny * nz;
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Troppi nodi: " + total);
+        int n = (int) total;
+        return generate(n, Math.min(nx, CHUNKS), (chunk, chunks, r, out) -> {
+            for (int i = chunk; i < nx; i += chunks)
+                for (int j = 0; j < ny; j++)
+                    for (int k = 0; k < nz; k++) {
+                        int u = (i * ny + j) * nz + k;
+                        if (k + 1 < nz)
+                            out.add(u, u + 1, weights.next(r));
+                        if (j + 1 < ny)
+                            out.add(u, u + nz, weights.next(r));
+                        if (i + 1 < nx)
+                            out.add(u, u + ny * nz, weights.next(r));
+                    }
+        });
+    }
+
+    /**
+     * Genera un grafo geometrico casuale: n punti sono distribuiti
+     * uniformemente nel quadrato unitario e due punti sono collegati se la
+     * loro distanza è al più radius. Il peso degli archi è estratto dalla
+     * distribuzione configurata. I punti sono raggruppati in celle di lato
+     * almeno radius, per cui ogni punto viene confrontato solo con quelli delle
+     * celle vicine.
+     *
+     * @param n
+     *                   il numero di nodi
+     * @param radius
+     *                   la distanza massima tra due nodi collegati
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se i parametri non sono validi
+     */
+    public EdgeList randomGeometric(int n, double radius) {
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di nodi negativo");
+        if (!(radius > 0))
+            throw new IllegalArgumentException("Raggio non positivo");
+        double[][] points = points(n);
+        double[] x = points[0];
+        double[] y = points[1];
+        // Celle di lato almeno radius, in modo che i punti a distanza al più
+        // radius siano in celle vicine; i punti di ogni cella sono contigui
+        // in order
+        int side = (int) Math.max(1, Math.min(Math.floor(1 / radius),
+                Math.sqrt(Math.max(n, 1))));
+        int[] start = new int[side * side + 1];
+        for (int i = 0; i < n; i++)
+            start[cellOf(x[i], y[i], side) + 1]++;
+        for (int c = 0; c < side * side; c++)
+            start[c + 1] += start[c];
+        int[] order = new int[n];
+        int[] fill = start.clone();
+        for (int i = 0; i < n; i++)
+            order[fill[cellOf(x[i], y[i], side)]++] = i;
+        double r2 = radius * radius;
+        return generate(n, Math.min(side, CHUNKS), (chunk, chunks, r, out) -> {
+            for (int cx = chunk; cx < side; cx += chunks)
+                for (int cy = 0; cy < side; cy++)
+                    for (int a = start[cx * side + cy]; a < start[cx * side + cy + 1]; a++) {
+                        int u = order[a];
+                        for (int nx = Math.max(0, cx - 1); nx <= Math.min(side - 1, cx + 1); nx++)
+                            for (int ny = Math.max(0, cy - 1); ny <= Math.min(side - 1, cy + 1); ny++)
+                                for (int b = start[nx * side + ny]; b < start[nx * side + ny + 1]; b++) {
+                                    int v = order[b];
+                                    double dx = x[u] - x[v];
+                                    double dy = y[u] - y[v];
+                                    if (u < v && dx * dx + dy * dy <= r2)
+                                        out.add(u, v, weights.next(r));
+                                }
+                    }
+        });
+    }
+
+    /**
+     * Coordinate dei punti di {@code randomGeometric}, generate a blocchi con
+     * semi propri: dipendono solo dal seme del generatore e dal numero di
+     * punti.
+     *
+     * @param n
+     *              il numero di punti
+     * @return le ascisse e le ordinate dei punti
+     */
+    double[][] points(int n) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        long[] pointSeeds = seeds(CHUNKS, ~this.seed);
+        run(CHUNKS, chunk -> {
+            SplittableRandom r = new SplittableRandom(pointSeeds[chunk]);
+            for (int i = chunk; i < n; i += CHUNKS) {
+                x[i] = r.nextDouble();
+                y[i] = r.nextDouble();
+            }
+        });
+        return new double[][] { x, y };
+    }
+
+    /**
+     * Genera un grafo con distribuzione dei gradi a legge di potenza secondo
+     * il modello di Chung–Lu: il nodo i ha peso proporzionale a
+     * (i + 1)<sup>-1 / (exponent - 1)</sup> e ogni arco sceglie i due estremi
+     * indipendentemente con probabilità proporzionale al peso, per cui il
+     * grado atteso dei nodi segue una legge di potenza con l'esponente dato. I
+     * cappi vengono scartati, mentre gli archi ripetuti restano nella lista.
+     *
+     * @param n
+     *                     il numero di nodi
+     * @param edges
+     *                     il numero di archi da generare
+     * @param exponent
+     *                     l'esponente della legge di potenza, maggiore di 2
+     * @return gli archi generati
+     * @throws IllegalArgumentException
+     *                                      se i parametri non sono validi
+     */
+    public EdgeList powerLaw(int n, int edges, double exponent) {
+        if (n < 2)
+            throw new IllegalArgumentException("Servono almeno due nodi");
+        if (edges < 0)
+            throw new IllegalArgumentException("Numero di archi negativo");
+        if (!(exponent > 2))
+            throw new IllegalArgumentException("Esponente non valido: " + exponent);
+        // Distribuzione cumulativa dei pesi dei nodi
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            total += Math.pow(i + 1, -1 / (exponent - 1));
+            cumulative[i] = total;
+        }
+        double sum = total;
+        return generate(n, CHUNKS, (chunk, chunks, r, out) -> {
+            int count = share(edges, chunk, chunks);
+            while (count > 0) {
+                int u = sample(cumulative, r.nextDouble() * sum);
+                int v = sample(cumulative, r.nextDouble() * sum);
+                if (u != v) {
+                    out.add(u, v, weights.next(r));
+                    count--;
+                }
+            }
+        });
+    }
+
+    /*
+     * Il lavoro di un blocco: riceve il proprio numero, il numero totale di
+     * blocchi, il generatore pseudocasuale del blocco e la lista in cui
+     * scrivere gli archi.
+     */
+    private interface Chunk {
+        void generate(int chunk, int chunks, SplittableRandom random, EdgeList out);
+    }
+
+    /*
+     * Esegue i blocchi, possibilmente in parallelo, e concatena i risultati
+     * nell'ordine dei blocchi.
+     */
+    private EdgeList generate(int n, int chunks, Chunk work) {
+        int count = Math.max(chunks, 1);
+        long[] chunkSeeds = seeds(count, this.seed);
+        List<EdgeList> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            parts.add(new EdgeList(n, 0));
+        run(count, chunk -> work.generate(chunk, count,
+                new SplittableRandom(chunkSeeds[chunk]), parts.get(chunk)));
+        return EdgeList.concat(n, parts);
+    }
+
+    private void run(int chunks, IntConsumer body) {
+        IntStream range = IntStream.range(0, chunks);
+        (this.parallel ? range.parallel() : range).forEach(body);
+    }
+
+    private static long[] seeds(int count, long seed) {
+        SplittableRandom master = new SplittableRandom(seed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++)
+            seeds[i] = master.nextLong();
+        return seeds;
+    }
+
+    /*
+     * Quota di total assegnata al blocco chunk su chunks.
+     */
+    private static int share(int total, int chunk, int chunks) {
+        return total / chunks + (chunk < total % chunks ? 1 : 0);
+    }
+
+    private static int cellOf(double x, double y, int side) {
+        int cx = Math.min(side - 1, (int) (x * side));
+        int cy = Math.min(side - 1, (int) (y * side));
+        return cx * side + cy;
+    }
+
+    /*
+     * Primo indice i tale che cumulative[i] > value.
+     */
+    private static int sample(double[] cumulative, double value) {
+        int lo = 0;
+        int hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] > value)
+                hi = mid;
+            else
+                lo = mid + 1;
+        }
+        return lo;
+    }
+}
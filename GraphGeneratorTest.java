@@ -0,0 +1,119 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per le classi GraphGenerator ed EdgeList.
+ */
+class GraphGeneratorTest {
+
+    /**
+     * Verifica che lo stesso seme produca gli stessi archi, con e senza
+     * parallelismo.
+     */
+    @Test
+    final void testReproducible() {
+        EdgeList sequential = new GraphGenerator(7).withParallelism(false).erdosRenyi(300, 0.05);
+        EdgeList parallel = new GraphGenerator(7).erdosRenyi(300, 0.05);
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.from(i), parallel.from(i));
+            assertEquals(sequential.to(i), parallel.to(i));
+            assertEquals(sequential.weight(i), parallel.weight(i));
+        }
+        EdgeList other = new GraphGenerator(8).erdosRenyi(300, 0.05);
+        assertNotEquals(sequential.size() + ":" + sequential.from(0) + sequential.to(0),
+                other.size() + ":" + other.from(0) + other.to(0));
+    }
+
+    /**
+     * Verifica che G(n, p) non contenga cappi né archi ripetuti e che il
+     * numero di archi sia vicino a quello atteso.
+     */
+    @Test
+    final void testErdosRenyi() {
+        int n = 400;
+        EdgeList edges = new GraphGenerator(1).erdosRenyi(n, 0.1);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < edges.size(); i++) {
+            int u = edges.from(i);
+            int v = edges.to(i);
+            assertTrue(u < v);
+            assertTrue(seen.add((long) u * n + v));
+        }
+        double expected = 0.1 * n * (n - 1) / 2;
+        assertTrue(Math.abs(edges.size() - expected) < 0.1 * expected);
+        assertEquals(n * (n - 1) / 2, new GraphGenerator(1).erdosRenyi(n, 1).size());
+        assertEquals(0, new GraphGenerator(1).erdosRenyi(n, 0).size());
+    }
+
+    /**
+     * Verifica il numero di archi delle griglie.
+     */
+    @Test
+    final void testGrids() {
+        assertEquals(3 * 3 + 4 * 2, new GraphGenerator(1).grid2D(3, 4).size());
+        // In una griglia 2x3x4 gli archi lungo ogni asse sono (d - 1) per il
+        // prodotto delle altre due dimensioni
+        assertEquals(1 * 12 + 2 * 8 + 3 * 6, new GraphGenerator(1).grid3D(2, 3, 4).size());
+    }
+
+    /**
+     * Verifica R-MAT, Chung–Lu e grafi geometrici su numero di archi e
+     * assenza di cappi.
+     */
+    @Test
+    final void testOtherModels() {
+        EdgeList rmat = new GraphGenerator(3).rmat(10, 5000, 0.57, 0.19, 0.19);
+        assertEquals(1024, rmat.nodeCount());
+        assertEquals(5000, rmat.size());
+        EdgeList powerLaw = new GraphGenerator(3).powerLaw(1000, 4000, 2.5);
+        assertEquals(4000, powerLaw.size());
+        for (int i = 0; i < powerLaw.size(); i++) {
+            assertNotEquals(powerLaw.from(i), powerLaw.to(i));
+        }
+        // Con raggio maggiore della diagonale tutti i nodi sono collegati
+        assertEquals(50 * 49 / 2, new GraphGenerator(3).randomGeometric(50, 1.5).size());
+        // Con 1 / radius non intero le celle non dividono esattamente il
+        // quadrato: il conteggio deve coincidere con il confronto di tutte le
+        // coppie di punti
+        for (double radius : new double[] { 0.3, 0.15, 0.07 }) {
+            GraphGenerator generator = new GraphGenerator(7);
+            double[][] points = generator.points(3000);
+            long expected = 0;
+            for (int i = 0; i < 3000; i++) {
+                for (int j = i + 1; j < 3000; j++) {
+                    double dx = points[0][i] - points[0][j];
+                    double dy = points[1][i] - points[1][j];
+                    if (dx * dx + dy * dy <= radius * radius) {
+                        expected++;
+                    }
+                }
+            }
+            assertEquals(expected, generator.randomGeometric(3000, radius).size());
+        }
+    }
+
+    /**
+     * Verifica i pesi interi e l'inserimento in un grafo.
+     */
+    @Test
+    final void testAddTo() {
+        EdgeList edges = new GraphGenerator(5)
+                .withWeights(GraphGenerator.WeightDistribution.integers(1, 10))
+                .grid2D(4, 4);
+        Graph<Integer> g = edges.addTo(new AdjacencyMatrixUndirectedGraph<>(), i -> i);
+        assertEquals(16, g.nodeCount());
+        assertEquals(edges.size(), g.edgeCount());
+        for (GraphEdge<Integer> edge : g.getEdges()) {
+            double w = edge.getWeight();
+            assertTrue(w >= 1 && w <= 10 && w == Math.rint(w));
+        }
+        assertEquals(1, new UndirectedGraphConnectedComponentsComputer<Integer>().computeConnectedComponents(g).size());
+    }
+}
@@ -1,3 +1,5 @@
+package it.unicam.cs.asdl2425.mp2;
+
 /**
  * Questa classe raggruppa le operazioni tipicamente associate a un nodo facente
  * parte di un grafo. I nodi del grafo sono etichettati con oggetti della classe
@@ -19,6 +21,11 @@
  * handle intero in una coda con priorità realizzata con uno heap rappresentato
  * in un array.
  * 
+ * Poiché queste informazioni sono memorizzate nel nodo, due algoritmi non
+ * possono usarle contemporaneamente sullo stesso grafo. Gli algoritmi che
+ * devono poter essere eseguiti in modo concorrente su un grafo condiviso
+ * possono usare al loro posto un {@code TraversalWorkspace}.
+ * 
  * @param <L>
  *                etichette dei nodi
  *
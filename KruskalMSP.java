@@ -1,3 +1,5 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -19,12 +21,33 @@ import java.util.Set;
  */
 public class KruskalMSP<L> {
 
+    /*
+     * Numero minimo di secchi concesso all'ordinamento per conteggio: oltre
+     * questo valore i secchi non possono superare il numero di archi, in modo
+     * che l'ordinamento resti lineare.
+     */
+    private static final int MIN_SORT_BUCKETS = 1 << 16;
+
     /*
      * Struttura dati per rappresentare gli insiemi disgiunti utilizzata
      * dall'algoritmo di Kruskal.
      */
     private ForestDisjointSets<GraphNode<L>> disjointSets;
     private List<GraphEdge<L>> edges;
+
+    /*
+     * Destinatario delle misure di ogni esecuzione.
+     */
+    private MetricsListener listener = MetricsListener.NONE;
+
+    /*
+     * Se true ogni esecuzione costruisce l'albero di ricostruzione di Kruskal,
+     * disponibile fino all'esecuzione successiva.
+     */
+    private boolean buildReconstructionTree;
+
+    private KruskalReconstructionTree<L> reconstructionTree;
+
     /**
      * Costruisce un calcolatore di un albero di copertura minimo che usa
      * l'algoritmo di Kruskal su un grafo non orientato e pesato.
@@ -58,42 +81,224 @@ public class KruskalMSP<L> {
             throw new IllegalArgumentException("Graph must be undirected.");
         }
 
-        if (g.getEdges().isEmpty()) {
-            return new HashSet<>();
-        }
-
-        for (GraphEdge<L> edge : g.getEdges()) {
+        // forEachEdge evita di costruire l'insieme di getEdges(), che con molti
+        // archi costa più dell'ordinamento; i pesi sono controllati nella
+        // stessa passata
+        PhaseRecorder recorder = new PhaseRecorder("KruskalMSP", this.listener);
+        recorder.begin("getEdges");
+        this.edges.clear();
+        g.forEachEdge(edge -> {
             if (edge.getWeight() < 0) {
                 throw new IllegalArgumentException("Graph cannot have negative edge weights.");
             }
-        }
+            this.edges.add(edge);
+        });
+        recorder.end();
 
-        this.edges.clear();
-        this.edges.addAll(g.getEdges());
+        if (this.edges.isEmpty()) {
+            this.reconstructionTree = this.buildReconstructionTree
+                    ? new KruskalReconstructionTree<>(new ArrayList<>(g.getNodes()),
+                            new int[0], new int[0], new double[0], 0)
+                    : null;
+            return new HashSet<>();
+        }
 
-        Set<GraphEdge<L>> mst = new HashSet<>();
         disjointSets.clear();
+        disjointSets.setMetricsEnabled(recorder.isEnabled());
+        disjointSets.resetMetrics();
 
-        for (GraphNode<L> node : g.getNodes()) {
+        recorder.begin("makeSet");
+        Set<GraphNode<L>> nodes = g.getNodes();
+        for (GraphNode<L> node : nodes) {
             disjointSets.makeSet(node);
         }
+        recorder.end();
 
-        this.edges.sort(Comparator.comparingDouble(GraphEdge::getWeight));
+        // Con pesi interi in un intervallo limitato, come latenze in
+        // millisecondi o costi in salti, gli archi sono ordinati per conteggio
+        // in tempo O(E + W); l'ordinamento è stabile come quello generale, per
+        // cui l'albero trovato non cambia
+        recorder.begin("sort");
+        int buckets = countingSort();
+        if (buckets == 0) {
+            this.edges.sort(Comparator.comparingDouble(GraphEdge::getWeight));
+        }
+        recorder.end();
 
-        for (GraphEdge<L> edge : this.edges) {
-            GraphNode<L> u = edge.getNode1();
-            GraphNode<L> v = edge.getNode2();
+        // Traduce gli estremi degli archi ordinati negli handle degli insiemi
+        // disgiunti, in modo che il ciclo delle unioni non consulti mai la
+        // mappa degli elementi
+        recorder.begin("handles");
+        int m = this.edges.size();
+        int[] handles1 = new int[m];
+        int[] handles2 = new int[m];
+        for (int i = 0; i < m; i++) {
+            GraphEdge<L> edge = this.edges.get(i);
+            handles1[i] = disjointSets.handleOf(edge.getNode1());
+            handles2[i] = disjointSets.handleOf(edge.getNode2());
+        }
+        recorder.end();
 
-            if (disjointSets.findSet(u) != disjointSets.findSet(v)) {
-                mst.add(edge);
-                disjointSets.union(u, v);
+        recorder.begin("unionLoop");
+        List<GraphEdge<L>> chosen = new ArrayList<>(nodes.size());
+        int target = nodes.size() - 1;
+        int scanned = 0;
+        int earlyExit = -1;
+        // Unioni dell'albero di ricostruzione: top[r] è il nodo dell'albero
+        // che rappresenta l'insieme con radice r, le foglie sono gli handle
+        int[] top = null;
+        int[] left = null;
+        int[] right = null;
+        double[] weights = null;
+        if (this.buildReconstructionTree) {
+            top = new int[nodes.size()];
+            for (int i = 0; i < top.length; i++) {
+                top[i] = i;
+            }
+            left = new int[Math.max(target, 0)];
+            right = new int[left.length];
+            weights = new double[left.length];
+        }
+        for (int i = 0; i < m; i++) {
+            scanned++;
+            boolean merged;
+            if (top == null) {
+                merged = disjointSets.unionHandles(handles1[i], handles2[i]);
+            } else {
+                int root1 = disjointSets.findHandle(handles1[i]);
+                int root2 = disjointSets.findHandle(handles2[i]);
+                merged = root1 != root2;
+                if (merged) {
+                    int k = chosen.size();
+                    disjointSets.unionHandles(root1, root2);
+                    left[k] = top[root1];
+                    right[k] = top[root2];
+                    weights[k] = this.edges.get(i).getWeight();
+                    top[disjointSets.findHandle(root1)] = nodes.size() + k;
+                }
+            }
+            if (merged) {
+                chosen.add(this.edges.get(i));
 
-                if (mst.size() == g.getNodes().size() - 1) {
-                    return mst;
+                if (chosen.size() == target) {
+                    earlyExit = i;
+                    break;
                 }
             }
         }
-        if (!mst.isEmpty()) return mst;
-            return new HashSet<>();
+        recorder.end();
+
+        if (top != null) {
+            recorder.begin("reconstructionTree");
+            List<GraphNode<L>> leaves = new ArrayList<>(nodes.size());
+            for (int h = 0; h < nodes.size(); h++) {
+                leaves.add(disjointSets.elementOf(h));
+            }
+            this.reconstructionTree = new KruskalReconstructionTree<>(leaves, left,
+                    right, weights, chosen.size());
+            recorder.end();
+        } else {
+            this.reconstructionTree = null;
+        }
+
+        Set<GraphEdge<L>> mst = new HashSet<>(chosen);
+        if (recorder.isEnabled()) {
+            recorder.counter("edgesScanned", scanned);
+            recorder.counter("unionsPerformed", disjointSets.getUnionCount());
+            recorder.counter("findCount", disjointSets.getFindCount());
+            recorder.counter("findPathLength", disjointSets.getFindPathLength());
+            recorder.counter("compressionWrites", disjointSets.getCompressionWrites());
+            recorder.counter("earlyExitEdge", earlyExit);
+            recorder.counter("sortBuckets", buckets);
+        }
+        return mst;
+    }
+
+    /*
+     * Ordina gli archi per conteggio se i pesi sono tutti interi e il peso
+     * massimo non supera max(E, MIN_SORT_BUCKETS), restituendo il numero di
+     * secchi usati; altrimenti lascia gli archi invariati e restituisce 0.
+     */
+    @SuppressWarnings("unchecked")
+    private int countingSort() {
+        int m = this.edges.size();
+        int limit = Math.max(m, MIN_SORT_BUCKETS);
+        // I pesi vengono controllati prima di allocare qualsiasi cosa, in
+        // modo che l'ordinamento per confronto non ne paghi il costo
+        int max = 0;
+        for (int i = 0; i < m; i++) {
+            double w = this.edges.get(i).getWeight();
+            if (!(w <= limit) || w != Math.rint(w)) {
+                return 0;
+            }
+            max = Math.max(max, (int) w);
+        }
+        int[] start = new int[max + 2];
+        for (int i = 0; i < m; i++) {
+            start[(int) this.edges.get(i).getWeight() + 1]++;
+        }
+        for (int k = 0; k <= max; k++) {
+            start[k + 1] += start[k];
+        }
+        GraphEdge<?>[] sorted = new GraphEdge<?>[m];
+        for (int i = 0; i < m; i++) {
+            GraphEdge<L> edge = this.edges.get(i);
+            sorted[start[(int) edge.getWeight()]++] = edge;
+        }
+        for (int i = 0; i < m; i++) {
+            this.edges.set(i, (GraphEdge<L>) sorted[i]);
+        }
+        return max + 1;
+    }
+
+    /**
+     * Abilita o disabilita la costruzione dell'albero di ricostruzione di
+     * Kruskal durante le esecuzioni successive di {@code computeMSP}. La
+     * costruzione, disabilitata per default, richiede tempo e spazio
+     * O(V log V) in più.
+     * 
+     * @param enabled
+     *                    true per costruire l'albero, false altrimenti
+     */
+    public void setBuildReconstructionTree(boolean enabled) {
+        this.buildReconstructionTree = enabled;
+    }
+
+    /**
+     * Restituisce l'albero di ricostruzione di Kruskal costruito dall'ultima
+     * esecuzione di {@code computeMSP}, che risponde in tempo costante a
+     * interrogazioni sul peso minimax tra due nodi e sulla loro connessione
+     * con archi di peso limitato.
+     * 
+     * @return l'albero dell'ultima esecuzione, oppure null se la costruzione
+     *         non era abilitata o se non ci sono state esecuzioni
+     */
+    public KruskalReconstructionTree<L> getReconstructionTree() {
+        return this.reconstructionTree;
+    }
+
+    /**
+     * Imposta il listener che riceve la durata di ogni fase dell'algoritmo
+     * (lettura degli archi con il controllo dei pesi, creazione degli
+     * insiemi, ordinamento, traduzione degli estremi in handle e ciclo delle
+     * unioni) e i contatori di ogni esecuzione: archi esaminati, unioni
+     * eseguite, chiamate e lunghezza totale dei cammini di findSet, scritture
+     * della compressione dei cammini, posizione nell'ordinamento dell'arco
+     * dopo il quale l'algoritmo si è fermato (-1 se ha esaminato tutti gli
+     * archi), numero di secchi dell'ordinamento per conteggio (0 se i pesi
+     * non sono interi in un intervallo limitato e gli archi sono ordinati per
+     * confronto).
+     * 
+     * @param listener
+     *                     il listener, {@code MetricsListener.NONE} per non
+     *                     misurare nulla
+     * @throws NullPointerException
+     *                                  se il listener è null
+     */
+    public void setMetricsListener(MetricsListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("Listener cannot be null.");
         }
+        this.listener = listener;
     }
+}
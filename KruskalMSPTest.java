@@ -1,6 +1,14 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -289,4 +297,134 @@ class KruskalMSPTest {
         assertEquals(result, alg.computeMSP(gr),
                 "Il risultato non corrisponde all'MST del grafo disconnesso.");
     }
+
+    @Test
+    final void testMetricsListener() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> a = new GraphNode<>("a");
+        GraphNode<String> b = new GraphNode<>("b");
+        GraphNode<String> c = new GraphNode<>("c");
+        gr.addNodes(List.of(a, b, c));
+        gr.addEdge(new GraphEdge<>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<>(b, c, false, 2));
+        gr.addEdge(new GraphEdge<>(a, c, false, 3));
+
+        Map<String, Long> counters = new HashMap<>();
+        Set<String> phases = new HashSet<>();
+        KruskalMSP<String> alg = new KruskalMSP<>();
+        alg.setMetricsListener(new MetricsListener() {
+            @Override
+            public void phaseCompleted(String algorithm, String phase, long nanos) {
+                assertEquals("KruskalMSP", algorithm);
+                assertTrue(nanos >= 0);
+                phases.add(phase);
+            }
+
+            @Override
+            public void counter(String algorithm, String name, long value) {
+                counters.put(name, value);
+            }
+        });
+        assertEquals(2, alg.computeMSP(gr).size());
+        assertEquals(Set.of("getEdges", "makeSet", "sort", "handles", "unionLoop"), phases);
+        // L'albero è completo dopo il secondo arco, il terzo non viene esaminato
+        assertEquals(2L, counters.get("edgesScanned"));
+        assertEquals(2L, counters.get("unionsPerformed"));
+        assertEquals(1L, counters.get("earlyExitEdge"));
+        assertEquals(4L, counters.get("sortBuckets"));
+        assertThrows(NullPointerException.class, () -> alg.setMetricsListener(null));
+    }
+
+    @Test
+    final void testCountingSort() {
+        int n = 60;
+        Random random = new Random(50);
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        // Pesi interi con molte ripetizioni, pesi con parte frazionaria e
+        // pesi interi troppo grandi per i secchi: gli ultimi due casi usano
+        // l'ordinamento per confronto
+        double[] scales = { 1, 0.5, 1e9 };
+        long[] expectedBuckets = { 11, 0, 0 };
+        for (int s = 0; s < scales.length; s++) {
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+            gr.addNodes(nodes);
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (random.nextInt(4) == 0) {
+                        gr.addEdge(new GraphEdge<>(nodes.get(i), nodes.get(j), false,
+                                scales[s] * (1 + random.nextInt(10))));
+                    }
+                }
+            }
+            Map<String, Long> counters = new HashMap<>();
+            KruskalMSP<Integer> alg = new KruskalMSP<>();
+            alg.setMetricsListener(new MetricsListener() {
+                @Override
+                public void counter(String algorithm, String name, long value) {
+                    counters.put(name, value);
+                }
+            });
+            Set<GraphEdge<Integer>> mst = alg.computeMSP(gr);
+            assertEquals(expectedBuckets[s], counters.get("sortBuckets"));
+            assertEquals(n - 1, mst.size());
+            MinimumSpanningForestVerifier<Integer> verifier = new MinimumSpanningForestVerifier<>();
+            assertTrue(verifier.verify(gr, mst));
+        }
+    }
+
+    @Test
+    final void testReconstructionTree() {
+        int n = 30;
+        Random random = new Random(9);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        gr.addNodes(nodes);
+        // Pesi minimax calcolati direttamente con Floyd-Warshall
+        double[][] minimax = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(minimax[i], Double.POSITIVE_INFINITY);
+            minimax[i][i] = 0;
+        }
+        // Due componenti: i nodi pari e i nodi dispari
+        for (int k = 0; k < 80; k++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u == v || (u - v) % 2 != 0) {
+                continue;
+            }
+            double w = random.nextInt(20);
+            if (gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, w))) {
+                minimax[u][v] = minimax[v][u] = w;
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    minimax[i][j] = Math.min(minimax[i][j], Math.max(minimax[i][k], minimax[k][j]));
+                }
+            }
+        }
+
+        KruskalMSP<Integer> alg = new KruskalMSP<>();
+        alg.computeMSP(gr);
+        assertNull(alg.getReconstructionTree());
+        alg.setBuildReconstructionTree(true);
+        alg.computeMSP(gr);
+        KruskalReconstructionTree<Integer> tree = alg.getReconstructionTree();
+        assertEquals(n, tree.leafCount());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(minimax[i][j], tree.minimaxWeight(nodes.get(i), nodes.get(j)));
+                assertEquals(minimax[i][j] <= 10, tree.connectedWithin(nodes.get(i), nodes.get(j), 10));
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> tree.minimaxWeight(nodes.get(0), new GraphNode<>(n)));
+    }
 }
@@ -0,0 +1,228 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Albero di ricostruzione di Kruskal di un grafo non orientato e pesato. Le
+ * foglie sono i nodi del grafo; ogni volta che l'algoritmo di Kruskal unisce
+ * due componenti con un arco di peso w viene creato un nodo interno di peso w
+ * i cui figli sono i nodi che rappresentavano le due componenti. Poiché gli
+ * archi sono esaminati in ordine di peso, i pesi non diminuiscono salendo
+ * verso la radice e il peso del minimo antenato comune di due foglie è il
+ * peso minimax tra i due nodi, cioè il minimo, su tutti i cammini che li
+ * collegano, del peso massimo di un arco del cammino. Se il grafo non è
+ * connesso l'albero è una foresta, con un albero per componente.
+ *
+ * Il minimo antenato comune viene calcolato in tempo costante con un giro di
+ * Eulero della foresta e una sparse table dei minimi delle profondità, che
+ * richiedono tempo e spazio O(V log V).
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class KruskalReconstructionTree<L> {
+
+    private final List<GraphNode<L>> leaves;
+
+    private final Map<GraphNode<L>, Integer> leafIndex;
+
+    // Peso dei nodi interni: il nodo interno n + k ha peso weight[k]
+    private final double[] weight;
+
+    // Albero di appartenenza di ogni nodo, identificato dalla sua radice
+    private final int[] tree;
+
+    // Posizione della prima occorrenza di ogni nodo nel giro di Eulero
+    private final int[] first;
+
+    // Profondità dei nodi del giro di Eulero, nell'ordine del giro
+    private final int[] depth;
+
+    // sparse[j][i] è la posizione con profondità minima nel tratto del giro
+    // di Eulero lungo 2^j che inizia in i
+    private final int[][] sparse;
+
+    // Nodo corrispondente ad ogni posizione del giro di Eulero
+    private final int[] euler;
+
+    /*
+     * Costruisce l'albero a partire dalle unioni eseguite dall'algoritmo di
+     * Kruskal, nell'ordine in cui sono state eseguite: l'unione k crea il nodo
+     * interno leaves.size() + k, con figli left[k] e right[k] e peso
+     * weight[k]. Il costruttore è visibile solo nel package
+     * perché non controlla la coerenza delle unioni.
+     */
+    KruskalReconstructionTree(List<GraphNode<L>> leaves, int[] left, int[] right,
+            double[] weight, int merges) {
+        int n = leaves.size();
+        int size = n + merges;
+        this.leaves = leaves;
+        this.leafIndex = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            leafIndex.put(leaves.get(i), i);
+        }
+        this.weight = Arrays.copyOf(weight, merges);
+        int[] parent = new int[size];
+        Arrays.fill(parent, -1);
+        for (int k = 0; k < merges; k++) {
+            parent[left[k]] = n + k;
+            parent[right[k]] = n + k;
+        }
+
+        // Giro di Eulero iterativo di ogni albero della foresta: ogni nodo
+        // compare all'ingresso e dopo la visita di ciascun figlio
+        this.tree = new int[size];
+        this.first = new int[size];
+        int roots = 0;
+        for (int v = 0; v < size; v++) {
+            if (parent[v] < 0) {
+                roots++;
+            }
+        }
+        int length = 2 * size - roots;
+        this.euler = new int[length];
+        this.depth = new int[length];
+        int[] stack = new int[size];
+        int[] state = new int[size];
+        int position = 0;
+        for (int r = size - 1; r >= 0; r--) {
+            if (parent[r] >= 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = r;
+            state[r] = 0;
+            while (top > 0) {
+                int v = stack[top - 1];
+                int d = top - 1;
+                if (state[v] == 0) {
+                    tree[v] = r;
+                    first[v] = position;
+                }
+                euler[position] = v;
+                depth[position] = d;
+                position++;
+                if (v >= n && state[v] < 2) {
+                    int child = state[v] == 0 ? left[v - n] : right[v - n];
+                    state[v]++;
+                    state[child] = 0;
+                    stack[top++] = child;
+                } else {
+                    top--;
+                }
+            }
+        }
+
+        int levels = 1;
+        while ((1 << levels) <= length) {
+            levels++;
+        }
+        this.sparse = new int[levels][];
+        sparse[0] = new int[length];
+        for (int i = 0; i < length; i++) {
+            sparse[0][i] = i;
+        }
+        for (int j = 1; j < levels; j++) {
+            int half = 1 << (j - 1);
+            int count = length - (1 << j) + 1;
+            sparse[j] = new int[count];
+            for (int i = 0; i < count; i++) {
+                int a = sparse[j - 1][i];
+                int b = sparse[j - 1][i + half];
+                sparse[j][i] = depth[a] <= depth[b] ? a : b;
+            }
+        }
+    }
+
+    /**
+     * Restituisce il numero di nodi del grafo, cioè di foglie dell'albero.
+     *
+     * @return il numero di foglie
+     */
+    public int leafCount() {
+        return leaves.size();
+    }
+
+    /**
+     * Restituisce il peso minimax tra due nodi: il minimo, su tutti i cammini
+     * che collegano i due nodi, del peso massimo di un arco del cammino.
+     * Coincide con il peso massimo di un arco sul cammino tra i due nodi in un
+     * albero di copertura minimo.
+     *
+     * @param u
+     *              il primo nodo
+     * @param v
+     *              il secondo nodo
+     * @return il peso minimax tra u e v, 0 se i nodi coincidono e
+     *         {@code Double.POSITIVE_INFINITY} se non sono connessi
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non appartiene al
+     *                                      grafo
+     */
+    public double minimaxWeight(GraphNode<L> u, GraphNode<L> v) {
+        return minimaxWeight(indexOf(u), indexOf(v));
+    }
+
+    /**
+     * Determina se due nodi sono connessi usando solo archi di peso al più w.
+     *
+     * @param u
+     *              il primo nodo
+     * @param v
+     *              il secondo nodo
+     * @param w
+     *              il peso massimo degli archi utilizzabili
+     * @return true se esiste un cammino tra u e v con archi di peso al più w,
+     *         false altrimenti
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non appartiene al
+     *                                      grafo
+     */
+    public boolean connectedWithin(GraphNode<L> u, GraphNode<L> v, double w) {
+        return minimaxWeight(u, v) <= w;
+    }
+
+    /*
+     * Peso minimax tra due foglie identificate dal loro indice.
+     */
+    private double minimaxWeight(int u, int v) {
+        if (u == v) {
+            return 0;
+        }
+        if (tree[u] != tree[v]) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return weight[lowestCommonAncestor(u, v) - leaves.size()];
+    }
+
+    /*
+     * Minimo antenato comune di due nodi dello stesso albero, cioè il nodo di
+     * profondità minima nel giro di Eulero tra le loro prime occorrenze.
+     */
+    private int lowestCommonAncestor(int u, int v) {
+        int l = Math.min(first[u], first[v]);
+        int r = Math.max(first[u], first[v]);
+        int j = 31 - Integer.numberOfLeadingZeros(r - l + 1);
+        int a = sparse[j][l];
+        int b = sparse[j][r - (1 << j) + 1];
+        return euler[depth[a] <= depth[b] ? a : b];
+    }
+
+    private int indexOf(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        Integer index = leafIndex.get(node);
+        if (index == null) {
+            throw new IllegalArgumentException("Node not in the graph: " + node);
+        }
+        return index;
+    }
+}
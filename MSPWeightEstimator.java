@@ -0,0 +1,336 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Stima del peso di una foresta di copertura minima di un grafo non orientato
+ * senza calcolarla, con l'algoritmo di Chazelle, Rubinfeld e Trevisan, in un
+ * tempo che non dipende dal numero di archi.
+ *
+ * I pesi vengono divisi in W classi intere: il peso w appartiene alla classe
+ * {@code ceil(w / bucketWidth)}, da 0 a W = {@code ceil(maxWeight /
+ * bucketWidth)}. Se c_i è il numero di componenti connesse del sottografo con
+ * i soli archi di classe al più i, il peso della foresta minima, misurato in
+ * classi, è S = somma per i da 0 a W - 1 di c_i - c_W. Ogni c_i è la somma su
+ * tutti i nodi dell'inverso della dimensione della loro componente, per cui
+ * ogni termine si stima campionando nodi ed esplorandone in ampiezza la
+ * componente.
+ *
+ * Ogni esplorazione raddoppia il numero di nodi visitabili finché una moneta
+ * dà testa e, se la componente di s nodi viene completata dopo L raddoppi, il
+ * campione vale 2^L / s, altrimenti 0: è una stima corretta di 1 / s che
+ * visita in media O(log(W / epsilon)) nodi. La componente con tutti gli archi
+ * prosegue l'esplorazione di quella con gli archi fino alla classe i, con la
+ * stessa moneta, per cui i due campioni coincidono quando le componenti sono
+ * uguali.
+ *
+ * Con probabilità almeno 1 - delta l'errore della stima è al più
+ * {@code epsilon * (M + n * bucketWidth)}, dove n è il numero di nodi e M il
+ * peso della foresta minima con ogni arco arrotondato per eccesso alla sua
+ * classe: con pesi interi e {@code bucketWidth = 1} M è il peso esatto. Se
+ * i pesi sono almeno bucketWidth e il grafo è connesso si tratta di un errore
+ * relativo di circa 2 epsilon. I campioni sono O(W / (delta epsilon^2)),
+ * oppure O(W log(1/delta) / epsilon^2) quando delta è molto piccolo e viene
+ * restituita la mediana di più stime indipendenti; ogni nodo visitato costa
+ * una chiamata a {@code forEachEdgeOf}.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class MSPWeightEstimator<L> {
+
+    private final double maxWeight;
+
+    private final double bucketWidth;
+
+    // Numero di classi di peso
+    private final int buckets;
+
+    // Campioni per classe in ogni stima e numero di stime indipendenti
+    private final int samplesPerBucket;
+
+    private final int groups;
+
+    // Massimo numero di raddoppi di un'esplorazione
+    private final int maxLevel;
+
+    private final Random random;
+
+    /*
+     * Strutture riusate da tutti i campioni di una stima: indici dei nodi,
+     * marcature delle visite, coda della visita in ampiezza e nodi raggiunti
+     * con archi di classe maggiore di quella del campione.
+     */
+    private Map<GraphNode<L>, Integer> indexOf;
+
+    private int[] visited;
+
+    private int stamp;
+
+    private int[] queue;
+
+    private int[] deferred;
+
+    /**
+     * Crea uno stimatore con i parametri di precisione e di discretizzazione
+     * dei pesi indicati.
+     *
+     * @param epsilon
+     *                        l'errore massimo, in unità di M + n * bucketWidth
+     * @param delta
+     *                        la probabilità massima di superare l'errore
+     * @param maxWeight
+     *                        il peso massimo di un arco dei grafi da stimare
+     * @param bucketWidth
+     *                        l'ampiezza delle classi di peso, 1 per pesi
+     *                        interi
+     * @throws IllegalArgumentException
+     *                                      se epsilon o delta non sono in
+     *                                      (0, 1), se maxWeight è negativo o
+     *                                      se bucketWidth non è positivo
+     */
+    public MSPWeightEstimator(double epsilon, double delta, double maxWeight,
+            double bucketWidth) {
+        this(epsilon, delta, maxWeight, bucketWidth, new Random());
+    }
+
+    /**
+     * Crea uno stimatore con i parametri indicati e un seme fissato per il
+     * campionamento, in modo che le stime siano ripetibili.
+     *
+     * @param epsilon
+     *                        l'errore massimo, in unità di M + n * bucketWidth
+     * @param delta
+     *                        la probabilità massima di superare l'errore
+     * @param maxWeight
+     *                        il peso massimo di un arco dei grafi da stimare
+     * @param bucketWidth
+     *                        l'ampiezza delle classi di peso, 1 per pesi
+     *                        interi
+     * @param seed
+     *                        il seme del campionamento
+     * @throws IllegalArgumentException
+     *                                      se epsilon o delta non sono in
+     *                                      (0, 1), se maxWeight è negativo o
+     *                                      se bucketWidth non è positivo
+     */
+    public MSPWeightEstimator(double epsilon, double delta, double maxWeight,
+            double bucketWidth, long seed) {
+        this(epsilon, delta, maxWeight, bucketWidth, new Random(seed));
+    }
+
+    private MSPWeightEstimator(double epsilon, double delta, double maxWeight,
+            double bucketWidth, Random random) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1)) {
+            throw new IllegalArgumentException("epsilon e delta devono essere in (0, 1).");
+        }
+        if (!(maxWeight >= 0) || !(bucketWidth > 0)) {
+            throw new IllegalArgumentException("Parametri dei pesi non validi.");
+        }
+        this.maxWeight = maxWeight;
+        this.bucketWidth = bucketWidth;
+        this.buckets = Math.max(1, (int) Math.ceil(maxWeight / bucketWidth));
+        // Le componenti con più di 2^maxLevel >= 2 W / epsilon nodi valgono 0:
+        // ogni differenza si sposta al più di epsilon / (2 W), la stima al più
+        // di epsilon * n / 2 classi
+        double limit = 2 * buckets / epsilon;
+        this.maxLevel = (int) Math.min(30, Math.ceil(Math.log(limit) / Math.log(2)));
+        // Ogni campione ha varianza al più 8 / s_i se le componenti della
+        // classe i e di tutti gli archi differiscono, 0 altrimenti, per cui la
+        // varianza di una stima con r campioni per classe è al più 16 n S / r
+        // e, per la disuguaglianza di Chebyshev, la probabilità di sbagliare
+        // di più di epsilon * (S + n) / 2 è al più 16 / (r epsilon^2). Basta
+        // quindi una stima con r = 16 / (delta epsilon^2), oppure la mediana
+        // di 8 ln(1 / delta) stime con r = 64 / epsilon^2, che sbagliano
+        // ciascuna con probabilità 1/4: si sceglie la soluzione con meno
+        // campioni
+        double median = Math.ceil(8 * Math.log(1 / delta));
+        if (16 / delta <= 64 * median) {
+            this.groups = 1;
+            this.samplesPerBucket = (int) Math.min(Integer.MAX_VALUE,
+                    Math.ceil(16 / (delta * epsilon * epsilon)));
+        } else {
+            this.groups = (int) median;
+            this.samplesPerBucket = (int) Math.min(Integer.MAX_VALUE,
+                    Math.ceil(64 / (epsilon * epsilon)));
+        }
+        this.random = random;
+    }
+
+    /**
+     * Restituisce il numero di coppie (nodo, classe) campionate da ogni
+     * stima.
+     *
+     * @return il numero di campioni
+     */
+    public long getSampleCount() {
+        return (long) groups * buckets * samplesPerBucket;
+    }
+
+    /**
+     * Restituisce il numero massimo di nodi visitati da ogni esplorazione.
+     *
+     * @return il limite delle esplorazioni
+     */
+    public int getExplorationLimit() {
+        return 1 << maxLevel;
+    }
+
+    /**
+     * Stima il peso di una foresta di copertura minima di un grafo non
+     * orientato. Il grafo deve supportare {@code getNodeAtIndex}, usato per
+     * scegliere i nodi a caso.
+     *
+     * @param g
+     *              un grafo non orientato con pesi in [0, maxWeight]
+     * @return la stima del peso della foresta di copertura minima
+     * @throws NullPointerException
+     *                                      se il grafo è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato o se
+     *                                      un'esplorazione incontra un peso
+     *                                      fuori da [0, maxWeight]
+     */
+    public double estimateWeight(Graph<L> g) {
+        if (g == null) {
+            throw new NullPointerException("Graph cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        int n = g.nodeCount();
+        if (n == 0) {
+            return 0;
+        }
+        indexOf = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            indexOf.put(g.getNodeAtIndex(i), i);
+        }
+        visited = new int[n];
+        stamp = 0;
+        queue = new int[n];
+        deferred = new int[16];
+        double[] estimates = new double[groups];
+        for (int k = 0; k < groups; k++) {
+            double sum = 0;
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                for (int s = 0; s < samplesPerBucket; s++) {
+                    sum += sample(g, random.nextInt(n), bucket);
+                }
+            }
+            estimates[k] = n * sum / samplesPerBucket;
+        }
+        indexOf = null;
+        visited = null;
+        queue = null;
+        deferred = null;
+        Arrays.sort(estimates);
+        return estimates[groups / 2] * bucketWidth;
+    }
+
+    /*
+     * Un campione di 1 / s_i - 1 / s_W per il nodo start, dove s_i è la
+     * dimensione della sua componente con gli archi di classe al più bucket
+     * e s_W quella con tutti gli archi.
+     */
+    private double sample(Graph<L> g, int start, int bucket) {
+        // Numero di teste prima della prima croce: i raddoppi concessi
+        int level = Math.min(maxLevel, Integer.numberOfTrailingZeros(random.nextInt()));
+        int budget = 1 << level;
+        if (++stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        visited[start] = stamp;
+        queue[0] = start;
+        int[] tail = { 1 };
+        int[] pending = { 0 };
+        if (!explore(g, 0, tail, pending, bucket, budget)) {
+            return 0;
+        }
+        int size = tail[0];
+        double light = weight(size);
+        // I nodi raggiunti da archi più pesanti sono la frontiera da cui
+        // prosegue l'esplorazione con tutti gli archi
+        int head = size;
+        for (int k = 0; k < pending[0]; k++) {
+            int y = deferred[k];
+            if (visited[y] != stamp) {
+                if (tail[0] == budget) {
+                    return light;
+                }
+                visited[y] = stamp;
+                queue[tail[0]++] = y;
+            }
+        }
+        if (!explore(g, head, tail, null, buckets, budget)) {
+            return light;
+        }
+        return light - weight(tail[0]);
+    }
+
+    /*
+     * Prosegue la visita in ampiezza dalla posizione head della coda con gli
+     * archi di classe al più bucket, aggiungendo a deferred, se pending non è
+     * null, gli estremi raggiunti da archi più pesanti. Restituisce false se
+     * la componente ha più di budget nodi.
+     */
+    private boolean explore(Graph<L> g, int head, int[] tail, int[] pending,
+            int bucket, int budget) {
+        boolean[] overflow = { false };
+        while (head < tail[0]) {
+            int x = queue[head++];
+            GraphNode<L> node = g.getNodeAtIndex(x);
+            g.forEachEdgeOf(node, edge -> {
+                if (overflow[0]) {
+                    return;
+                }
+                GraphNode<L> other = edge.getNode1().equals(node) ? edge.getNode2()
+                        : edge.getNode1();
+                int y = indexOf.get(other);
+                if (visited[y] == stamp) {
+                    return;
+                }
+                if (bucketOf(edge) > bucket) {
+                    if (pending != null) {
+                        if (pending[0] == deferred.length) {
+                            deferred = Arrays.copyOf(deferred, 2 * pending[0]);
+                        }
+                        deferred[pending[0]++] = y;
+                    }
+                    return;
+                }
+                if (tail[0] == budget) {
+                    overflow[0] = true;
+                    return;
+                }
+                visited[y] = stamp;
+                queue[tail[0]++] = y;
+            });
+            if (overflow[0]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Valore di un campione la cui componente di size nodi è stata
+     * completata: 2^L / size, con L il numero di raddoppi necessari.
+     */
+    private static double weight(int size) {
+        int level = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return (double) (1L << level) / size;
+    }
+
+    private int bucketOf(GraphEdge<L> edge) {
+        double w = edge.getWeight();
+        if (!(w >= 0 && w <= maxWeight)) {
+            throw new IllegalArgumentException("Weight out of range: " + edge);
+        }
+        return (int) Math.ceil(w / bucketWidth);
+    }
+}
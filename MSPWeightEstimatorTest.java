@@ -0,0 +1,113 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe MSPWeightEstimator.
+ */
+class MSPWeightEstimatorTest {
+
+    @Test
+    final void testParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new MSPWeightEstimator<String>(0, 0.1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MSPWeightEstimator<String>(0.1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MSPWeightEstimator<String>(0.1, 0.1, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MSPWeightEstimator<String>(0.1, 0.1, 1, 0));
+        MSPWeightEstimator<String> estimator = new MSPWeightEstimator<String>(0.1, 0.05, 4, 1);
+        assertEquals(128, estimator.getExplorationLimit());
+        assertTrue(estimator.getSampleCount() > 0);
+        assertEquals(0.0, estimator.estimateWeight(new AdjacencyMatrixUndirectedGraph<String>()));
+        assertThrows(NullPointerException.class, () -> estimator.estimateWeight(null));
+    }
+
+    @Test
+    final void testWeightOutOfRange() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 7));
+        MSPWeightEstimator<String> estimator = new MSPWeightEstimator<String>(0.5, 0.5, 5, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimateWeight(gr));
+    }
+
+    @Test
+    final void testEstimateWithinError() {
+        Random random = new Random(49);
+        KruskalMSP<Integer> kruskal = new KruskalMSP<>();
+        for (int trial = 0; trial < 3; trial++) {
+            int n = 150;
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+            List<GraphNode<Integer>> nodes = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                nodes.add(new GraphNode<>(i));
+            }
+            gr.addNodes(nodes);
+            // Un cammino con pesi casuali garantisce la connessione, gli altri
+            // archi sono casuali
+            for (int i = 1; i < n; i++) {
+                gr.addEdge(new GraphEdge<>(nodes.get(i - 1), nodes.get(i), false, 1 + random.nextInt(3)));
+            }
+            for (int k = 0; k < 2 * n; k++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if (u != v) {
+                    gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, 1 + random.nextInt(3)));
+                }
+            }
+            double exact = 0;
+            for (GraphEdge<Integer> edge : kruskal.computeMSP(gr)) {
+                exact += edge.getWeight();
+            }
+            double epsilon = 0.2;
+            MSPWeightEstimator<Integer> estimator = new MSPWeightEstimator<>(epsilon, 0.01, 3, 1, trial);
+            assertEquals(exact, estimator.estimateWeight(gr), epsilon * (exact + n));
+        }
+    }
+
+    @Test
+    final void testEqualComponentsAreExact() {
+        // Nodi isolati e archi di peso 0: le componenti di ogni classe sono
+        // quelle con tutti gli archi e ogni campione vale 0
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+        for (int i = 0; i < 40; i += 2) {
+            GraphNode<Integer> a = new GraphNode<>(i);
+            GraphNode<Integer> b = new GraphNode<>(i + 1);
+            gr.addNode(a);
+            gr.addNode(b);
+            if (i % 4 == 0) {
+                gr.addEdge(new GraphEdge<>(a, b, false, 0));
+            }
+        }
+        MSPWeightEstimator<Integer> estimator = new MSPWeightEstimator<>(0.3, 0.1, 2, 1, 5);
+        assertEquals(0.0, estimator.estimateWeight(gr));
+    }
+
+    @Test
+    final void testForest() {
+        // Foresta di componenti di dimensioni diverse con pesi interi
+        Random random = new Random(7);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        gr.addNodes(nodes);
+        double exact = 0;
+        for (int i = 1; i < nodes.size(); i++) {
+            if (i % 15 != 0) {
+                int w = 1 + random.nextInt(4);
+                gr.addEdge(new GraphEdge<>(nodes.get(random.nextInt(i)), nodes.get(i), false, w));
+                exact += w;
+            }
+        }
+        MSPWeightEstimator<Integer> estimator = new MSPWeightEstimator<>(0.2, 0.01, 4, 1, 11);
+        assertEquals(exact, estimator.estimateWeight(gr), 0.2 * (exact + 120));
+    }
+}
@@ -0,0 +1,49 @@
+package it.unicam.cs.asdl2425.mp2;
+
+/**
+ * Un oggetto che implementa questa interfaccia riceve le misure raccolte
+ * durante l'esecuzione di un algoritmo, ad esempio da {@code KruskalMSP<L>} o
+ * da {@code UndirectedGraphConnectedComponentsComputer<L>}: la durata di ogni
+ * fase dell'algoritmo e il valore finale di alcuni contatori (archi
+ * esaminati, unioni eseguite, lunghezza dei cammini percorsi da findSet, ...).
+ *
+ * Tutti i metodi hanno un'implementazione vuota, per cui è sufficiente
+ * ridefinire quelli di interesse. Gli algoritmi che ricevono
+ * {@code MetricsListener.NONE} non misurano nulla.
+ */
+public interface MetricsListener {
+
+    /**
+     * Listener che ignora tutte le misure. Gli algoritmi lo usano come valore
+     * di default e, quando lo ricevono, evitano del tutto le misurazioni.
+     */
+    MetricsListener NONE = new MetricsListener() {
+    };
+
+    /**
+     * Notifica il completamento di una fase di un algoritmo.
+     *
+     * @param algorithm
+     *                      il nome dell'algoritmo
+     * @param phase
+     *                      il nome della fase
+     * @param nanos
+     *                      la durata della fase in nanosecondi
+     */
+    default void phaseCompleted(String algorithm, String phase, long nanos) {
+    }
+
+    /**
+     * Notifica il valore di un contatore al termine di un'esecuzione di un
+     * algoritmo.
+     *
+     * @param algorithm
+     *                      il nome dell'algoritmo
+     * @param name
+     *                      il nome del contatore
+     * @param value
+     *                      il valore del contatore
+     */
+    default void counter(String algorithm, String name, long value) {
+    }
+}
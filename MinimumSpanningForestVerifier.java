@@ -0,0 +1,201 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Classe singoletto che verifica se un insieme di archi, calcolato altrove, è
+ * una foresta di copertura minima di un grafo non orientato e pesato, senza
+ * ricalcolarla. Una foresta di copertura è minima se e solo se nessun arco
+ * che non ne fa parte è più leggero di un arco del cammino nella foresta tra
+ * i suoi estremi; un arco tra alberi diversi della foresta indica invece che
+ * la foresta non copre il grafo.
+ *
+ * Il massimo sul cammino di ogni arco è calcolato offline da
+ * {@code ForestPathMaxima}, per cui la verifica richiede tempo quasi lineare
+ * nel numero di archi e nessun ordinamento.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class MinimumSpanningForestVerifier<L> {
+
+    /*
+     * Arco che viola la condizione di minimalità nell'ultima verifica e
+     * cammino nella foresta tra i suoi estremi.
+     */
+    private GraphEdge<L> violatingEdge;
+
+    private List<GraphEdge<L>> violatedPath;
+
+    /**
+     * Verifica che un insieme di archi sia una foresta di copertura minima di
+     * un grafo non orientato e pesato. Se non lo è, il primo arco che lo
+     * dimostra, nell'ordine di {@code forEachEdge}, e il cammino nella foresta
+     * tra i suoi estremi sono disponibili con {@code getViolatingEdge()} e
+     * {@code getViolatedPath()}. I pesi considerati sono quelli degli archi
+     * del grafo.
+     *
+     * @param g
+     *                   un grafo non orientato e pesato
+     * @param forest
+     *                   gli archi da verificare
+     * @return true se gli archi formano una foresta di copertura minima del
+     *         grafo, false altrimenti
+     * @throws NullPointerException
+     *                                      se il grafo o gli archi sono null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato, se qualche
+     *                                      arco non è un arco del grafo o se
+     *                                      gli archi formano un ciclo
+     */
+    public boolean verify(Graph<L> g, Set<GraphEdge<L>> forest) {
+        if (g == null || forest == null) {
+            throw new NullPointerException("Graph and forest cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        violatingEdge = null;
+        violatedPath = null;
+        Set<GraphNode<L>> nodes = g.getNodes();
+        int n = nodes.size();
+        Map<GraphNode<L>, Integer> indexOf = new HashMap<>(n * 4 / 3 + 1);
+        for (GraphNode<L> node : nodes) {
+            indexOf.put(node, indexOf.size());
+        }
+
+        // Archi del grafo senza cappi, che non possono violare nulla, in
+        // array paralleli; gli archi della foresta sono riconosciuti qui
+        List<GraphEdge<L>> edges = new ArrayList<>(g.edgeCount());
+        g.forEachEdge(edge -> {
+            if (!edge.getNode1().equals(edge.getNode2()) || forest.contains(edge)) {
+                edges.add(edge);
+            }
+        });
+        int m = edges.size();
+        int[] u = new int[m];
+        int[] v = new int[m];
+        double[] w = new double[m];
+        int[] id = new int[m];
+        boolean[] inForest = new boolean[m];
+        int[] positions = new int[forest.size()];
+        int found = 0;
+        ForestDisjointSets<Integer> sets = new ForestDisjointSets<>();
+        for (int x = 0; x < n; x++) {
+            sets.makeSetHandle(x);
+        }
+        for (int i = 0; i < m; i++) {
+            GraphEdge<L> edge = edges.get(i);
+            u[i] = indexOf.get(edge.getNode1());
+            v[i] = indexOf.get(edge.getNode2());
+            w[i] = edge.getWeight();
+            id[i] = i;
+            if (forest.contains(edge)) {
+                if (!sets.unionHandles(u[i], v[i])) {
+                    throw new IllegalArgumentException("The edges contain a cycle.");
+                }
+                inForest[i] = true;
+                positions[found++] = i;
+            }
+        }
+        if (found != forest.size()) {
+            throw new IllegalArgumentException("Some edges are not in the graph.");
+        }
+
+        int[] pathMax = ForestPathMaxima.compute(n, u, v, w, id, m, positions);
+        for (int i = 0; i < m; i++) {
+            if (inForest[i]) {
+                continue;
+            }
+            if (pathMax[i] < 0 || Double.compare(w[i], w[pathMax[i]]) < 0) {
+                violatingEdge = edges.get(i);
+                violatedPath = path(n, u, v, positions, u[i], v[i], edges);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Restituisce l'arco che ha fatto fallire l'ultima verifica: un arco che
+     * non fa parte della foresta ed è più leggero di un arco del cammino nella
+     * foresta tra i suoi estremi, oppure che collega due alberi diversi della
+     * foresta.
+     *
+     * @return l'arco che viola la condizione, null se l'ultima verifica ha
+     *         avuto successo o se non ci sono state verifiche
+     */
+    public GraphEdge<L> getViolatingEdge() {
+        return violatingEdge;
+    }
+
+    /**
+     * Restituisce il cammino nella foresta tra gli estremi dell'arco restituito
+     * da {@code getViolatingEdge()}, a partire dal primo estremo: l'arco è più
+     * leggero di almeno un arco del cammino. Il cammino è vuoto se gli estremi
+     * sono in alberi diversi.
+     *
+     * @return gli archi del cammino, null se l'ultima verifica ha avuto
+     *         successo o se non ci sono state verifiche
+     */
+    public List<GraphEdge<L>> getViolatedPath() {
+        return violatedPath;
+    }
+
+    /*
+     * Cammino nella foresta da from a to, trovato con una visita in ampiezza
+     * da from: viene calcolato solo per l'arco che viola la condizione.
+     */
+    private static <L> List<GraphEdge<L>> path(int n, int[] u, int[] v, int[] forest,
+            int from, int to, List<GraphEdge<L>> edges) {
+        int[] start = new int[n + 1];
+        for (int e : forest) {
+            start[u[e] + 1]++;
+            start[v[e] + 1]++;
+        }
+        for (int x = 0; x < n; x++) {
+            start[x + 1] += start[x];
+        }
+        int[] adjacent = new int[2 * forest.length];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int e : forest) {
+            adjacent[fill[u[e]]++] = e;
+            adjacent[fill[v[e]]++] = e;
+        }
+        int[] reachedBy = new int[n];
+        Arrays.fill(reachedBy, -1);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        reachedBy[from] = -2;
+        while (head < tail && reachedBy[to] == -1) {
+            int x = queue[head++];
+            for (int a = start[x]; a < start[x + 1]; a++) {
+                int e = adjacent[a];
+                int y = u[e] == x ? v[e] : u[e];
+                if (reachedBy[y] == -1) {
+                    reachedBy[y] = e;
+                    queue[tail++] = y;
+                }
+            }
+        }
+        if (reachedBy[to] == -1) {
+            return Collections.emptyList();
+        }
+        List<GraphEdge<L>> path = new ArrayList<>();
+        for (int x = to; x != from;) {
+            int e = reachedBy[x];
+            path.add(edges.get(e));
+            x = u[e] == x ? v[e] : u[e];
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
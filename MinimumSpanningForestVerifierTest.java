@@ -0,0 +1,139 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe MinimumSpanningForestVerifier.
+ */
+class MinimumSpanningForestVerifierTest {
+
+    @Test
+    final void testVerify() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphEdge<String> ab = new GraphEdge<String>(a, b, false, 4);
+        GraphEdge<String> bc = new GraphEdge<String>(b, c, false, 1);
+        GraphEdge<String> ac = new GraphEdge<String>(a, c, false, 2);
+        GraphEdge<String> cd = new GraphEdge<String>(c, d, false, 7);
+        GraphEdge<String> bd = new GraphEdge<String>(b, d, false, 9);
+        gr.addEdge(ab);
+        gr.addEdge(bc);
+        gr.addEdge(ac);
+        gr.addEdge(cd);
+        gr.addEdge(bd);
+        MinimumSpanningForestVerifier<String> verifier = new MinimumSpanningForestVerifier<String>();
+        assertTrue(verifier.verify(gr, new HashSet<>(Arrays.asList(bc, ac, cd))));
+        assertNull(verifier.getViolatingEdge());
+        assertNull(verifier.getViolatedPath());
+
+        // ac è più leggero di ab sul cammino a-b-c
+        assertFalse(verifier.verify(gr, new HashSet<>(Arrays.asList(ab, bc, cd))));
+        assertEquals(ac, verifier.getViolatingEdge());
+        assertEquals(Arrays.asList(ab, bc), verifier.getViolatedPath());
+
+        // La foresta non copre d
+        assertFalse(verifier.verify(gr, new HashSet<>(Arrays.asList(bc, ac))));
+        assertTrue(verifier.getViolatingEdge().equals(cd) || verifier.getViolatingEdge().equals(bd));
+        assertTrue(verifier.getViolatedPath().isEmpty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> verifier.verify(gr, new HashSet<>(Arrays.asList(ab, bc, ac))));
+        assertThrows(IllegalArgumentException.class, () -> verifier.verify(gr,
+                new HashSet<>(Arrays.asList(new GraphEdge<String>(a, d, false, 1)))));
+        assertThrows(NullPointerException.class, () -> verifier.verify(gr, null));
+    }
+
+    @Test
+    final void testAgainstKruskal() {
+        Random random = new Random(48);
+        KruskalMSP<Integer> kruskal = new KruskalMSP<>();
+        MinimumSpanningForestVerifier<Integer> verifier = new MinimumSpanningForestVerifier<>();
+        for (int trial = 0; trial < 30; trial++) {
+            int n = 2 + random.nextInt(80);
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+            List<GraphNode<Integer>> nodes = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                nodes.add(new GraphNode<>(i));
+            }
+            gr.addNodes(nodes);
+            int m = random.nextInt(4 * n);
+            for (int k = 0; k < m; k++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if (u != v) {
+                    gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, random.nextInt(10)));
+                }
+            }
+            Set<GraphEdge<Integer>> mst = kruskal.computeMSP(gr);
+            assertTrue(verifier.verify(gr, mst));
+
+            // Sostituisce un arco dell'albero con un arco esterno che ne
+            // ricollega le due parti: la verifica fallisce esattamente quando
+            // il peso complessivo aumenta
+            List<GraphEdge<Integer>> treeEdges = new ArrayList<>(mst);
+            if (treeEdges.isEmpty()) {
+                continue;
+            }
+            GraphEdge<Integer> removed = treeEdges.get(random.nextInt(treeEdges.size()));
+            Set<GraphEdge<Integer>> other = new HashSet<>(mst);
+            other.remove(removed);
+            GraphEdge<Integer> added = null;
+            for (GraphEdge<Integer> edge : gr.getEdges()) {
+                if (!mst.contains(edge) && reconnects(other, nodes, edge)) {
+                    added = edge;
+                    break;
+                }
+            }
+            if (added == null) {
+                assertFalse(verifier.verify(gr, other));
+                assertTrue(verifier.getViolatedPath().isEmpty());
+                continue;
+            }
+            other.add(added);
+            boolean minimum = added.getWeight() == removed.getWeight();
+            assertEquals(minimum, verifier.verify(gr, other));
+            if (!minimum) {
+                // L'arco che viola è più leggero del massimo sul suo cammino
+                double max = Double.NEGATIVE_INFINITY;
+                for (GraphEdge<Integer> edge : verifier.getViolatedPath()) {
+                    assertTrue(other.contains(edge));
+                    max = Math.max(max, edge.getWeight());
+                }
+                assertTrue(verifier.getViolatingEdge().getWeight() < max);
+            }
+        }
+    }
+
+    /*
+     * Determina se l'arco collega le due componenti della foresta a cui è
+     * stato tolto un arco.
+     */
+    private static boolean reconnects(Set<GraphEdge<Integer>> forest, List<GraphNode<Integer>> nodes,
+            GraphEdge<Integer> edge) {
+        ForestDisjointSets<GraphNode<Integer>> sets = new ForestDisjointSets<>();
+        for (GraphNode<Integer> node : nodes) {
+            sets.makeSet(node);
+        }
+        for (GraphEdge<Integer> e : forest) {
+            sets.union(e.getNode1(), e.getNode2());
+        }
+        int before = sets.getCurrentRepresentatives().size();
+        sets.union(edge.getNode1(), edge.getNode2());
+        return sets.getCurrentRepresentatives().size() < before;
+    }
+}
@@ -0,0 +1,674 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<Long></code> per
+ * elementi identificati da interi lunghi nell'intervallo
+ * <code>[0, capacity() - 1]</code>, pensata per collezioni troppo grandi per
+ * lo heap. Per ogni elemento viene memorizzata una sola parola di 64 bit,
+ * fuori dallo heap: in buffer diretti oppure in un file mappato in memoria,
+ * per cui la capacità è limitata dalla memoria fisica o dal disco e gli
+ * elementi non creano oggetti da gestire per il garbage collector.
+ *
+ * La parola di un elemento vale zero se l'elemento non è presente, altrimenti
+ * contiene il rango negli 8 bit alti e il parent più uno nei 56 bit bassi.
+ * L'unione è per rango e la ricerca del rappresentante è iterativa e usa il
+ * dimezzamento dei cammini: ogni nodo visitato viene fatto puntare al nonno,
+ * che dà le stesse garanzie asintotiche della compressione dei cammini senza
+ * bisogno di ricorsione né di una seconda passata.
+ *
+ * Le operazioni con argomenti di tipo primitivo ({@code makeSetId},
+ * {@code findId}, {@code unionIds}, {@code connectedIds}) evitano il boxing
+ * degli identificatori e sono da preferire sulle strutture grandi.
+ *
+ * Lo stato può essere salvato con {@code checkpoint(Path, Executor)} in un
+ * file binario formato da un'intestazione di 32 byte (identificatore del
+ * formato, capacità, numero di elementi e numero di insiemi) seguita dalle
+ * parole di tutti gli identificatori in ordine, in little endian. Poiché gli
+ * identificatori sono già interi consecutivi, il dizionario degli
+ * identificatori è implicito. La struttura registra quali pagine di parole
+ * sono state modificate dall'ultimo salvataggio, per cui salvataggi
+ * successivi sullo stesso file riscrivono solo quelle. Con {@code restore(Path)} il file viene
+ * mappato in memoria senza leggerlo, per cui il ripristino richiede tempo
+ * indipendente dalla dimensione della struttura.
+ */
+public class OffHeapDisjointSets implements DisjointSets<Long> {
+
+    /**
+     * Massima capacità consentita dalla rappresentazione delle parole.
+     */
+    public static final long MAX_CAPACITY = (1L << 56) - 1;
+
+    /*
+     * Ogni buffer contiene 2^27 parole, cioè 1 GiB.
+     */
+    private static final int CHUNK_SHIFT = 27;
+
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private static final long PARENT_MASK = (1L << 56) - 1;
+
+    /*
+     * Le modifiche sono registrate per pagine di 2^16 parole, cioè 512 KiB;
+     * le pagine dividono esattamente i buffer.
+     */
+    private static final int PAGE_SHIFT = 16;
+
+    /*
+     * Intestazione dei file di salvataggio. Durante la scrittura il primo
+     * campo vale zero, per cui un salvataggio interrotto non viene accettato
+     * da restore.
+     */
+    private static final long CHECKPOINT_MAGIC = 0x5546434B50543031L;
+
+    private static final int HEADER_BYTES = 32;
+
+    private final long capacity;
+
+    private final LongBuffer[] chunks;
+
+    // I buffer mappati, null se la struttura non è associata a un file
+    private final MappedByteBuffer[] mapped;
+
+    private long size;
+
+    private long setCount;
+
+    // Un bit per ogni pagina modificata dall'ultimo salvataggio
+    private final long[] dirtyPages;
+
+    // Il file dell'ultimo salvataggio, null se non ce ne sono stati o se
+    // l'ultimo è fallito
+    private volatile Path lastCheckpoint;
+
+    // L'ultimo salvataggio avviato: i salvataggi vengono scritti in ordine
+    private CompletableFuture<Void> pendingCheckpoint = CompletableFuture.completedFuture(null);
+
+    /**
+     * Crea una struttura vuota in memoria diretta, fuori dallo heap.
+     *
+     * @param capacity
+     *                     il numero di identificatori utilizzabili
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa o
+     *                                      maggiore di {@code MAX_CAPACITY}
+     */
+    public OffHeapDisjointSets(long capacity) {
+        checkCapacity(capacity);
+        this.capacity = capacity;
+        this.chunks = new LongBuffer[chunkCount(capacity)];
+        this.mapped = null;
+        this.dirtyPages = new long[dirtyWords(capacity)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(8 * chunkLength(i))
+                    .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+    }
+
+    /**
+     * Crea una struttura vuota memorizzata in un file mappato in memoria. Il
+     * file viene creato se non esiste e il suo contenuto viene azzerato.
+     *
+     * @param capacity
+     *                     il numero di identificatori utilizzabili
+     * @param file
+     *                     il file in cui memorizzare la struttura
+     * @throws NullPointerException
+     *                                      se il file è null
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa o
+     *                                      maggiore di {@code MAX_CAPACITY}
+     * @throws IOException
+     *                                      se non è possibile creare o mappare
+     *                                      il file
+     */
+    public OffHeapDisjointSets(long capacity, Path file) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("File nullo non ammesso.");
+        }
+        checkCapacity(capacity);
+        this.capacity = capacity;
+        this.chunks = new LongBuffer[chunkCount(capacity)];
+        this.mapped = new MappedByteBuffer[chunks.length];
+        this.dirtyPages = new long[dirtyWords(capacity)];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+            for (int i = 0; i < chunks.length; i++) {
+                // Il file viene esteso dalla mappatura, con contenuto nullo
+                mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        ((long) i << CHUNK_SHIFT) * 8, 8L * chunkLength(i));
+                chunks[i] = mapped[i].order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            }
+        }
+    }
+
+    /*
+     * Costruisce una struttura sui buffer di un salvataggio mappato.
+     */
+    private OffHeapDisjointSets(long capacity, LongBuffer[] chunks, long size,
+            long setCount, Path checkpoint) {
+        this.capacity = capacity;
+        this.chunks = chunks;
+        this.mapped = null;
+        this.size = size;
+        this.setCount = setCount;
+        this.dirtyPages = new long[dirtyWords(capacity)];
+        this.lastCheckpoint = checkpoint;
+    }
+
+    /**
+     * Ripristina una struttura salvata con {@code checkpoint}. Il file viene
+     * mappato in memoria in modalità privata: le parole vengono lette dal disco
+     * solo quando servono e le modifiche successive non alterano il file, che
+     * può essere aggiornato con un nuovo salvataggio incrementale.
+     *
+     * @param file
+     *                 il file del salvataggio
+     * @return la struttura salvata
+     * @throws NullPointerException
+     *                                      se il file è null
+     * @throws IOException
+     *                                      se non è possibile leggere il file
+     *                                      o se non contiene un salvataggio
+     *                                      completo
+     */
+    public static OffHeapDisjointSets restore(Path file) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("File nullo non ammesso.");
+        }
+        // La mappatura privata richiede un canale aperto anche in scrittura,
+        // anche se il file non viene mai modificato
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // legge fino a riempire l'intestazione
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getLong(0) != CHECKPOINT_MAGIC) {
+                throw new IOException("Salvataggio non valido o incompleto: " + file);
+            }
+            long capacity = header.getLong(8);
+            long size = header.getLong(16);
+            long setCount = header.getLong(24);
+            if (capacity < 0 || capacity > MAX_CAPACITY
+                    || channel.size() < HEADER_BYTES + 8 * capacity) {
+                throw new IOException("Salvataggio non valido o incompleto: " + file);
+            }
+            LongBuffer[] chunks = new LongBuffer[chunkCount(capacity)];
+            for (int i = 0; i < chunks.length; i++) {
+                long length = Math.min(1L << CHUNK_SHIFT, capacity - ((long) i << CHUNK_SHIFT));
+                chunks[i] = channel.map(FileChannel.MapMode.PRIVATE,
+                        HEADER_BYTES + ((long) i << CHUNK_SHIFT) * 8, 8 * length)
+                        .order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            }
+            return new OffHeapDisjointSets(capacity, chunks, size, setCount, file);
+        }
+    }
+
+    /**
+     * Salva lo stato corrente in un file. Le pagine da scrivere vengono
+     * copiate subito, per cui la struttura può essere modificata appena
+     * questo metodo ritorna, mentre la scrittura su disco avviene tramite
+     * l'esecutore passato. Se il file è quello dell'ultimo salvataggio
+     * vengono scritte solo le pagine modificate nel frattempo, altrimenti
+     * viene scritto tutto in un file temporaneo nella stessa cartella, con il
+     * nome del file seguito da ".tmp", che sostituisce il file in modo
+     * atomico: un salvataggio completo interrotto lascia intatto il file
+     * precedente e non altera un file mappato da {@code restore}. La memoria temporanea richiesta è pari alla
+     * dimensione delle pagine scritte. Ogni salvataggio viene scritto dopo la
+     * fine del precedente; se un salvataggio fallisce fallisce anche quello
+     * successivo già avviato, e il primo salvataggio avviato dopo il
+     * fallimento riscrive tutto.
+     *
+     * @param file
+     *                     il file in cui salvare lo stato
+     * @param executor
+     *                     l'esecutore che scrive sul disco, ad esempio
+     *                     {@code Runnable::run} per un salvataggio sincrono
+     * @return un future che viene completato quando il salvataggio è stato
+     *         scritto e sincronizzato sul disco, oppure eccezionalmente con
+     *         una {@code UncheckedIOException}
+     * @throws NullPointerException
+     *                                  se il file o l'esecutore sono null
+     */
+    public CompletableFuture<Void> checkpoint(Path file, Executor executor) {
+        if (file == null || executor == null) {
+            throw new NullPointerException("File o esecutore nulli.");
+        }
+        boolean incremental = file.equals(lastCheckpoint);
+        if (!incremental) {
+            Arrays.fill(dirtyPages, -1L);
+        }
+        long pageCount = (capacity + (1L << PAGE_SHIFT) - 1) >>> PAGE_SHIFT;
+        int dirtyCount = 0;
+        for (long page = 0; page < pageCount; page++) {
+            if ((dirtyPages[(int) (page >>> 6)] & (1L << page)) != 0) {
+                dirtyCount++;
+            }
+        }
+        long[] pages = new long[dirtyCount];
+        ByteBuffer[] contents = new ByteBuffer[dirtyCount];
+        int k = 0;
+        for (long page = 0; page < pageCount; page++) {
+            if ((dirtyPages[(int) (page >>> 6)] & (1L << page)) != 0) {
+                pages[k] = page;
+                contents[k++] = copyPage(page);
+            }
+        }
+        Arrays.fill(dirtyPages, 0);
+        lastCheckpoint = file;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(0, CHECKPOINT_MAGIC).putLong(8, capacity).putLong(16, size)
+                .putLong(24, setCount);
+        Runnable write = () -> {
+            // Un salvataggio completo non tronca mai il file di destinazione,
+            // che potrebbe essere mappato da restore o contenere l'unico
+            // salvataggio valido: viene scritto un file temporaneo accanto,
+            // che lo sostituisce in modo atomico solo quando è completo
+            Path target = incremental ? file
+                    : file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try (FileChannel channel = incremental
+                        ? FileChannel.open(target, StandardOpenOption.WRITE)
+                        : FileChannel.open(target, StandardOpenOption.CREATE,
+                                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    // Invalida l'intestazione finché le pagine non sono sul disco
+                    writeFully(channel, ByteBuffer.allocate(8), 0);
+                    channel.force(false);
+                    for (int i = 0; i < pages.length; i++) {
+                        writeFully(channel, contents[i],
+                                HEADER_BYTES + (pages[i] << PAGE_SHIFT) * 8);
+                    }
+                    channel.force(false);
+                    writeFully(channel, header, 0);
+                    channel.force(false);
+                }
+                if (!incremental) {
+                    Files.move(target, file, StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                if (!incremental) {
+                    try {
+                        Files.deleteIfExists(target);
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw new UncheckedIOException(e);
+            }
+        };
+        pendingCheckpoint = pendingCheckpoint.handle((result, failure) -> failure == null)
+                .thenAcceptAsync(previousSucceeded -> {
+                    if (incremental && !previousSucceeded) {
+                        throw new UncheckedIOException(
+                                new IOException("Salvataggio precedente fallito: " + file));
+                    }
+                    write.run();
+                }, executor).whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        lastCheckpoint = null;
+                    }
+                });
+        return pendingCheckpoint;
+    }
+
+    /**
+     * Restituisce il numero di identificatori utilizzabili.
+     *
+     * @return la capacità della struttura
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Restituisce il numero di elementi presenti.
+     *
+     * @return il numero di elementi inseriti con {@code makeSet}
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti in tempo costante.
+     *
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public long numberOfSets() {
+        return setCount;
+    }
+
+    /**
+     * Determina se un identificatore è presente.
+     *
+     * @param id
+     *               l'identificatore da cercare
+     * @return true se l'identificatore è presente, false altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se l'identificatore è fuori
+     *                                       dall'intervallo
+     *                                       <code>[0, capacity() - 1]</code>
+     */
+    public boolean isPresentId(long id) {
+        checkId(id);
+        return word(id) != 0;
+    }
+
+    /**
+     * Crea un nuovo insieme contenente solo l'identificatore dato.
+     *
+     * @param id
+     *               l'identificatore da inserire
+     * @throws IndexOutOfBoundsException
+     *                                       se l'identificatore è fuori
+     *                                       dall'intervallo
+     *                                       <code>[0, capacity() - 1]</code>
+     * @throws IllegalArgumentException
+     *                                       se l'identificatore è già presente
+     */
+    public void makeSetId(long id) {
+        if (isPresentId(id)) {
+            throw new IllegalArgumentException("Elemento già presente nella struttura.");
+        }
+        setWord(id, id + 1);
+        size++;
+        setCount++;
+    }
+
+    /**
+     * Inserisce come singoletti tutti gli identificatori nell'intervallo
+     * <code>[0, capacity() - 1]</code> non ancora presenti.
+     */
+    public void makeAllSets() {
+        for (int i = 0; i < chunks.length; i++) {
+            LongBuffer chunk = chunks[i];
+            long base = (long) i << CHUNK_SHIFT;
+            for (int j = 0; j < chunk.capacity(); j++) {
+                if (chunk.get(j) == 0) {
+                    markDirty(base + j);
+                    chunk.put(j, base + j + 1);
+                    size++;
+                    setCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene un
+     * identificatore, dimezzando il cammino percorso.
+     *
+     * @param id
+     *               un identificatore presente
+     * @return il rappresentante del suo insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se l'identificatore è fuori
+     *                                       dall'intervallo
+     *                                       <code>[0, capacity() - 1]</code>
+     * @throws IllegalArgumentException
+     *                                       se l'identificatore non è presente
+     */
+    public long findId(long id) {
+        checkPresent(id);
+        return findRoot(id);
+    }
+
+    /**
+     * Unisce gli insiemi che contengono i due identificatori. Il
+     * rappresentante dell'unione è scelto come in {@code ForestDisjointSets}.
+     *
+     * @param id1
+     *                un identificatore del primo insieme
+     * @param id2
+     *                un identificatore del secondo insieme
+     * @return true se i due insiemi erano diversi e sono stati uniti, false
+     *         altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli identificatori è
+     *                                       fuori dall'intervallo
+     *                                       <code>[0, capacity() - 1]</code>
+     * @throws IllegalArgumentException
+     *                                       se uno degli identificatori non è
+     *                                       presente
+     */
+    public boolean unionIds(long id1, long id2) {
+        checkPresent(id1);
+        checkPresent(id2);
+        long root1 = findRoot(id1);
+        long root2 = findRoot(id2);
+        if (root1 == root2) {
+            return false;
+        }
+        long rank1 = word(root1) >>> 56;
+        long rank2 = word(root2) >>> 56;
+        if (rank1 > rank2) {
+            setWord(root2, (rank2 << 56) | (root1 + 1));
+        } else {
+            setWord(root1, (rank1 << 56) | (root2 + 1));
+            if (rank1 == rank2) {
+                setWord(root2, ((rank2 + 1) << 56) | (root2 + 1));
+            }
+        }
+        setCount--;
+        return true;
+    }
+
+    /**
+     * Determina se due identificatori sono nello stesso insieme.
+     *
+     * @param id1
+     *                il primo identificatore
+     * @param id2
+     *                il secondo identificatore
+     * @return true se i due identificatori sono nello stesso insieme, false
+     *         altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli identificatori è
+     *                                       fuori dall'intervallo
+     *                                       <code>[0, capacity() - 1]</code>
+     * @throws IllegalArgumentException
+     *                                       se uno degli identificatori non è
+     *                                       presente
+     */
+    public boolean connectedIds(long id1, long id2) {
+        checkPresent(id1);
+        checkPresent(id2);
+        return findRoot(id1) == findRoot(id2);
+    }
+
+    /**
+     * Scrive sul file le modifiche ancora in memoria. Non fa nulla se la
+     * struttura non è associata a un file.
+     */
+    public void force() {
+        if (mapped != null) {
+            for (MappedByteBuffer buffer : mapped) {
+                buffer.force();
+            }
+        }
+    }
+
+    /*
+     * Un identificatore fuori dall'intervallo non può essere presente.
+     */
+    @Override
+    public boolean isPresent(Long e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        return e >= 0 && e < capacity && word(e) != 0;
+    }
+
+    @Override
+    public void makeSet(Long e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        makeSetId(e);
+    }
+
+    @Override
+    public Long findSet(Long e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        return findId(e);
+    }
+
+    @Override
+    public void union(Long e1, Long e2) {
+        if (e1 == null || e2 == null) {
+            throw new NullPointerException("Elements cannot be null");
+        }
+        unionIds(e1, e2);
+    }
+
+    /*
+     * Scorre tutti gli identificatori, per cui richiede tempo proporzionale
+     * alla capacità.
+     */
+    @Override
+    public Set<Long> getCurrentRepresentatives() {
+        Set<Long> representatives = new HashSet<>();
+        for (long id = 0; id < capacity; id++) {
+            long word = word(id);
+            if (word != 0 && (word & PARENT_MASK) - 1 == id) {
+                representatives.add(id);
+            }
+        }
+        return representatives;
+    }
+
+    /*
+     * Scorre tutti gli identificatori, per cui richiede tempo proporzionale
+     * alla capacità.
+     */
+    @Override
+    public Set<Long> getCurrentElementsOfSetContaining(Long e) {
+        long root = findSet(e);
+        Set<Long> elements = new HashSet<>();
+        for (long id = 0; id < capacity; id++) {
+            if (word(id) != 0 && findRoot(id) == root) {
+                elements.add(id);
+            }
+        }
+        return elements;
+    }
+
+    @Override
+    public void clear() {
+        for (LongBuffer chunk : chunks) {
+            for (int j = 0; j < chunk.capacity(); j++) {
+                chunk.put(j, 0);
+            }
+        }
+        Arrays.fill(dirtyPages, -1L);
+        size = 0;
+        setCount = 0;
+    }
+
+    /*
+     * Ricerca iterativa della radice con dimezzamento dei cammini.
+     */
+    private long findRoot(long id) {
+        long word = word(id);
+        long parent = (word & PARENT_MASK) - 1;
+        while (parent != id) {
+            long parentWord = word(parent);
+            long grandparent = (parentWord & PARENT_MASK) - 1;
+            if (grandparent != parent) {
+                setWord(id, (word & ~PARENT_MASK) | (grandparent + 1));
+            }
+            id = grandparent;
+            word = word(id);
+            parent = (word & PARENT_MASK) - 1;
+        }
+        return id;
+    }
+
+    private long word(long id) {
+        return chunks[(int) (id >>> CHUNK_SHIFT)].get((int) (id & CHUNK_MASK));
+    }
+
+    private void setWord(long id, long word) {
+        markDirty(id);
+        chunks[(int) (id >>> CHUNK_SHIFT)].put((int) (id & CHUNK_MASK), word);
+    }
+
+    private void markDirty(long id) {
+        long page = id >>> PAGE_SHIFT;
+        dirtyPages[(int) (page >>> 6)] |= 1L << page;
+    }
+
+    /*
+     * Copia in un buffer nello heap le parole di una pagina.
+     */
+    private ByteBuffer copyPage(long page) {
+        long first = page << PAGE_SHIFT;
+        int length = (int) Math.min(1L << PAGE_SHIFT, capacity - first);
+        int offset = (int) (first & CHUNK_MASK);
+        LongBuffer source = chunks[(int) (first >>> CHUNK_SHIFT)].duplicate();
+        source.position(offset).limit(offset + length);
+        ByteBuffer copy = ByteBuffer.allocate(8 * length).order(ByteOrder.LITTLE_ENDIAN);
+        copy.asLongBuffer().put(source);
+        return copy;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer,
+            long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static int dirtyWords(long capacity) {
+        long pages = (capacity + (1L << PAGE_SHIFT) - 1) >>> PAGE_SHIFT;
+        return (int) ((pages + 63) >>> 6);
+    }
+
+    private void checkId(long id) {
+        if (id < 0 || id >= capacity) {
+            throw new IndexOutOfBoundsException("Identificatore fuori dai limiti: " + id);
+        }
+    }
+
+    private void checkPresent(long id) {
+        if (!isPresentId(id)) {
+            throw new IllegalArgumentException("Elemento non presente nella struttura.");
+        }
+    }
+
+    private int chunkLength(int chunk) {
+        return (int) Math.min(1L << CHUNK_SHIFT, capacity - ((long) chunk << CHUNK_SHIFT));
+    }
+
+    private static int chunkCount(long capacity) {
+        return (int) ((capacity + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+
+    private static void checkCapacity(long capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacità non valida: " + capacity);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe OffHeapDisjointSets.
+ */
+class OffHeapDisjointSetsTest {
+
+    @Test
+    void testBasicOperations() {
+        OffHeapDisjointSets ds = new OffHeapDisjointSets(10);
+        assertFalse(ds.isPresent(3L));
+        assertFalse(ds.isPresent(42L));
+        ds.makeSet(1L);
+        ds.makeSet(2L);
+        ds.makeSet(3L);
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(2L));
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.makeSetId(10));
+        assertThrows(IllegalArgumentException.class, () -> ds.findId(4));
+
+        // A parità di rango il rappresentante è quello del secondo insieme
+        assertTrue(ds.unionIds(1, 2));
+        assertFalse(ds.unionIds(2, 1));
+        assertEquals(2L, ds.findSet(1L));
+        ds.union(3L, 1L);
+        assertEquals(2L, ds.findId(3));
+        assertTrue(ds.connectedIds(1, 3));
+        assertEquals(1, ds.numberOfSets());
+        assertEquals(3, ds.size());
+        assertEquals(Set.of(2L), ds.getCurrentRepresentatives());
+        assertEquals(Set.of(1L, 2L, 3L), ds.getCurrentElementsOfSetContaining(3L));
+
+        ds.clear();
+        assertEquals(0, ds.size());
+        assertFalse(ds.isPresentId(1));
+        ds.makeAllSets();
+        assertEquals(10, ds.numberOfSets());
+    }
+
+    @Test
+    void testMappedFileAgainstForest() throws IOException {
+        Path file = Files.createTempFile("dsets", ".bin");
+        try {
+            int n = 1000;
+            OffHeapDisjointSets ds = new OffHeapDisjointSets(n, file);
+            assertEquals(8L * n, Files.size(file));
+            ForestDisjointSets<Long> forest = new ForestDisjointSets<>();
+            ds.makeAllSets();
+            for (long i = 0; i < n; i++) {
+                forest.makeSet(i);
+            }
+            Random random = new Random(11);
+            for (int k = 0; k < 2000; k++) {
+                long u = random.nextInt(n);
+                long v = random.nextInt(n);
+                ds.union(u, v);
+                forest.union(u, v);
+                long x = random.nextInt(n);
+                long y = random.nextInt(n);
+                assertEquals(forest.findSet(x).equals(forest.findSet(y)), ds.connectedIds(x, y));
+                assertEquals(forest.findSet(x), ds.findSet(x));
+            }
+            assertEquals(forest.numberOfSets(), ds.numberOfSets());
+            ds.force();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testCheckpointAndRestore() throws Exception {
+        Path file = Files.createTempFile("dsets", ".ckpt");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Più pagine, per verificare il salvataggio incrementale
+            int n = 200_000;
+            OffHeapDisjointSets ds = new OffHeapDisjointSets(n);
+            ds.makeAllSets();
+            for (int i = 0; i + 1 < n; i += 2) {
+                ds.unionIds(i, i + 1);
+            }
+            ds.checkpoint(file, executor).get();
+            assertEquals(32 + 8L * n, Files.size(file));
+
+            // Modifica una sola pagina: le altre restano quelle salvate
+            ds.unionIds(0, 2);
+            ds.checkpoint(file, executor).get();
+            // Le modifiche successive al salvataggio non devono comparire
+            ds.unionIds(10, 12);
+
+            OffHeapDisjointSets restored = OffHeapDisjointSets.restore(file);
+            assertEquals(n, restored.capacity());
+            assertEquals(n, restored.size());
+            assertEquals(n / 2 - 1, restored.numberOfSets());
+            assertTrue(restored.connectedIds(1, 3));
+            assertTrue(restored.connectedIds(n - 2, n - 1));
+            assertFalse(restored.connectedIds(10, 12));
+            assertFalse(restored.connectedIds(n - 3, n - 2));
+
+            // La struttura ripristinata è modificabile e non altera il file
+            restored.unionIds(n - 3, n - 2);
+            assertEquals(n / 2 - 2, restored.numberOfSets());
+            assertFalse(OffHeapDisjointSets.restore(file).connectedIds(n - 3, n - 2));
+
+            Files.write(file, new byte[40]);
+            assertThrows(IOException.class, () -> OffHeapDisjointSets.restore(file));
+        } finally {
+            executor.shutdown();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testFullCheckpointOverRestoredFile() throws Exception {
+        Path first = Files.createTempFile("dsets", ".ckpt");
+        Path second = Files.createTempFile("dsets", ".ckpt");
+        try {
+            int n = 200_000;
+            OffHeapDisjointSets ds = new OffHeapDisjointSets(n);
+            ds.makeAllSets();
+            for (int i = 0; i + 1 < n; i += 2) {
+                ds.unionIds(i, i + 1);
+            }
+            ds.checkpoint(first, Runnable::run).get();
+
+            // Il salvataggio completo sul file mappato non deve troncarlo:
+            // la struttura ripristinata continua a leggere le pagine non
+            // ancora copiate
+            OffHeapDisjointSets restored = OffHeapDisjointSets.restore(first);
+            restored.unionIds(0, 2);
+            restored.checkpoint(second, Runnable::run).get();
+            restored.unionIds(4, 6);
+            restored.checkpoint(first, Runnable::run).get();
+            for (int i = 0; i + 1 < n; i += 2) {
+                assertTrue(restored.connectedIds(i, i + 1));
+            }
+            assertFalse(Files.exists(first.resolveSibling(first.getFileName() + ".tmp")));
+
+            OffHeapDisjointSets reloaded = OffHeapDisjointSets.restore(first);
+            assertEquals(n / 2 - 2, reloaded.numberOfSets());
+            assertTrue(reloaded.connectedIds(4, 7));
+            assertEquals(n / 2 - 1, OffHeapDisjointSets.restore(second).numberOfSets());
+
+            // Un salvataggio completo di un'altra struttura sullo stesso file
+            // sostituisce il file senza cambiare le pagine già mappate
+            OffHeapDisjointSets other = new OffHeapDisjointSets(n);
+            other.makeAllSets();
+            other.checkpoint(first, Runnable::run).get();
+            for (int i = 0; i + 1 < n; i += 2) {
+                assertTrue(reloaded.connectedIds(i, i + 1));
+            }
+            assertEquals(n, OffHeapDisjointSets.restore(first).numberOfSets());
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Risponde offline a una sequenza di inserimenti e cancellazioni di archi e di
+ * interrogazioni sulla connettività di un grafo non orientato con un insieme
+ * fisso di nodi.
+ *
+ * Le operazioni vengono prima registrate e poi eseguite tutte insieme da
+ * {@code computeAnswers()}. Ogni arco resta presente in un intervallo di
+ * interrogazioni, che viene scomposto in O(log q) nodi di un albero dei
+ * segmenti costruito sulle q interrogazioni. Una visita in profondità
+ * dell'albero unisce gli estremi degli archi di ogni nodo in un
+ * {@code RollbackDisjointSets}, risponde alle interrogazioni nelle foglie e
+ * annulla le unioni risalendo. Il tempo complessivo è O((n + m log q) log n),
+ * dove m è il numero di inserimenti di archi.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class OfflineDynamicConnectivity<L> {
+
+    private final RollbackDisjointSets<GraphNode<L>> sets = new RollbackDisjointSets<>();
+
+    /*
+     * Per ogni coppia di nodi collegata, identificata dagli handle dei due
+     * estremi, gli indici degli archi ancora presenti tra i due nodi.
+     */
+    private final Map<Long, ArrayDeque<Integer>> openEdges = new HashMap<>();
+
+    /*
+     * Per ogni arco inserito gli handle degli estremi e l'intervallo
+     * [firstQuery, lastQuery) delle interrogazioni in cui è presente.
+     */
+    private int[] endpoint1 = new int[16];
+
+    private int[] endpoint2 = new int[16];
+
+    private int[] firstQuery = new int[16];
+
+    private int[] lastQuery = new int[16];
+
+    private int edgeCount;
+
+    /*
+     * Per ogni interrogazione gli handle dei due nodi, oppure -1 se si chiede
+     * il numero di componenti connesse.
+     */
+    private int[] query1 = new int[16];
+
+    private int[] query2 = new int[16];
+
+    private int queryCount;
+
+    /**
+     * Crea un esecutore a partire da un grafo non orientato: i nodi del grafo
+     * sono i nodi su cui verranno eseguite le operazioni e i suoi archi sono
+     * presenti all'inizio della sequenza.
+     *
+     * @param g
+     *              il grafo iniziale
+     * @throws NullPointerException
+     *                                      se il grafo è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato
+     */
+    public OfflineDynamicConnectivity(Graph<L> g) {
+        if (g == null) {
+            throw new NullPointerException("Graph cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        for (GraphNode<L> node : g.getNodes()) {
+            sets.makeSet(node);
+        }
+        for (GraphEdge<L> edge : g.getEdges()) {
+            addEdge(edge);
+        }
+    }
+
+    /**
+     * Registra l'inserimento di un arco. Gli archi possono essere ripetuti:
+     * ogni inserimento va annullato da una cancellazione distinta.
+     *
+     * @param edge
+     *                 l'arco da inserire
+     * @throws NullPointerException
+     *                                      se l'arco è null
+     * @throws IllegalArgumentException
+     *                                      se l'arco è orientato o se uno dei
+     *                                      suoi nodi non è un nodo del grafo
+     */
+    public void addEdge(GraphEdge<L> edge) {
+        long key = keyOf(edge);
+        if (edgeCount == endpoint1.length) {
+            int capacity = 2 * edgeCount;
+            endpoint1 = Arrays.copyOf(endpoint1, capacity);
+            endpoint2 = Arrays.copyOf(endpoint2, capacity);
+            firstQuery = Arrays.copyOf(firstQuery, capacity);
+            lastQuery = Arrays.copyOf(lastQuery, capacity);
+        }
+        endpoint1[edgeCount] = (int) (key >>> 32);
+        endpoint2[edgeCount] = (int) key;
+        firstQuery[edgeCount] = queryCount;
+        lastQuery[edgeCount] = -1;
+        openEdges.computeIfAbsent(key, k -> new ArrayDeque<>()).push(edgeCount);
+        edgeCount++;
+    }
+
+    /**
+     * Registra la cancellazione di un arco presente.
+     *
+     * @param edge
+     *                 l'arco da cancellare
+     * @throws NullPointerException
+     *                                      se l'arco è null
+     * @throws IllegalArgumentException
+     *                                      se l'arco è orientato, se uno dei
+     *                                      suoi nodi non è un nodo del grafo o
+     *                                      se l'arco non è presente
+     */
+    public void removeEdge(GraphEdge<L> edge) {
+        long key = keyOf(edge);
+        ArrayDeque<Integer> open = openEdges.get(key);
+        if (open == null) {
+            throw new IllegalArgumentException("Edge not present: " + edge);
+        }
+        lastQuery[open.pop()] = queryCount;
+        if (open.isEmpty()) {
+            openEdges.remove(key);
+        }
+    }
+
+    /**
+     * Registra un'interrogazione che chiede se due nodi sono connessi.
+     *
+     * @param node1
+     *                  il primo nodo
+     * @param node2
+     *                  il secondo nodo
+     * @return l'indice della risposta nell'array restituito da
+     *         {@code computeAnswers()}
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non è un nodo del
+     *                                      grafo
+     */
+    public int queryConnected(GraphNode<L> node1, GraphNode<L> node2) {
+        return addQuery(sets.handleOf(node1), sets.handleOf(node2));
+    }
+
+    /**
+     * Registra un'interrogazione che chiede il numero di componenti connesse.
+     *
+     * @return l'indice della risposta nell'array restituito da
+     *         {@code computeAnswers()}
+     */
+    public int queryComponentCount() {
+        return addQuery(-1, -1);
+    }
+
+    /**
+     * Esegue tutte le operazioni registrate e restituisce le risposte alle
+     * interrogazioni, nell'ordine in cui sono state registrate. La risposta a
+     * {@code queryConnected} è 1 se i nodi sono connessi e 0 altrimenti,
+     * quella a {@code queryComponentCount} è il numero di componenti connesse.
+     *
+     * @return le risposte alle interrogazioni
+     */
+    public int[] computeAnswers() {
+        int[] answers = new int[queryCount];
+        if (queryCount == 0) {
+            return answers;
+        }
+        // Liste degli archi di ogni nodo dell'albero dei segmenti, concatenate
+        // negli array head e next
+        int[] head = new int[4 * queryCount];
+        Arrays.fill(head, -1);
+        int[] next = new int[16];
+        int[] edgeOf = new int[16];
+        int linkCount = 0;
+        int[] stack = new int[64];
+        for (int e = 0; e < edgeCount; e++) {
+            int from = firstQuery[e];
+            int to = lastQuery[e] < 0 ? queryCount : lastQuery[e];
+            if (from >= to) {
+                continue;
+            }
+            // Visita iterativa dei nodi dell'albero che coprono [from, to)
+            int top = 0;
+            stack[top++] = 1;
+            stack[top++] = 0;
+            stack[top++] = queryCount;
+            while (top > 0) {
+                int hi = stack[--top];
+                int lo = stack[--top];
+                int node = stack[--top];
+                if (from <= lo && hi <= to) {
+                    if (linkCount == next.length) {
+                        next = Arrays.copyOf(next, 2 * linkCount);
+                        edgeOf = Arrays.copyOf(edgeOf, 2 * linkCount);
+                    }
+                    next[linkCount] = head[node];
+                    edgeOf[linkCount] = e;
+                    head[node] = linkCount++;
+                    continue;
+                }
+                int mid = (lo + hi) >>> 1;
+                if (top + 6 > stack.length) {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                if (from < mid) {
+                    stack[top++] = 2 * node;
+                    stack[top++] = lo;
+                    stack[top++] = mid;
+                }
+                if (mid < to) {
+                    stack[top++] = 2 * node + 1;
+                    stack[top++] = mid;
+                    stack[top++] = hi;
+                }
+            }
+        }
+        visit(1, 0, queryCount, head, next, edgeOf, answers);
+        return answers;
+    }
+
+    /*
+     * Visita il sottoalbero dei segmenti del nodo node, che copre le
+     * interrogazioni in [lo, hi), e ripristina lo stato degli insiemi
+     * disgiunti prima di tornare. La profondità della ricorsione è
+     * logaritmica nel numero di interrogazioni.
+     */
+    private void visit(int node, int lo, int hi, int[] head, int[] next,
+            int[] edgeOf, int[] answers) {
+        int checkpoint = sets.checkpoint();
+        for (int link = head[node]; link >= 0; link = next[link]) {
+            sets.unionHandles(endpoint1[edgeOf[link]], endpoint2[edgeOf[link]]);
+        }
+        if (hi - lo == 1) {
+            if (query1[lo] < 0) {
+                answers[lo] = sets.numberOfSets();
+            } else {
+                answers[lo] = sets.connectedHandles(query1[lo], query2[lo]) ? 1 : 0;
+            }
+        } else {
+            int mid = (lo + hi) >>> 1;
+            visit(2 * node, lo, mid, head, next, edgeOf, answers);
+            visit(2 * node + 1, mid, hi, head, next, edgeOf, answers);
+        }
+        sets.rollbackTo(checkpoint);
+    }
+
+    private int addQuery(int handle1, int handle2) {
+        if (queryCount == query1.length) {
+            query1 = Arrays.copyOf(query1, 2 * queryCount);
+            query2 = Arrays.copyOf(query2, 2 * queryCount);
+        }
+        query1[queryCount] = handle1;
+        query2[queryCount] = handle2;
+        return queryCount++;
+    }
+
+    /*
+     * Chiave della coppia non ordinata degli handle degli estremi di un arco:
+     * l'handle minore nei 32 bit alti, il maggiore in quelli bassi.
+     */
+    private long keyOf(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null.");
+        }
+        if (edge.isDirected()) {
+            throw new IllegalArgumentException("Edge must be undirected.");
+        }
+        int handle1 = sets.handleOf(edge.getNode1());
+        int handle2 = sets.handleOf(edge.getNode2());
+        return ((long) Math.min(handle1, handle2) << 32) | Math.max(handle1, handle2);
+    }
+}
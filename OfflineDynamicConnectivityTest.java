@@ -0,0 +1,86 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe OfflineDynamicConnectivity.
+ */
+class OfflineDynamicConnectivityTest {
+
+    @Test
+    void testSmallSequence() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> a = new GraphNode<>("a");
+        GraphNode<String> b = new GraphNode<>("b");
+        GraphNode<String> c = new GraphNode<>("c");
+        g.addNodes(List.of(a, b, c));
+        GraphEdge<String> ab = new GraphEdge<>(a, b, false, 1);
+        g.addEdge(ab);
+
+        OfflineDynamicConnectivity<String> dc = new OfflineDynamicConnectivity<>(g);
+        int q0 = dc.queryConnected(a, b);
+        int q1 = dc.queryComponentCount();
+        dc.addEdge(new GraphEdge<>(c, b, false, 2));
+        int q2 = dc.queryConnected(a, c);
+        dc.removeEdge(ab);
+        int q3 = dc.queryConnected(a, c);
+        int q4 = dc.queryComponentCount();
+        int[] answers = dc.computeAnswers();
+
+        assertEquals(1, answers[q0]);
+        assertEquals(2, answers[q1]);
+        assertEquals(1, answers[q2]);
+        assertEquals(0, answers[q3]);
+        assertEquals(2, answers[q4]);
+        assertThrows(IllegalArgumentException.class, () -> dc.removeEdge(ab));
+        assertThrows(IllegalArgumentException.class,
+                () -> dc.queryConnected(a, new GraphNode<>("d")));
+    }
+
+    @Test
+    void testAgainstRecomputation() {
+        int n = 30;
+        Random random = new Random(7);
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        g.addNodes(nodes);
+        OfflineDynamicConnectivity<Integer> dc = new OfflineDynamicConnectivity<>(g);
+        // Esegue le stesse operazioni su un grafo e ricalcola le componenti
+        // connesse ad ogni interrogazione
+        List<GraphEdge<Integer>> present = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        UndirectedGraphConnectedComponentsComputer<Integer> cc = new UndirectedGraphConnectedComponentsComputer<>();
+        for (int step = 0; step < 400; step++) {
+            int op = random.nextInt(3);
+            if (op == 0 || present.isEmpty()) {
+                GraphEdge<Integer> edge = new GraphEdge<>(nodes.get(random.nextInt(n)),
+                        nodes.get(random.nextInt(n)), false, 1);
+                if (g.addEdge(edge)) {
+                    present.add(edge);
+                    dc.addEdge(edge);
+                }
+            } else if (op == 1) {
+                GraphEdge<Integer> edge = present.remove(random.nextInt(present.size()));
+                g.removeEdge(edge);
+                dc.removeEdge(edge);
+            } else {
+                dc.queryComponentCount();
+                expected.add(cc.computeConnectedComponents(g).size());
+            }
+        }
+        int[] answers = dc.computeAnswers();
+        assertEquals(expected.size(), answers.length);
+        for (int i = 0; i < answers.length; i++) {
+            assertEquals((int) expected.get(i), answers[i]);
+        }
+    }
+}
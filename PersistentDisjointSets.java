@@ -0,0 +1,393 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementazione persistente dell'interfaccia <code>DisjointSets<E></code>:
+ * ogni creazione di un insieme e ogni unione produce una nuova versione della
+ * struttura, identificata da un intero, e tutte le versioni precedenti
+ * restano interrogabili e modificabili. Le versioni sono numerate
+ * consecutivamente nell'ordine di creazione; la versione 0 non contiene
+ * elementi.
+ *
+ * I parent e i ranghi degli elementi sono memorizzati in un array persistente
+ * realizzato con un albero binario completo in cui ogni foglia corrisponde
+ * all'handle di un elemento: una modifica copia solo il cammino dalla radice
+ * alla foglia, per cui ogni operazione alloca O(log n) nodi e condivide il
+ * resto con la versione di partenza. Gli insiemi usano l'unione per rango
+ * senza compressione dei cammini, che modificherebbe versioni già create,
+ * per cui la ricerca del rappresentante in una qualunque versione richiede
+ * tempo O(log^2 n).
+ *
+ * I metodi dell'interfaccia <code>DisjointSets<E></code> lavorano sull'ultima
+ * versione creata, che diventa la versione corrente.
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class PersistentDisjointSets<E> implements DisjointSets<E> {
+
+    /*
+     * Nodo dell'array persistente. I nodi interni usano left e right, le
+     * foglie parent e rank. Un sottoalbero null rappresenta handle non
+     * presenti nella versione. I nodi non vengono mai modificati dopo la
+     * creazione.
+     */
+    private static final class Node {
+        private final Node left;
+
+        private final Node right;
+
+        private final int parent;
+
+        private final int rank;
+
+        private Node(Node left, Node right, int parent, int rank) {
+            this.left = left;
+            this.right = right;
+            this.parent = parent;
+            this.rank = rank;
+        }
+    }
+
+    /*
+     * Una versione: la radice dell'array persistente, la sua profondità (che
+     * copre gli handle in [0, 2^depth)) e il numero di insiemi.
+     */
+    private static final class Version {
+        private final Node root;
+
+        private final int depth;
+
+        private final int setCount;
+
+        private Version(Node root, int depth, int setCount) {
+            this.root = root;
+            this.depth = depth;
+            this.setCount = setCount;
+        }
+    }
+
+    /*
+     * Gli handle sono comuni a tutte le versioni: un elemento riceve un handle
+     * la prima volta che viene inserito in una qualunque versione.
+     */
+    private final Map<E, Integer> handles = new HashMap<>();
+
+    private final ArrayList<E> elements = new ArrayList<>();
+
+    private final ArrayList<Version> versions = new ArrayList<>();
+
+    /**
+     * Crea una struttura che contiene solo la versione 0, vuota.
+     */
+    public PersistentDisjointSets() {
+        versions.add(new Version(null, 0, 0));
+    }
+
+    /**
+     * Restituisce l'identificatore della versione corrente, cioè dell'ultima
+     * versione creata.
+     *
+     * @return l'identificatore della versione corrente
+     */
+    public int currentVersion() {
+        return versions.size() - 1;
+    }
+
+    /**
+     * Crea, a partire da una versione, una nuova versione in cui è stato
+     * aggiunto un insieme contenente solo l'elemento dato.
+     *
+     * @param version
+     *                    la versione di partenza
+     * @param e
+     *                    l'elemento da inserire
+     * @return l'identificatore della nuova versione
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se la versione non esiste o se
+     *                                      l'elemento è già presente nella
+     *                                      versione
+     */
+    public int makeSet(int version, E e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        Version from = versionOf(version);
+        Integer handle = handles.get(e);
+        if (handle == null) {
+            handle = elements.size();
+            elements.add(e);
+            handles.put(e, handle);
+        } else if (leaf(from, handle) != null) {
+            throw new IllegalArgumentException("Elemento già presente nella struttura.");
+        }
+        int depth = from.depth;
+        Node root = from.root;
+        while (handle >= 1 << depth) {
+            // Raddoppia la capacità: il vecchio albero diventa il figlio
+            // sinistro della nuova radice
+            root = root == null ? null : new Node(root, null, 0, 0);
+            depth++;
+        }
+        root = set(root, depth, handle, handle, 0);
+        return addVersion(new Version(root, depth, from.setCount + 1));
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme che contiene un elemento in
+     * una versione.
+     *
+     * @param version
+     *                    la versione da interrogare
+     * @param e
+     *                    l'elemento di cui cercare l'insieme
+     * @return il rappresentante dell'insieme che contiene <code>e</code>
+     *         nella versione data
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se la versione non esiste o se
+     *                                      l'elemento non è presente nella
+     *                                      versione
+     */
+    public E findSet(int version, E e) {
+        Version v = versionOf(version);
+        return elements.get(findRoot(v, presentHandle(v, e)));
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme in una versione.
+     *
+     * @param version
+     *                    la versione da interrogare
+     * @param e1
+     *                    il primo elemento
+     * @param e2
+     *                    il secondo elemento
+     * @return true se i due elementi sono nello stesso insieme nella versione
+     *         data, false altrimenti
+     * @throws NullPointerException
+     *                                      se almeno uno dei due elementi è
+     *                                      null
+     * @throws IllegalArgumentException
+     *                                      se la versione non esiste o se
+     *                                      almeno uno dei due elementi non è
+     *                                      presente nella versione
+     */
+    public boolean connected(int version, E e1, E e2) {
+        Version v = versionOf(version);
+        return findRoot(v, presentHandle(v, e1)) == findRoot(v, presentHandle(v, e2));
+    }
+
+    /**
+     * Crea, a partire da una versione, una nuova versione in cui gli insiemi
+     * che contengono i due elementi sono stati uniti. Il rappresentante
+     * dell'unione è scelto come in {@code ForestDisjointSets}. Viene creata
+     * una nuova versione anche se gli elementi erano già nello stesso
+     * insieme, in modo che la k-esima operazione produca sempre la k-esima
+     * versione.
+     *
+     * @param version
+     *                    la versione di partenza
+     * @param e1
+     *                    un elemento del primo insieme
+     * @param e2
+     *                    un elemento del secondo insieme
+     * @return l'identificatore della nuova versione
+     * @throws NullPointerException
+     *                                      se almeno uno dei due elementi è
+     *                                      null
+     * @throws IllegalArgumentException
+     *                                      se la versione non esiste o se
+     *                                      almeno uno dei due elementi non è
+     *                                      presente nella versione
+     */
+    public int union(int version, E e1, E e2) {
+        Version from = versionOf(version);
+        int root1 = findRoot(from, presentHandle(from, e1));
+        int root2 = findRoot(from, presentHandle(from, e2));
+        if (root1 == root2) {
+            return addVersion(from);
+        }
+        int rank1 = leaf(from, root1).rank;
+        int rank2 = leaf(from, root2).rank;
+        Node root = from.root;
+        if (rank1 > rank2) {
+            root = set(root, from.depth, root2, root1, rank2);
+        } else {
+            root = set(root, from.depth, root1, root2, rank1);
+            if (rank1 == rank2) {
+                root = set(root, from.depth, root2, root2, rank2 + 1);
+            }
+        }
+        return addVersion(new Version(root, from.depth, from.setCount - 1));
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti in una versione.
+     *
+     * @param version
+     *                    la versione da interrogare
+     * @return il numero di insiemi disgiunti nella versione data
+     * @throws IllegalArgumentException
+     *                                      se la versione non esiste
+     */
+    public int numberOfSets(int version) {
+        return versionOf(version).setCount;
+    }
+
+    @Override
+    public boolean isPresent(E e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        Integer handle = handles.get(e);
+        return handle != null && leaf(current(), handle) != null;
+    }
+
+    @Override
+    public void makeSet(E e) {
+        makeSet(currentVersion(), e);
+    }
+
+    @Override
+    public E findSet(E e) {
+        return findSet(currentVersion(), e);
+    }
+
+    @Override
+    public void union(E e1, E e2) {
+        if (e1 == null || e2 == null) {
+            throw new NullPointerException("Elements cannot be null");
+        }
+        union(currentVersion(), e1, e2);
+    }
+
+    /*
+     * Scorre tutti gli handle, per cui richiede tempo O(n log n).
+     */
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Version v = current();
+        Set<E> representatives = new HashSet<>();
+        for (int handle = 0; handle < elements.size(); handle++) {
+            Node leaf = leaf(v, handle);
+            if (leaf != null && leaf.parent == handle) {
+                representatives.add(elements.get(handle));
+            }
+        }
+        return representatives;
+    }
+
+    /*
+     * Scorre tutti gli handle cercandone il rappresentante, per cui richiede
+     * tempo O(n log^2 n).
+     */
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        Version v = current();
+        int root = findRoot(v, presentHandle(v, e));
+        Set<E> result = new HashSet<>();
+        for (int handle = 0; handle < elements.size(); handle++) {
+            if (leaf(v, handle) != null && findRoot(v, handle) == root) {
+                result.add(elements.get(handle));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Elimina tutte le versioni: rimane solo la versione 0, vuota.
+     */
+    @Override
+    public void clear() {
+        handles.clear();
+        elements.clear();
+        versions.clear();
+        versions.add(new Version(null, 0, 0));
+    }
+
+    private Version current() {
+        return versions.get(versions.size() - 1);
+    }
+
+    private Version versionOf(int version) {
+        if (version < 0 || version >= versions.size()) {
+            throw new IllegalArgumentException("Versione inesistente: " + version);
+        }
+        return versions.get(version);
+    }
+
+    private int addVersion(Version version) {
+        versions.add(version);
+        return versions.size() - 1;
+    }
+
+    /*
+     * Handle di un elemento che deve essere presente nella versione data.
+     */
+    private int presentHandle(Version v, E e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        Integer handle = handles.get(e);
+        if (handle == null || leaf(v, handle) == null) {
+            throw new IllegalArgumentException("Elemento non presente nella struttura.");
+        }
+        return handle;
+    }
+
+    /*
+     * Risale i parent fino alla radice, leggendo ogni parent dall'array
+     * persistente della versione.
+     */
+    private int findRoot(Version v, int handle) {
+        int parent = leaf(v, handle).parent;
+        while (parent != handle) {
+            handle = parent;
+            parent = leaf(v, handle).parent;
+        }
+        return handle;
+    }
+
+    /*
+     * Foglia dell'handle nella versione, oppure null se l'handle non è
+     * presente.
+     */
+    private static Node leaf(Version v, int handle) {
+        if (handle >= 1 << v.depth) {
+            return null;
+        }
+        Node node = v.root;
+        for (int level = v.depth - 1; node != null && level >= 0; level--) {
+            node = ((handle >>> level) & 1) == 0 ? node.left : node.right;
+        }
+        return node;
+    }
+
+    /*
+     * Restituisce la radice di un nuovo albero uguale a quello passato tranne
+     * che per la foglia dell'handle, copiando solo il cammino fino alla
+     * foglia.
+     */
+    private static Node set(Node node, int level, int handle, int parent, int rank) {
+        if (level == 0) {
+            return new Node(null, null, parent, rank);
+        }
+        Node left = node == null ? null : node.left;
+        Node right = node == null ? null : node.right;
+        if (((handle >>> (level - 1)) & 1) == 0) {
+            left = set(left, level - 1, handle, parent, rank);
+        } else {
+            right = set(right, level - 1, handle, parent, rank);
+        }
+        return new Node(left, right, 0, 0);
+    }
+}
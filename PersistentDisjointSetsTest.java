@@ -0,0 +1,85 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe PersistentDisjointSets.
+ */
+class PersistentDisjointSetsTest {
+
+    @Test
+    void testHistoricalVersions() {
+        PersistentDisjointSets<String> ds = new PersistentDisjointSets<>();
+        assertEquals(0, ds.currentVersion());
+        ds.makeSet("a");
+        ds.makeSet("b");
+        ds.makeSet("c");
+        int before = ds.currentVersion();
+        assertEquals(3, before);
+        int afterFirst = ds.union(before, "a", "b");
+        int afterSecond = ds.union(afterFirst, "b", "c");
+
+        assertFalse(ds.connected(before, "a", "b"));
+        assertTrue(ds.connected(afterFirst, "a", "b"));
+        assertFalse(ds.connected(afterFirst, "a", "c"));
+        assertTrue(ds.connected(afterSecond, "a", "c"));
+        assertEquals(3, ds.numberOfSets(before));
+        assertEquals(1, ds.numberOfSets(afterSecond));
+        // A parità di rango il rappresentante è quello del secondo insieme
+        assertEquals("b", ds.findSet(afterFirst, "a"));
+        assertEquals("b", ds.findSet("c"));
+
+        // Un'unione già avvenuta crea comunque una nuova versione
+        assertEquals(afterSecond + 1, ds.union(afterSecond, "a", "c"));
+
+        // Ramificazione da una versione precedente
+        int branch = ds.union(afterFirst, "c", "a");
+        assertTrue(ds.connected(branch, "a", "c"));
+        assertFalse(ds.connected(afterFirst, "a", "c"));
+        int withD = ds.makeSet(before, "d");
+        assertFalse(ds.connected(withD, "a", "c"));
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(afterSecond, "d"));
+        assertEquals("d", ds.findSet(withD, "d"));
+        assertEquals(Set.of("a", "b", "c", "d"), ds.getCurrentRepresentatives());
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet(withD, "d"));
+        assertThrows(IllegalArgumentException.class, () -> ds.connected(withD + 1, "a", "b"));
+
+        ds.clear();
+        assertEquals(0, ds.currentVersion());
+        assertFalse(ds.isPresent("a"));
+    }
+
+    @Test
+    void testAgainstForest() {
+        int n = 200;
+        Random random = new Random(3);
+        PersistentDisjointSets<Integer> persistent = new PersistentDisjointSets<>();
+        ForestDisjointSets<Integer> forest = new ForestDisjointSets<>();
+        for (int i = 0; i < n; i++) {
+            persistent.makeSet(i);
+            forest.makeSet(i);
+        }
+        int[] versions = new int[300];
+        int[][] pairs = new int[300][2];
+        for (int k = 0; k < versions.length; k++) {
+            pairs[k][0] = random.nextInt(n);
+            pairs[k][1] = random.nextInt(n);
+            persistent.union(pairs[k][0], pairs[k][1]);
+            versions[k] = persistent.currentVersion();
+        }
+        // Ripete le unioni sulla foresta e confronta ogni versione storica
+        for (int k = 0; k < versions.length; k++) {
+            forest.union(pairs[k][0], pairs[k][1]);
+            assertEquals(forest.numberOfSets(), persistent.numberOfSets(versions[k]));
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            assertEquals(forest.findSet(u).equals(forest.findSet(v)),
+                    persistent.connected(versions[k], u, v));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import jdk.jfr.EventType;
+
+/**
+ * Raccoglie le misure di una singola esecuzione di un algoritmo e le inoltra a
+ * un {@code MetricsListener} e, se abilitati, agli eventi di JDK Flight
+ * Recorder {@code AlgorithmPhaseEvent} e {@code AlgorithmCounterEvent}.
+ *
+ * Se il listener è {@code MetricsListener.NONE} e gli eventi non sono
+ * abilitati, {@code isEnabled()} restituisce false e tutti gli altri metodi
+ * ritornano subito, senza leggere l'orologio né allocare oggetti.
+ *
+ * Le fasi non possono essere annidate: ogni {@code begin} deve essere seguito
+ * da un {@code end} prima del successivo {@code begin}.
+ */
+public final class PhaseRecorder {
+
+    private final String algorithm;
+
+    private final MetricsListener listener;
+
+    private final boolean notifyListener;
+
+    private final boolean phaseEvents;
+
+    private final boolean counterEvents;
+
+    private String phase;
+
+    private long start;
+
+    private AlgorithmPhaseEvent event;
+
+    /**
+     * Crea un registratore per un'esecuzione di un algoritmo.
+     *
+     * @param algorithm
+     *                      il nome dell'algoritmo
+     * @param listener
+     *                      il listener a cui inoltrare le misure
+     * @throws NullPointerException
+     *                                  se il nome o il listener sono null
+     */
+    public PhaseRecorder(String algorithm, MetricsListener listener) {
+        if (algorithm == null || listener == null)
+            throw new NullPointerException("Algoritmo o listener nulli");
+        this.algorithm = algorithm;
+        this.listener = listener;
+        this.notifyListener = listener != MetricsListener.NONE;
+        this.phaseEvents = EventType.getEventType(AlgorithmPhaseEvent.class)
+                .isEnabled();
+        this.counterEvents = EventType
+                .getEventType(AlgorithmCounterEvent.class).isEnabled();
+    }
+
+    /**
+     * Determina se qualcuno sta raccogliendo le misure. Gli algoritmi possono
+     * usarlo per evitare di calcolare contatori che nessuno leggerebbe.
+     *
+     * @return true se il listener non è {@code MetricsListener.NONE} o se
+     *         qualche evento è abilitato, false altrimenti
+     */
+    public boolean isEnabled() {
+        return this.notifyListener || this.phaseEvents || this.counterEvents;
+    }
+
+    /**
+     * Inizia una fase.
+     *
+     * @param phase
+     *                  il nome della fase
+     */
+    public void begin(String phase) {
+        if (!this.notifyListener && !this.phaseEvents)
+            return;
+        this.phase = phase;
+        if (this.phaseEvents) {
+            this.event = new AlgorithmPhaseEvent();
+            this.event.begin();
+        }
+        if (this.notifyListener)
+            this.start = System.nanoTime();
+    }
+
+    /**
+     * Termina la fase iniziata dall'ultima chiamata di {@code begin}.
+     */
+    public void end() {
+        if (!this.notifyListener && !this.phaseEvents)
+            return;
+        if (this.notifyListener)
+            this.listener.phaseCompleted(this.algorithm, this.phase,
+                    System.nanoTime() - this.start);
+        if (this.phaseEvents) {
+            this.event.end();
+            if (this.event.shouldCommit()) {
+                this.event.algorithm = this.algorithm;
+                this.event.phase = this.phase;
+                this.event.commit();
+            }
+            this.event = null;
+        }
+    }
+
+    /**
+     * Registra il valore finale di un contatore.
+     *
+     * @param name
+     *                  il nome del contatore
+     * @param value
+     *                  il valore del contatore
+     */
+    public void counter(String name, long value) {
+        if (this.notifyListener)
+            this.listener.counter(this.algorithm, name, value);
+        if (this.counterEvents) {
+            AlgorithmCounterEvent counter = new AlgorithmCounterEvent();
+            if (counter.shouldCommit()) {
+                counter.algorithm = this.algorithm;
+                counter.name = name;
+                counter.value = value;
+                counter.commit();
+            }
+        }
+    }
+}
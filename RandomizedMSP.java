@@ -0,0 +1,346 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Classe singoletto che implementa l'algoritmo randomizzato di Karger, Klein
+ * e Tarjan per trovare un Minimum Spanning Tree di un grafo non orientato,
+ * pesato e con pesi non negativi in tempo atteso O(E), senza ordinare gli
+ * archi. Se il grafo non è connesso viene calcolata una foresta di copertura
+ * minima.
+ *
+ * Ogni livello della ricorsione esegue due passi di Borůvka, che aggiungono
+ * al risultato l'arco più leggero uscente da ogni nodo e contraggono le
+ * componenti così formate, dimezzando almeno due volte i nodi. Poi calcola
+ * ricorsivamente la foresta minima F di un campione casuale che contiene ogni
+ * arco con probabilità 1/2, scarta gli archi F-pesanti, cioè più pesanti di
+ * tutti gli archi del cammino in F tra i loro estremi, che non possono far
+ * parte della soluzione, e calcola ricorsivamente la foresta minima degli
+ * archi rimasti, che in media sono al più il doppio dei nodi.
+ *
+ * Gli archi di peso uguale sono ordinati secondo l'ordine in cui li visita
+ * {@code forEachEdge}, per cui l'albero restituito non dipende dalla scelta
+ * casuale del campione, che influisce solo sul tempo di esecuzione. Se ci
+ * sono archi di peso uguale l'albero può differire da quello di
+ * {@code KruskalMSP}, ma ha lo stesso peso complessivo.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class RandomizedMSP<L> {
+
+    /*
+     * Sotto questo numero di archi un sottoproblema viene risolto ordinando
+     * gli archi come nell'algoritmo di Kruskal.
+     */
+    private static final int BASE_EDGES = 64;
+
+    private final Random random;
+
+    /*
+     * Posizione di ogni arco, identificato dal suo indice globale, nel
+     * sottoproblema corrente: serve a ritrovare gli archi scelti dalla
+     * ricorsione sul campione.
+     */
+    private int[] positionOf;
+
+    /*
+     * Indici globali degli archi scelti e loro numero.
+     */
+    private int[] chosen;
+
+    private int chosenCount;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Karger, Klein e Tarjan.
+     */
+    public RandomizedMSP() {
+        this(new Random());
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Karger, Klein e Tarjan con un seme fissato, per rendere
+     * ripetibili i tempi di esecuzione.
+     *
+     * @param seed
+     *                 il seme dei campionamenti casuali
+     */
+    public RandomizedMSP(long seed) {
+        this(new Random(seed));
+    }
+
+    private RandomizedMSP(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Trova un albero di copertura minimo in un grafo non orientato e pesato,
+     * con pesi degli archi non negativi. L'albero restituito non è radicato,
+     * quindi è rappresentato semplicemente con un sottoinsieme degli archi del
+     * grafo.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throws NullPointerException
+     *                                      se il grafo g è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo g è orientato o con pesi
+     *                                      negativi
+     */
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null) {
+            throw new NullPointerException("Graph cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        Set<GraphNode<L>> nodes = g.getNodes();
+        Map<GraphNode<L>, Integer> indexOf = new HashMap<>(nodes.size() * 4 / 3 + 1);
+        for (GraphNode<L> node : nodes) {
+            indexOf.put(node, indexOf.size());
+        }
+        // forEachEdge evita di costruire l'insieme di getEdges(), che con molti
+        // archi costa più dell'intero algoritmo
+        List<GraphEdge<L>> edges = new ArrayList<>(g.edgeCount());
+        g.forEachEdge(edges::add);
+        int m = edges.size();
+        int[] u = new int[m];
+        int[] v = new int[m];
+        double[] w = new double[m];
+        int[] id = new int[m];
+        for (int i = 0; i < m; i++) {
+            GraphEdge<L> edge = edges.get(i);
+            if (edge.getWeight() < 0) {
+                throw new IllegalArgumentException("Graph cannot have negative edge weights.");
+            }
+            u[i] = indexOf.get(edge.getNode1());
+            v[i] = indexOf.get(edge.getNode2());
+            w[i] = edge.getWeight();
+            id[i] = i;
+        }
+        positionOf = new int[m];
+        chosen = new int[Math.max(nodes.size() - 1, 0)];
+        chosenCount = 0;
+        minimumForest(nodes.size(), u, v, w, id, m);
+        Set<GraphEdge<L>> mst = new HashSet<>(chosenCount * 4 / 3 + 1);
+        for (int i = 0; i < chosenCount; i++) {
+            mst.add(edges.get(chosen[i]));
+        }
+        return mst;
+    }
+
+    /*
+     * Aggiunge a chosen gli archi della foresta di copertura minima del
+     * sottoproblema con n nodi e con i primi m archi degli array, che possono
+     * essere modificati. Gli estremi degli archi sono in [0, n).
+     */
+    private void minimumForest(int n, int[] u, int[] v, double[] w, int[] id, int m) {
+        for (int step = 0; step < 2 && m > BASE_EDGES; step++) {
+            int[] label = new int[n];
+            n = boruvkaStep(n, u, v, w, id, m, label);
+            m = contract(u, v, w, id, m, label);
+            n = compact(n, u, v, m);
+        }
+        if (m <= BASE_EDGES) {
+            kruskal(n, u, v, w, id, m);
+            return;
+        }
+
+        // Foresta minima F di un campione casuale: ogni arco del campione
+        // conserva l'indice globale, per cui basta ritrovarne la posizione
+        int sampled = 0;
+        int[] su = new int[m / 2 + 16];
+        int[] sv = new int[su.length];
+        double[] sw = new double[su.length];
+        int[] sid = new int[su.length];
+        for (int i = 0; i < m; i++) {
+            if (random.nextBoolean()) {
+                if (sampled == su.length) {
+                    int capacity = 2 * sampled;
+                    su = Arrays.copyOf(su, capacity);
+                    sv = Arrays.copyOf(sv, capacity);
+                    sw = Arrays.copyOf(sw, capacity);
+                    sid = Arrays.copyOf(sid, capacity);
+                }
+                su[sampled] = u[i];
+                sv[sampled] = v[i];
+                sw[sampled] = w[i];
+                sid[sampled++] = id[i];
+            }
+        }
+        int before = chosenCount;
+        minimumForest(n, su, sv, sw, sid, sampled);
+        // Gli archi di F non fanno necessariamente parte del risultato: sono
+        // tolti da chosen e usati solo per il filtro
+        for (int i = 0; i < m; i++) {
+            positionOf[id[i]] = i;
+        }
+        int[] forest = new int[chosenCount - before];
+        for (int k = 0; k < forest.length; k++) {
+            forest[k] = positionOf[chosen[before + k]];
+        }
+        chosenCount = before;
+
+        // Un arco è F-pesante se è più pesante di tutti gli archi del cammino
+        // in F tra i suoi estremi
+        int[] pathMax = ForestPathMaxima.compute(n, u, v, w, id, m, forest);
+        boolean[] heavy = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            heavy[i] = pathMax[i] >= 0 && ForestPathMaxima.lighter(pathMax[i], i, w, id);
+        }
+        int light = 0;
+        for (int i = 0; i < m; i++) {
+            if (!heavy[i]) {
+                u[light] = u[i];
+                v[light] = v[i];
+                w[light] = w[i];
+                id[light++] = id[i];
+            }
+        }
+        minimumForest(n, u, v, w, id, light);
+    }
+
+    /*
+     * Passo di Borůvka: aggiunge a chosen l'arco più leggero incidente ad ogni
+     * nodo e scrive in label la componente di ogni nodo, numerando le
+     * componenti da 0. Restituisce il numero di componenti.
+     */
+    private int boruvkaStep(int n, int[] u, int[] v, double[] w, int[] id, int m,
+            int[] label) {
+        int[] lightest = new int[n];
+        Arrays.fill(lightest, -1);
+        for (int i = 0; i < m; i++) {
+            if (lightest[u[i]] < 0 || ForestPathMaxima.lighter(i, lightest[u[i]], w, id)) {
+                lightest[u[i]] = i;
+            }
+            if (lightest[v[i]] < 0 || ForestPathMaxima.lighter(i, lightest[v[i]], w, id)) {
+                lightest[v[i]] = i;
+            }
+        }
+        int[] parent = new int[n];
+        for (int x = 0; x < n; x++) {
+            parent[x] = x;
+        }
+        // Gli archi più leggeri formano una foresta: un arco scelto da
+        // entrambi gli estremi viene aggiunto una volta sola
+        for (int x = 0; x < n; x++) {
+            int e = lightest[x];
+            if (e >= 0) {
+                int root1 = find(parent, u[e]);
+                int root2 = find(parent, v[e]);
+                if (root1 != root2) {
+                    parent[root1] = root2;
+                    choose(id[e]);
+                }
+            }
+        }
+        int components = 0;
+        Arrays.fill(label, -1);
+        for (int x = 0; x < n; x++) {
+            int root = find(parent, x);
+            if (label[root] < 0) {
+                label[root] = components++;
+            }
+            label[x] = label[root];
+        }
+        return components;
+    }
+
+    private void choose(int edge) {
+        if (chosenCount == chosen.length) {
+            chosen = Arrays.copyOf(chosen, 2 * chosenCount + 16);
+        }
+        chosen[chosenCount++] = edge;
+    }
+
+    /*
+     * Rinomina gli estremi degli archi secondo label e scarta i cappi,
+     * restituendo il numero di archi rimasti.
+     */
+    private static int contract(int[] u, int[] v, double[] w, int[] id, int m,
+            int[] label) {
+        int kept = 0;
+        for (int i = 0; i < m; i++) {
+            int a = label[u[i]];
+            int b = label[v[i]];
+            if (a != b) {
+                u[kept] = a;
+                v[kept] = b;
+                w[kept] = w[i];
+                id[kept++] = id[i];
+            }
+        }
+        return kept;
+    }
+
+    /*
+     * Rinumera da 0 i soli nodi che sono estremi di qualche arco, in modo che
+     * i nodi isolati non pesino sui sottoproblemi successivi, e restituisce il
+     * numero di nodi rimasti.
+     */
+    private static int compact(int n, int[] u, int[] v, int m) {
+        int[] label = new int[n];
+        Arrays.fill(label, -1);
+        int count = 0;
+        for (int i = 0; i < m; i++) {
+            if (label[u[i]] < 0) {
+                label[u[i]] = count++;
+            }
+            if (label[v[i]] < 0) {
+                label[v[i]] = count++;
+            }
+            u[i] = label[u[i]];
+            v[i] = label[v[i]];
+        }
+        return count;
+    }
+
+    /*
+     * Caso base: ordina gli archi e applica l'algoritmo di Kruskal.
+     */
+    private void kruskal(int n, int[] u, int[] v, double[] w, int[] id, int m) {
+        int[] order = new int[m];
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+            // Ordinamento per inserimento, gli archi sono pochi
+            for (int j = i; j > 0
+                    && ForestPathMaxima.lighter(order[j], order[j - 1], w, id); j--) {
+                int t = order[j];
+                order[j] = order[j - 1];
+                order[j - 1] = t;
+            }
+        }
+        int[] parent = new int[n];
+        for (int x = 0; x < n; x++) {
+            parent[x] = x;
+        }
+        for (int k = 0; k < m; k++) {
+            int e = order[k];
+            int root1 = find(parent, u[e]);
+            int root2 = find(parent, v[e]);
+            if (root1 != root2) {
+                parent[root1] = root2;
+                choose(id[e]);
+            }
+        }
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
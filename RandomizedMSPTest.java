@@ -0,0 +1,110 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe RandomizedMSP.
+ */
+class RandomizedMSPTest {
+
+    @Test
+    final void testComputeMSP() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 9));
+        RandomizedMSP<String> alg = new RandomizedMSP<String>(1);
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(b, c, false, 1));
+        result.add(new GraphEdge<String>(a, c, false, 2));
+        result.add(new GraphEdge<String>(c, d, false, 7));
+        assertEquals(result, alg.computeMSP(gr));
+    }
+
+    @Test
+    final void testInvalidGraphs() {
+        RandomizedMSP<String> alg = new RandomizedMSP<String>();
+        assertThrows(NullPointerException.class, () -> alg.computeMSP(null));
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(alg.computeMSP(gr).isEmpty());
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addEdge(new GraphEdge<String>(a, b, false, -1));
+        assertThrows(IllegalArgumentException.class, () -> alg.computeMSP(gr));
+    }
+
+    @Test
+    final void testSameTreeAsKruskal() {
+        Random random = new Random(47);
+        KruskalMSP<Integer> kruskal = new KruskalMSP<>();
+        for (int trial = 0; trial < 30; trial++) {
+            // Grafi abbastanza grandi da attivare campionamento e filtro,
+            // spesso non connessi e con molti pesi uguali
+            int n = 20 + random.nextInt(300);
+            Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+            List<GraphNode<Integer>> nodes = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                nodes.add(new GraphNode<>(i));
+            }
+            gr.addNodes(nodes);
+            int m = random.nextInt(6 * n);
+            // Nei tentativi pari molti pesi uguali, in quelli dispari pesi
+            // distinti e quindi un solo albero minimo
+            boolean ties = trial % 2 == 0;
+            for (int k = 0; k < m; k++) {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if (u != v) {
+                    double w = ties ? random.nextInt(5) : random.nextDouble();
+                    gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, w));
+                }
+            }
+            Set<GraphEdge<Integer>> expected = kruskal.computeMSP(gr);
+            Set<GraphEdge<Integer>> actual = new RandomizedMSP<Integer>(trial).computeMSP(gr);
+            if (ties) {
+                assertEquals(expected.size(), actual.size());
+                assertEquals(weight(expected), weight(actual), 1e-9);
+                ForestDisjointSets<GraphNode<Integer>> sets = new ForestDisjointSets<>();
+                for (GraphNode<Integer> node : nodes) {
+                    sets.makeSet(node);
+                }
+                for (GraphEdge<Integer> edge : actual) {
+                    assertTrue(gr.containsEdge(edge));
+                    assertNotEquals(sets.findSet(edge.getNode1()), sets.findSet(edge.getNode2()));
+                    sets.union(edge.getNode1(), edge.getNode2());
+                }
+            } else {
+                assertEquals(expected, actual);
+            }
+            // L'albero non dipende dal seme
+            assertEquals(actual, new RandomizedMSP<Integer>(trial + 1).computeMSP(gr));
+        }
+    }
+
+    private static double weight(Set<GraphEdge<Integer>> edges) {
+        double total = 0;
+        for (GraphEdge<Integer> edge : edges) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+}
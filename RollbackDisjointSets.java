@@ -0,0 +1,345 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<E></code> le cui
+ * operazioni possono essere annullate. Gli insiemi sono rappresentati con una
+ * foresta che usa l'euristica dell'unione per rango ma non la compressione
+ * dei cammini: in questo modo ogni unione modifica solo un puntatore al parent
+ * e al più un rango, che vengono registrati su una pila di annullamento.
+ * L'altezza degli alberi resta al più logaritmica, per cui ogni ricerca del
+ * rappresentante richiede tempo O(log n).
+ *
+ * Il metodo {@code checkpoint()} restituisce un punto di ripristino e
+ * {@code rollbackTo(int)} annulla, in ordine inverso, tutte le creazioni di
+ * insiemi e le unioni eseguite dopo quel punto, ciascuna in tempo costante.
+ *
+ * Come in {@code ForestDisjointSets}, ad ogni elemento è assegnato un handle
+ * intero, consecutivo a partire da zero, che può essere usato al posto
+ * dell'elemento per evitare la ricerca nella mappa.
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class RollbackDisjointSets<E> implements DisjointSets<E> {
+
+    /*
+     * Valore registrato sulla pila per la creazione di un insieme; le unioni
+     * registrano invece 2 * h + b, dove h è l'handle della radice che è stata
+     * appesa all'altra e b vale 1 se il rango dell'altra radice è aumentato.
+     */
+    private static final int MAKE_SET = -1;
+
+    private final Map<E, Integer> handles = new HashMap<>();
+
+    private final ArrayList<E> elements = new ArrayList<>();
+
+    private int[] parent = new int[16];
+
+    private int[] rank = new int[16];
+
+    private int[] history = new int[16];
+
+    private int historySize;
+
+    private int setCount;
+
+    @Override
+    public boolean isPresent(E e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        return handles.containsKey(e);
+    }
+
+    @Override
+    public void makeSet(E e) {
+        makeSetHandle(e);
+    }
+
+    /**
+     * Crea un nuovo insieme disgiunto contenente solo l'elemento dato e
+     * restituisce l'handle assegnato all'elemento.
+     *
+     * @param e
+     *              l'elemento da inserire nell'insieme creato
+     * @return l'handle dell'elemento inserito
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato è già presente
+     *                                      in uno degli insiemi disgiunti
+     *                                      correnti
+     */
+    public int makeSetHandle(E e) {
+        if (isPresent(e)) {
+            throw new IllegalArgumentException("Elemento già presente nella struttura.");
+        }
+        int handle = elements.size();
+        if (handle == parent.length) {
+            parent = Arrays.copyOf(parent, 2 * handle);
+            rank = Arrays.copyOf(rank, 2 * handle);
+        }
+        parent[handle] = handle;
+        rank[handle] = 0;
+        elements.add(e);
+        handles.put(e, handle);
+        setCount++;
+        push(MAKE_SET);
+        return handle;
+    }
+
+    /**
+     * Restituisce l'handle assegnato a un elemento presente.
+     *
+     * @param e
+     *              l'elemento di cui cercare l'handle
+     * @return l'handle dell'elemento
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è presente
+     */
+    public int handleOf(E e) {
+        if (e == null) {
+            throw new NullPointerException("Elemento nullo non ammesso.");
+        }
+        Integer handle = handles.get(e);
+        if (handle == null) {
+            throw new IllegalArgumentException("Elemento non presente nella struttura.");
+        }
+        return handle;
+    }
+
+    /**
+     * Restituisce l'elemento a cui è stato assegnato un handle.
+     *
+     * @param handle
+     *                   l'handle dell'elemento
+     * @return l'elemento con l'handle dato
+     * @throws IndexOutOfBoundsException
+     *                                       se l'handle non è assegnato
+     */
+    public E elementOf(int handle) {
+        return elements.get(handle);
+    }
+
+    @Override
+    public E findSet(E e) {
+        return elements.get(findRoot(handleOf(e)));
+    }
+
+    /**
+     * Restituisce l'handle del rappresentante dell'insieme disgiunto in cui si
+     * trova l'elemento con l'handle passato.
+     *
+     * @param handle
+     *                   l'handle di un elemento presente
+     * @return l'handle del rappresentante del suo insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se l'handle non è assegnato
+     */
+    public int findHandle(int handle) {
+        checkHandle(handle);
+        return findRoot(handle);
+    }
+
+    /*
+     * Il rappresentante dell'unione è la radice di rango più alto; a parità di
+     * rango è il rappresentante dell'insieme di cui fa parte e2, come in
+     * ForestDisjointSets.
+     */
+    @Override
+    public void union(E e1, E e2) {
+        if (e1 == null || e2 == null) {
+            throw new NullPointerException("Elements cannot be null");
+        }
+        Integer handle1 = handles.get(e1);
+        Integer handle2 = handles.get(e2);
+        if (handle1 == null || handle2 == null) {
+            throw new IllegalArgumentException("One or both elements are not in the sets");
+        }
+        link(findRoot(handle1), findRoot(handle2));
+    }
+
+    /**
+     * Unisce gli insiemi disgiunti di cui fanno parte gli elementi con gli
+     * handle passati, con le stesse regole di {@code union}.
+     *
+     * @param handle1
+     *                    l'handle di un elemento del primo insieme
+     * @param handle2
+     *                    l'handle di un elemento del secondo insieme
+     * @return true se i due insiemi erano diversi e sono stati uniti, false
+     *         se gli elementi erano già nello stesso insieme
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due handle non è
+     *                                       assegnato
+     */
+    public boolean unionHandles(int handle1, int handle2) {
+        checkHandle(handle1);
+        checkHandle(handle2);
+        return link(findRoot(handle1), findRoot(handle2));
+    }
+
+    /**
+     * Determina se gli elementi con gli handle passati sono nello stesso
+     * insieme disgiunto.
+     *
+     * @param handle1
+     *                    l'handle del primo elemento
+     * @param handle2
+     *                    l'handle del secondo elemento
+     * @return true se i due elementi sono nello stesso insieme, false
+     *         altrimenti
+     * @throws IndexOutOfBoundsException
+     *                                       se uno dei due handle non è
+     *                                       assegnato
+     */
+    public boolean connectedHandles(int handle1, int handle2) {
+        checkHandle(handle1);
+        checkHandle(handle2);
+        return findRoot(handle1) == findRoot(handle2);
+    }
+
+    /**
+     * Restituisce un punto di ripristino che rappresenta lo stato corrente.
+     *
+     * @return il punto di ripristino, da passare a {@code rollbackTo}
+     */
+    public int checkpoint() {
+        return historySize;
+    }
+
+    /**
+     * Riporta la struttura allo stato in cui si trovava quando è stato
+     * ottenuto il punto di ripristino passato, annullando le creazioni di
+     * insiemi e le unioni successive. Il tempo richiesto è proporzionale al
+     * numero di operazioni annullate. I punti di ripristino ottenuti dopo
+     * quello passato non sono più validi.
+     *
+     * @param checkpoint
+     *                       un punto di ripristino restituito da
+     *                       {@code checkpoint()}
+     * @throws IllegalArgumentException
+     *                                      se il punto di ripristino non è
+     *                                      valido
+     */
+    public void rollbackTo(int checkpoint) {
+        if (checkpoint < 0 || checkpoint > historySize) {
+            throw new IllegalArgumentException("Punto di ripristino non valido: " + checkpoint);
+        }
+        while (historySize > checkpoint) {
+            int entry = history[--historySize];
+            if (entry == MAKE_SET) {
+                E e = elements.remove(elements.size() - 1);
+                handles.remove(e);
+                setCount--;
+            } else {
+                int child = entry >>> 1;
+                int root = parent[child];
+                parent[child] = child;
+                rank[root] -= entry & 1;
+                setCount++;
+            }
+        }
+    }
+
+    /**
+     * Restituisce il numero di insiemi disgiunti correnti in tempo costante.
+     *
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public int numberOfSets() {
+        return setCount;
+    }
+
+    /*
+     * Scorre tutti gli elementi, per cui richiede tempo lineare.
+     */
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Set<E> representatives = new HashSet<>();
+        for (int i = 0; i < elements.size(); i++) {
+            if (parent[i] == i) {
+                representatives.add(elements.get(i));
+            }
+        }
+        return representatives;
+    }
+
+    /*
+     * Scorre tutti gli elementi cercandone il rappresentante, per cui richiede
+     * tempo O(n log n).
+     */
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        int root = findRoot(handleOf(e));
+        Set<E> result = new HashSet<>();
+        for (int i = 0; i < elements.size(); i++) {
+            if (findRoot(i) == root) {
+                result.add(elements.get(i));
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Svuota anche la pila di annullamento, per cui i punti di ripristino
+     * ottenuti in precedenza non sono più validi.
+     */
+    @Override
+    public void clear() {
+        handles.clear();
+        elements.clear();
+        historySize = 0;
+        setCount = 0;
+    }
+
+    /*
+     * Risale fino alla radice senza modificare i puntatori.
+     */
+    private int findRoot(int handle) {
+        while (parent[handle] != handle) {
+            handle = parent[handle];
+        }
+        return handle;
+    }
+
+    private boolean link(int root1, int root2) {
+        if (root1 == root2) {
+            return false;
+        }
+        if (rank[root1] > rank[root2]) {
+            int t = root1;
+            root1 = root2;
+            root2 = t;
+        }
+        // Ora root1 ha rango minore o uguale e viene appesa a root2
+        int increased = rank[root1] == rank[root2] ? 1 : 0;
+        parent[root1] = root2;
+        rank[root2] += increased;
+        setCount--;
+        push(2 * root1 + increased);
+        return true;
+    }
+
+    private void push(int entry) {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, 2 * historySize);
+        }
+        history[historySize++] = entry;
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= elements.size()) {
+            throw new IndexOutOfBoundsException("Handle non valido: " + handle);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe RollbackDisjointSets.
+ */
+class RollbackDisjointSetsTest {
+
+    @Test
+    void testRollbackUndoesUnionsAndMakeSets() {
+        RollbackDisjointSets<Integer> ds = new RollbackDisjointSets<>();
+        for (int i = 0; i < 8; i++) {
+            ds.makeSet(i);
+        }
+        ds.union(0, 1);
+        ds.union(2, 3);
+        int checkpoint = ds.checkpoint();
+        assertEquals(6, ds.numberOfSets());
+
+        ds.union(1, 3);
+        ds.makeSet(8);
+        ds.union(8, 0);
+        assertEquals(5, ds.numberOfSets());
+        assertEquals(Set.of(0, 1, 2, 3, 8), ds.getCurrentElementsOfSetContaining(2));
+
+        ds.rollbackTo(checkpoint);
+        assertEquals(6, ds.numberOfSets());
+        assertFalse(ds.isPresent(8));
+        assertEquals(Set.of(2, 3), ds.getCurrentElementsOfSetContaining(2));
+        assertEquals(ds.findSet(0), ds.findSet(1));
+        assertNotEquals(ds.findSet(0), ds.findSet(2));
+        // Un elemento rimosso dall'annullamento può essere reinserito
+        assertEquals(8, ds.makeSetHandle(8));
+
+        ds.rollbackTo(0);
+        assertEquals(0, ds.numberOfSets());
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ds.rollbackTo(1));
+    }
+
+    @Test
+    void testUnionByRank() {
+        RollbackDisjointSets<String> ds = new RollbackDisjointSets<>();
+        int a = ds.makeSetHandle("a");
+        int b = ds.makeSetHandle("b");
+        int c = ds.makeSetHandle("c");
+        // A parità di rango il rappresentante è quello del secondo insieme
+        assertTrue(ds.unionHandles(a, b));
+        assertEquals(b, ds.findHandle(a));
+        assertFalse(ds.unionHandles(a, b));
+        // L'insieme di rango maggiore assorbe il singoletto
+        ds.union("b", "c");
+        assertEquals("b", ds.findSet("c"));
+        assertTrue(ds.connectedHandles(a, c));
+        assertEquals(Set.of("b"), ds.getCurrentRepresentatives());
+        assertThrows(IndexOutOfBoundsException.class, () -> ds.findHandle(3));
+        assertThrows(IllegalArgumentException.class, () -> ds.union("a", "d"));
+    }
+}
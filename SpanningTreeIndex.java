@@ -0,0 +1,498 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indice per interrogazioni sui cammini e sui sottoalberi di un albero (o di
+ * una foresta) di copertura, ad esempio quello restituito da
+ * {@code KruskalMSP.computeMSP}. Ogni albero della foresta viene radicato nel
+ * primo dei suoi nodi secondo l'ordine di {@code getNodes()} del grafo e il
+ * peso di ogni arco viene associato al suo nodo figlio.
+ *
+ * La foresta viene scomposta in cammini pesanti (heavy-light decomposition):
+ * ogni cammino tra due nodi attraversa O(log V) catene, ciascuna delle quali
+ * occupa posizioni consecutive di un albero dei segmenti che mantiene somme e
+ * massimi dei pesi. Anche ogni sottoalbero occupa posizioni consecutive. Il
+ * massimo e la somma dei pesi di un cammino, la somma dei pesi di un
+ * sottoalbero, il k-esimo antenato e la modifica del peso di un arco
+ * richiedono quindi tempo O(log^2 V) nel caso peggiore e O(log V) per i
+ * sottoalberi e gli aggiornamenti; le interrogazioni non allocano memoria.
+ *
+ * I pesi sono copiati nell'indice alla costruzione: le modifiche fatte con
+ * {@code updateEdgeWeight} non alterano gli archi del grafo e viceversa.
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class SpanningTreeIndex<L> {
+
+    private final List<GraphNode<L>> nodes;
+
+    private final Map<GraphNode<L>, Integer> indexOf;
+
+    // Per ogni nodo: parent (-1 per le radici), profondità, radice del suo
+    // albero, testa della sua catena, posizione nell'ordine di visita e
+    // dimensione del sottoalbero
+    private final int[] parent;
+
+    private final int[] depth;
+
+    private final int[] root;
+
+    private final int[] head;
+
+    private final int[] position;
+
+    private final int[] subtreeSize;
+
+    // Nodo in ogni posizione dell'ordine di visita e arco verso il parent
+    private final int[] nodeAt;
+
+    private final List<GraphEdge<L>> edgeTo;
+
+    // Albero dei segmenti iterativo sulle posizioni: le foglie sono in
+    // [n, 2n), sum contiene le somme e best la posizione del peso massimo,
+    // -1 se il tratto non contiene archi
+    private final int n;
+
+    private final double[] weight;
+
+    private final double[] sum;
+
+    private final int[] best;
+
+    /**
+     * Costruisce l'indice di una foresta di copertura di un grafo non
+     * orientato.
+     *
+     * @param g
+     *                   il grafo
+     * @param forest
+     *                   gli archi della foresta, tutti archi del grafo
+     * @throws NullPointerException
+     *                                      se il grafo o gli archi sono null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato, se qualche
+     *                                      arco non collega nodi del grafo o se
+     *                                      gli archi formano un ciclo
+     */
+    public SpanningTreeIndex(Graph<L> g, Set<GraphEdge<L>> forest) {
+        if (g == null || forest == null) {
+            throw new NullPointerException("Graph and forest cannot be null.");
+        }
+        if (g.isDirected()) {
+            throw new IllegalArgumentException("Graph must be undirected.");
+        }
+        this.nodes = new ArrayList<>(g.getNodes());
+        this.n = nodes.size();
+        this.indexOf = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            indexOf.put(nodes.get(i), i);
+        }
+        if (forest.size() > Math.max(n - 1, 0)) {
+            throw new IllegalArgumentException("The edges contain a cycle.");
+        }
+
+        // Liste di adiacenza della foresta in forma compatta
+        int[] degree = new int[n + 1];
+        int[] ends1 = new int[forest.size()];
+        int[] ends2 = new int[forest.size()];
+        List<GraphEdge<L>> edges = new ArrayList<>(forest);
+        for (int e = 0; e < edges.size(); e++) {
+            ends1[e] = indexOf(edges.get(e).getNode1());
+            ends2[e] = indexOf(edges.get(e).getNode2());
+            degree[ends1[e] + 1]++;
+            degree[ends2[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            degree[i + 1] += degree[i];
+        }
+        int[] fill = Arrays.copyOf(degree, n);
+        int[] adjacent = new int[2 * edges.size()];
+        int[] adjacentEdge = new int[2 * edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            adjacent[fill[ends1[e]]] = ends2[e];
+            adjacentEdge[fill[ends1[e]]++] = e;
+            adjacent[fill[ends2[e]]] = ends1[e];
+            adjacentEdge[fill[ends2[e]]++] = e;
+        }
+
+        // Prima visita: parent, profondità e ordine di visita, in cui ogni
+        // nodo precede i suoi discendenti
+        this.parent = new int[n];
+        this.depth = new int[n];
+        this.root = new int[n];
+        int[] parentEdge = new int[n];
+        int[] order = new int[n];
+        Arrays.fill(parent, -2);
+        int visited = 0;
+        for (int r = 0; r < n; r++) {
+            if (parent[r] != -2) {
+                continue;
+            }
+            parent[r] = -1;
+            parentEdge[r] = -1;
+            root[r] = r;
+            int start = visited;
+            order[visited++] = r;
+            for (int i = start; i < visited; i++) {
+                int v = order[i];
+                for (int a = degree[v]; a < degree[v + 1]; a++) {
+                    int w = adjacent[a];
+                    if (adjacentEdge[a] == parentEdge[v]) {
+                        continue;
+                    }
+                    if (parent[w] != -2) {
+                        throw new IllegalArgumentException("The edges contain a cycle.");
+                    }
+                    parent[w] = v;
+                    parentEdge[w] = adjacentEdge[a];
+                    depth[w] = depth[v] + 1;
+                    root[w] = r;
+                    order[visited++] = w;
+                }
+            }
+        }
+
+        // Dimensioni dei sottoalberi e figlio pesante, in ordine inverso
+        this.subtreeSize = new int[n];
+        int[] heavy = new int[n];
+        Arrays.fill(heavy, -1);
+        for (int i = n - 1; i >= 0; i--) {
+            int v = order[i];
+            subtreeSize[v]++;
+            if (parent[v] >= 0) {
+                int p = parent[v];
+                subtreeSize[p] += subtreeSize[v];
+                if (heavy[p] < 0 || subtreeSize[v] > subtreeSize[heavy[p]]) {
+                    heavy[p] = v;
+                }
+            }
+        }
+
+        // Seconda visita in profondità che percorre per primo il figlio
+        // pesante, per cui catene e sottoalberi occupano posizioni consecutive
+        this.head = new int[n];
+        this.position = new int[n];
+        this.nodeAt = new int[n];
+        this.edgeTo = new ArrayList<>(n);
+        int[] stack = new int[n];
+        int next = 0;
+        for (int r = 0; r < n; r++) {
+            if (parent[r] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = r;
+            head[r] = r;
+            while (top > 0) {
+                int v = stack[--top];
+                position[v] = next;
+                nodeAt[next++] = v;
+                // Il figlio pesante va estratto per primo dalla pila
+                for (int a = degree[v]; a < degree[v + 1]; a++) {
+                    int w = adjacent[a];
+                    if (parent[w] == v && w != heavy[v]) {
+                        head[w] = w;
+                        stack[top++] = w;
+                    }
+                }
+                if (heavy[v] >= 0) {
+                    head[heavy[v]] = head[v];
+                    stack[top++] = heavy[v];
+                }
+            }
+        }
+
+        this.weight = new double[n];
+        this.sum = new double[2 * n];
+        this.best = new int[2 * n];
+        for (int p = 0; p < n; p++) {
+            int v = nodeAt[p];
+            if (parentEdge[v] >= 0) {
+                GraphEdge<L> edge = edges.get(parentEdge[v]);
+                edgeTo.add(edge);
+                weight[p] = edge.getWeight();
+                best[n + p] = p;
+            } else {
+                edgeTo.add(null);
+                best[n + p] = -1;
+            }
+            sum[n + p] = weight[p];
+        }
+        for (int i = n - 1; i > 0; i--) {
+            pull(i);
+        }
+    }
+
+    /**
+     * Restituisce l'arco di peso massimo sul cammino tra due nodi.
+     *
+     * @param u
+     *              il primo nodo
+     * @param v
+     *              il secondo nodo
+     * @return l'arco di peso massimo sul cammino, null se i nodi coincidono
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non appartiene al
+     *                                      grafo o se i nodi sono in alberi
+     *                                      diversi
+     */
+    public GraphEdge<L> pathMaxEdge(GraphNode<L> u, GraphNode<L> v) {
+        int a = indexOf(u);
+        int b = indexOf(v);
+        checkSameTree(a, b);
+        int result = -1;
+        while (head[a] != head[b]) {
+            if (depth[head[a]] < depth[head[b]]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            result = better(result, maxPosition(position[head[a]], position[a] + 1));
+            a = parent[head[a]];
+        }
+        int low = Math.min(position[a], position[b]);
+        int high = Math.max(position[a], position[b]);
+        // Il nodo meno profondo è l'antenato comune, il cui arco non fa parte
+        // del cammino
+        result = better(result, maxPosition(low + 1, high + 1));
+        return result < 0 ? null : edgeTo.get(result);
+    }
+
+    /**
+     * Restituisce il peso massimo di un arco sul cammino tra due nodi.
+     *
+     * @param u
+     *              il primo nodo
+     * @param v
+     *              il secondo nodo
+     * @return il peso massimo di un arco del cammino,
+     *         {@code Double.NEGATIVE_INFINITY} se i nodi coincidono
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non appartiene al
+     *                                      grafo o se i nodi sono in alberi
+     *                                      diversi
+     */
+    public double pathMaxWeight(GraphNode<L> u, GraphNode<L> v) {
+        GraphEdge<L> edge = pathMaxEdge(u, v);
+        if (edge == null) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return weight[position[childOf(edge)]];
+    }
+
+    /**
+     * Restituisce la somma dei pesi degli archi sul cammino tra due nodi.
+     *
+     * @param u
+     *              il primo nodo
+     * @param v
+     *              il secondo nodo
+     * @return la lunghezza del cammino, 0 se i nodi coincidono
+     * @throws NullPointerException
+     *                                      se uno dei nodi è null
+     * @throws IllegalArgumentException
+     *                                      se uno dei nodi non appartiene al
+     *                                      grafo o se i nodi sono in alberi
+     *                                      diversi
+     */
+    public double pathLength(GraphNode<L> u, GraphNode<L> v) {
+        int a = indexOf(u);
+        int b = indexOf(v);
+        checkSameTree(a, b);
+        double result = 0;
+        while (head[a] != head[b]) {
+            if (depth[head[a]] < depth[head[b]]) {
+                int t = a;
+                a = b;
+                b = t;
+            }
+            result += rangeSum(position[head[a]], position[a] + 1);
+            a = parent[head[a]];
+        }
+        int low = Math.min(position[a], position[b]);
+        int high = Math.max(position[a], position[b]);
+        return result + rangeSum(low + 1, high + 1);
+    }
+
+    /**
+     * Restituisce l'antenato di un nodo che si trova k livelli più in alto.
+     *
+     * @param u
+     *              il nodo
+     * @param k
+     *              il numero di livelli, 0 per il nodo stesso
+     * @return il k-esimo antenato di u, null se l'albero di u non è così alto
+     * @throws NullPointerException
+     *                                      se il nodo è null
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     *                                      o se k è negativo
+     */
+    public GraphNode<L> kthAncestor(GraphNode<L> u, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        int a = indexOf(u);
+        if (k > depth[a]) {
+            return null;
+        }
+        int target = depth[a] - k;
+        // Risale le catene finché quella corrente non contiene il livello
+        // cercato, poi scende lungo la catena per posizione
+        while (depth[head[a]] > target) {
+            a = parent[head[a]];
+        }
+        return nodes.get(nodeAt[position[a] - (depth[a] - target)]);
+    }
+
+    /**
+     * Restituisce la somma dei pesi degli archi del sottoalbero di un nodo,
+     * cioè degli archi che collegano i suoi discendenti.
+     *
+     * @param u
+     *              il nodo
+     * @return la somma dei pesi degli archi sotto u
+     * @throws NullPointerException
+     *                                      se il nodo è null
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public double subtreeWeight(GraphNode<L> u) {
+        int a = indexOf(u);
+        return rangeSum(position[a] + 1, position[a] + subtreeSize[a]);
+    }
+
+    /**
+     * Restituisce la profondità di un nodo nel suo albero.
+     *
+     * @param u
+     *              il nodo
+     * @return il numero di archi tra u e la radice del suo albero
+     * @throws NullPointerException
+     *                                      se il nodo è null
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public int depthOf(GraphNode<L> u) {
+        return depth[indexOf(u)];
+    }
+
+    /**
+     * Modifica il peso di un arco della foresta nell'indice.
+     *
+     * @param edge
+     *                   l'arco da modificare
+     * @param weight
+     *                   il nuovo peso
+     * @throws NullPointerException
+     *                                      se l'arco è null
+     * @throws IllegalArgumentException
+     *                                      se l'arco non fa parte della
+     *                                      foresta
+     */
+    public void updateEdgeWeight(GraphEdge<L> edge, double weight) {
+        int p = position[childOf(edge)];
+        this.weight[p] = weight;
+        int i = n + p;
+        sum[i] = weight;
+        for (i >>= 1; i > 0; i >>= 1) {
+            pull(i);
+        }
+    }
+
+    /*
+     * Nodo figlio dell'arco della foresta passato.
+     */
+    private int childOf(GraphEdge<L> edge) {
+        if (edge == null) {
+            throw new NullPointerException("Edge cannot be null.");
+        }
+        int a = indexOf(edge.getNode1());
+        int b = indexOf(edge.getNode2());
+        if (parent[a] == b && edge.equals(edgeTo.get(position[a]))) {
+            return a;
+        }
+        if (parent[b] == a && edge.equals(edgeTo.get(position[b]))) {
+            return b;
+        }
+        throw new IllegalArgumentException("Edge not in the forest: " + edge);
+    }
+
+    private void pull(int i) {
+        sum[i] = sum[2 * i] + sum[2 * i + 1];
+        best[i] = better(best[2 * i], best[2 * i + 1]);
+    }
+
+    /*
+     * Tra due posizioni (o -1) restituisce quella con il peso maggiore.
+     */
+    private int better(int p, int q) {
+        if (p < 0) {
+            return q;
+        }
+        if (q < 0) {
+            return p;
+        }
+        return weight[q] > weight[p] ? q : p;
+    }
+
+    /*
+     * Somma dei pesi nelle posizioni [from, to).
+     */
+    private double rangeSum(int from, int to) {
+        double result = 0;
+        for (from += n, to += n; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                result += sum[from++];
+            }
+            if ((to & 1) == 1) {
+                result += sum[--to];
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Posizione del peso massimo in [from, to), -1 se non ci sono archi.
+     */
+    private int maxPosition(int from, int to) {
+        int result = -1;
+        for (from += n, to += n; from < to; from >>= 1, to >>= 1) {
+            if ((from & 1) == 1) {
+                result = better(result, best[from++]);
+            }
+            if ((to & 1) == 1) {
+                result = better(result, best[--to]);
+            }
+        }
+        return result;
+    }
+
+    private void checkSameTree(int a, int b) {
+        if (root[a] != root[b]) {
+            throw new IllegalArgumentException("Nodes are in different trees.");
+        }
+    }
+
+    private int indexOf(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Node cannot be null");
+        }
+        Integer index = indexOf.get(node);
+        if (index == null) {
+            throw new IllegalArgumentException("Node not in the graph: " + node);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,203 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe SpanningTreeIndex.
+ */
+class SpanningTreeIndexTest {
+
+    @Test
+    final void testSmallTree() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphNode<String> d = new GraphNode<String>("d");
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addNode(c);
+        gr.addNode(d);
+        gr.addNode(e);
+        GraphEdge<String> ab = new GraphEdge<String>(a, b, false, 3);
+        GraphEdge<String> bc = new GraphEdge<String>(b, c, false, 5);
+        GraphEdge<String> bd = new GraphEdge<String>(b, d, false, 1);
+        gr.addEdge(ab);
+        gr.addEdge(bc);
+        gr.addEdge(bd);
+        gr.addEdge(new GraphEdge<String>(c, d, false, 9));
+        Set<GraphEdge<String>> forest = new HashSet<GraphEdge<String>>();
+        forest.add(ab);
+        forest.add(bc);
+        forest.add(bd);
+        SpanningTreeIndex<String> index = new SpanningTreeIndex<String>(gr, forest);
+        assertEquals(bc, index.pathMaxEdge(c, d));
+        assertEquals(5.0, index.pathMaxWeight(a, c));
+        assertEquals(6.0, index.pathLength(c, d));
+        assertEquals(0.0, index.pathLength(d, d));
+        assertNull(index.pathMaxEdge(d, d));
+        assertEquals(Double.NEGATIVE_INFINITY, index.pathMaxWeight(d, d));
+        assertEquals(a, index.kthAncestor(c, 2));
+        assertEquals(b, index.kthAncestor(c, 1));
+        assertNull(index.kthAncestor(c, 3));
+        assertEquals(9.0, index.subtreeWeight(a));
+        assertEquals(6.0, index.subtreeWeight(b));
+        assertEquals(0.0, index.subtreeWeight(c));
+        index.updateEdgeWeight(bd, 7);
+        assertEquals(bd, index.pathMaxEdge(c, d));
+        assertEquals(12.0, index.pathLength(c, d));
+        assertEquals(1.0, bd.getWeight());
+        // e è isolato e forma un albero da solo
+        assertEquals(0, index.depthOf(e));
+        assertThrows(IllegalArgumentException.class, () -> index.pathLength(a, e));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.updateEdgeWeight(new GraphEdge<String>(c, d, false, 9), 1));
+        assertThrows(IllegalArgumentException.class, () -> index.kthAncestor(a, -1));
+        assertThrows(NullPointerException.class, () -> index.subtreeWeight(null));
+    }
+
+    @Test
+    final void testCycle() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(a);
+        gr.addNode(b);
+        gr.addNode(c);
+        gr.addNode(d);
+        Set<GraphEdge<String>> forest = new HashSet<GraphEdge<String>>();
+        forest.add(new GraphEdge<String>(a, b, false, 1));
+        forest.add(new GraphEdge<String>(b, c, false, 1));
+        forest.add(new GraphEdge<String>(c, a, false, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpanningTreeIndex<String>(gr, forest));
+    }
+
+    @Test
+    final void testAgainstNaivePaths() {
+        int n = 60;
+        Random random = new Random(45);
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<>();
+        List<GraphNode<Integer>> nodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        gr.addNodes(nodes);
+        for (int k = 0; k < 4 * n; k++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            // Due componenti: i nodi pari e i nodi dispari
+            if (u != v && (u - v) % 2 == 0) {
+                gr.addEdge(new GraphEdge<>(nodes.get(u), nodes.get(v), false, random.nextInt(50)));
+            }
+        }
+        Set<GraphEdge<Integer>> forest = new KruskalMSP<Integer>().computeMSP(gr);
+        SpanningTreeIndex<Integer> index = new SpanningTreeIndex<>(gr, forest);
+        Map<GraphEdge<Integer>, Double> weights = new HashMap<>();
+        for (GraphEdge<Integer> edge : forest) {
+            weights.put(edge, edge.getWeight());
+        }
+        List<GraphEdge<Integer>> edges = new ArrayList<>(forest);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    GraphNode<Integer> u = nodes.get(i);
+                    GraphNode<Integer> v = nodes.get(j);
+                    List<GraphEdge<Integer>> path = path(forest, u, v);
+                    if (path == null) {
+                        assertThrows(IllegalArgumentException.class, () -> index.pathLength(u, v));
+                        continue;
+                    }
+                    double length = 0;
+                    double max = Double.NEGATIVE_INFINITY;
+                    for (GraphEdge<Integer> edge : path) {
+                        length += weights.get(edge);
+                        max = Math.max(max, weights.get(edge));
+                    }
+                    assertEquals(length, index.pathLength(u, v), 1e-9);
+                    assertEquals(max, index.pathMaxWeight(u, v));
+                    GraphEdge<Integer> maxEdge = index.pathMaxEdge(u, v);
+                    if (maxEdge != null) {
+                        assertTrue(path.contains(maxEdge));
+                        assertEquals(max, weights.get(maxEdge));
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                // Il k-esimo antenato dista k archi e si trova k livelli più in
+                // alto
+                int depth = index.depthOf(nodes.get(i));
+                for (int k = 0; k <= depth; k++) {
+                    GraphNode<Integer> ancestor = index.kthAncestor(nodes.get(i), k);
+                    assertEquals(k, path(forest, nodes.get(i), ancestor).size());
+                    assertEquals(depth - k, index.depthOf(ancestor));
+                }
+                assertNull(index.kthAncestor(nodes.get(i), depth + 1));
+                // Il sottoalbero contiene gli archi i cui estremi hanno i
+                // come antenato
+                double subtree = 0;
+                for (GraphEdge<Integer> edge : forest) {
+                    GraphNode<Integer> child = index.depthOf(edge.getNode1()) > index.depthOf(edge.getNode2())
+                            ? edge.getNode1()
+                            : edge.getNode2();
+                    int levels = index.depthOf(child) - depth;
+                    if (levels >= 1 && nodes.get(i).equals(index.kthAncestor(child, levels))) {
+                        subtree += weights.get(edge);
+                    }
+                }
+                assertEquals(subtree, index.subtreeWeight(nodes.get(i)), 1e-9);
+            }
+            for (int k = 0; k < 20; k++) {
+                GraphEdge<Integer> edge = edges.get(random.nextInt(edges.size()));
+                double w = random.nextInt(100) - 20;
+                index.updateEdgeWeight(edge, w);
+                weights.put(edge, w);
+            }
+        }
+    }
+
+    /*
+     * Archi del cammino tra due nodi nella foresta, null se non sono connessi.
+     */
+    private static List<GraphEdge<Integer>> path(Set<GraphEdge<Integer>> forest, GraphNode<Integer> from,
+            GraphNode<Integer> to) {
+        Map<GraphNode<Integer>, GraphEdge<Integer>> reachedBy = new HashMap<>();
+        reachedBy.put(from, null);
+        ArrayDeque<GraphNode<Integer>> queue = new ArrayDeque<>();
+        queue.add(from);
+        while (!queue.isEmpty()) {
+            GraphNode<Integer> node = queue.poll();
+            for (GraphEdge<Integer> edge : forest) {
+                GraphNode<Integer> other = edge.getNode1().equals(node) ? edge.getNode2()
+                        : edge.getNode2().equals(node) ? edge.getNode1() : null;
+                if (other != null && !reachedBy.containsKey(other)) {
+                    reachedBy.put(other, edge);
+                    queue.add(other);
+                }
+            }
+        }
+        if (!reachedBy.containsKey(to)) {
+            return null;
+        }
+        List<GraphEdge<Integer>> path = new ArrayList<>();
+        for (GraphNode<Integer> node = to; !node.equals(from);) {
+            GraphEdge<Integer> edge = reachedBy.get(node);
+            path.add(edge);
+            node = edge.getNode1().equals(node) ? edge.getNode2() : edge.getNode1();
+        }
+        return path;
+    }
+}
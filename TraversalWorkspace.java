@@ -0,0 +1,306 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.Arrays;
+
+/**
+ * Area di lavoro per una singola esecuzione di un algoritmo su un grafo. Contiene
+ * le stesse informazioni che {@code GraphNode<L>} mette a disposizione come
+ * campi modificabili (colore, distanza intera e in virgola mobile, tempi di
+ * ingresso/uscita e predecessore), ma memorizzate in array di tipi primitivi
+ * indicizzati dall'indice del nodo restituito da
+ * {@code Graph.getNodeIndexOf(L)}.
+ *
+ * In questo modo il grafo può essere condiviso in sola lettura da più
+ * algoritmi eseguiti contemporaneamente, ognuno con la propria area di
+ * lavoro, e i nodi non devono occupare memoria per informazioni usate solo
+ * da alcuni algoritmi.
+ *
+ * L'area di lavoro viene allocata una volta e riutilizzata tra esecuzioni
+ * diverse: {@code reset()} richiede tempo costante perché ogni posizione
+ * viene riportata ai valori di default solo quando viene toccata per la prima
+ * volta dopo il reset. I valori di default sono gli stessi di
+ * {@code GraphNode<L>}: colore bianco, distanze e tempi uguali a zero e
+ * nessun predecessore ({@code NO_PREVIOUS}).
+ *
+ * Un oggetto di questa classe non è thread-safe: ogni esecuzione concorrente
+ * deve usare la propria area di lavoro.
+ */
+public class TraversalWorkspace {
+
+    /**
+     * Valore del predecessore di un nodo che non ha predecessore.
+     */
+    public static final int NO_PREVIOUS = -1;
+
+    private int[] color;
+
+    private double[] floatingPointDistance;
+
+    private int[] integerDistance;
+
+    private int[] enteringTime;
+
+    private int[] exitingTime;
+
+    private int[] previous;
+
+    /*
+     * Ogni posizione è valida solo se il suo stamp coincide con l'epoca
+     * corrente, altrimenti contiene i valori di un'esecuzione precedente.
+     */
+    private int[] stamp;
+
+    private int epoch;
+
+    /**
+     * Crea un'area di lavoro per grafi con al più {@code capacity} nodi.
+     *
+     * @param capacity
+     *                     il numero di nodi gestibili senza riallocare
+     * @throws IllegalArgumentException
+     *                                      se la capacità è negativa
+     */
+    public TraversalWorkspace(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacità negativa");
+        this.color = new int[capacity];
+        this.floatingPointDistance = new double[capacity];
+        this.integerDistance = new int[capacity];
+        this.enteringTime = new int[capacity];
+        this.exitingTime = new int[capacity];
+        this.previous = new int[capacity];
+        this.stamp = new int[capacity];
+        this.epoch = 1;
+    }
+
+    /**
+     * Crea un'area di lavoro dimensionata sul numero di nodi di un grafo.
+     *
+     * @param g
+     *              il grafo su cui verrà eseguito l'algoritmo
+     * @throws NullPointerException
+     *                                  se il grafo passato è null
+     */
+    public TraversalWorkspace(Graph<?> g) {
+        this(g.nodeCount());
+    }
+
+    /**
+     * Restituisce il numero di nodi gestibili senza riallocare.
+     *
+     * @return la capacità corrente di questa area di lavoro
+     */
+    public int capacity() {
+        return this.stamp.length;
+    }
+
+    /**
+     * Garantisce che questa area di lavoro possa gestire almeno
+     * {@code capacity} nodi. I valori correnti vengono conservati.
+     *
+     * @param capacity
+     *                     il numero minimo di nodi da gestire
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= this.stamp.length)
+            return;
+        int newCapacity = Math.max(capacity, 2 * this.stamp.length);
+        this.color = Arrays.copyOf(this.color, newCapacity);
+        this.floatingPointDistance = Arrays.copyOf(this.floatingPointDistance,
+                newCapacity);
+        this.integerDistance = Arrays.copyOf(this.integerDistance, newCapacity);
+        this.enteringTime = Arrays.copyOf(this.enteringTime, newCapacity);
+        this.exitingTime = Arrays.copyOf(this.exitingTime, newCapacity);
+        this.previous = Arrays.copyOf(this.previous, newCapacity);
+        this.stamp = Arrays.copyOf(this.stamp, newCapacity);
+    }
+
+    /**
+     * Riporta tutti i nodi ai valori di default in tempo costante.
+     */
+    public void reset() {
+        this.epoch++;
+        if (this.epoch == 0) {
+            // Dopo il giro del contatore gli stamp vecchi sarebbero ambigui
+            Arrays.fill(this.stamp, 0);
+            this.epoch = 1;
+        }
+    }
+
+    /**
+     * Determina se il nodo di indice dato è stato modificato dall'ultimo
+     * reset.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return true se qualche valore del nodo è stato assegnato dopo l'ultimo
+     *         reset, false altrimenti
+     */
+    public boolean isTouched(int i) {
+        return this.stamp[i] == this.epoch;
+    }
+
+    /**
+     * Restituisce il colore corrente del nodo di indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return il colore del nodo
+     */
+    public int getColor(int i) {
+        return isTouched(i) ? this.color[i] : GraphNode.COLOR_WHITE;
+    }
+
+    /**
+     * Assegna un colore al nodo di indice dato.
+     *
+     * @param i
+     *                  l'indice del nodo
+     * @param color
+     *                  il colore da assegnare
+     */
+    public void setColor(int i, int color) {
+        touch(i);
+        this.color[i] = color;
+    }
+
+    /**
+     * Restituisce la distanza in virgola mobile del nodo di indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la distanza del nodo
+     */
+    public double getFloatingPointDistance(int i) {
+        return isTouched(i) ? this.floatingPointDistance[i] : 0;
+    }
+
+    /**
+     * Assegna una distanza in virgola mobile al nodo di indice dato.
+     *
+     * @param i
+     *                     l'indice del nodo
+     * @param distance
+     *                     la distanza da assegnare
+     */
+    public void setFloatingPointDistance(int i, double distance) {
+        touch(i);
+        this.floatingPointDistance[i] = distance;
+    }
+
+    /**
+     * Restituisce la distanza intera del nodo di indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la distanza intera del nodo
+     */
+    public int getIntegerDistance(int i) {
+        return isTouched(i) ? this.integerDistance[i] : 0;
+    }
+
+    /**
+     * Assegna una distanza intera al nodo di indice dato.
+     *
+     * @param i
+     *                     l'indice del nodo
+     * @param distance
+     *                     la distanza da assegnare
+     */
+    public void setIntegerDistance(int i, int distance) {
+        touch(i);
+        this.integerDistance[i] = distance;
+    }
+
+    /**
+     * Restituisce il tempo di ingresso nel nodo di indice dato durante una
+     * visita in profondità.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return il tempo di ingresso nel nodo
+     */
+    public int getEnteringTime(int i) {
+        return isTouched(i) ? this.enteringTime[i] : 0;
+    }
+
+    /**
+     * Assegna il tempo di ingresso nel nodo di indice dato.
+     *
+     * @param i
+     *                 l'indice del nodo
+     * @param time
+     *                 il tempo di ingresso da assegnare
+     */
+    public void setEnteringTime(int i, int time) {
+        touch(i);
+        this.enteringTime[i] = time;
+    }
+
+    /**
+     * Restituisce il tempo di uscita dal nodo di indice dato durante una
+     * visita in profondità.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return il tempo di uscita dal nodo
+     */
+    public int getExitingTime(int i) {
+        return isTouched(i) ? this.exitingTime[i] : 0;
+    }
+
+    /**
+     * Assegna il tempo di uscita dal nodo di indice dato.
+     *
+     * @param i
+     *                 l'indice del nodo
+     * @param time
+     *                 il tempo di uscita da assegnare
+     */
+    public void setExitingTime(int i, int time) {
+        touch(i);
+        this.exitingTime[i] = time;
+    }
+
+    /**
+     * Restituisce l'indice del predecessore del nodo di indice dato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return l'indice del predecessore oppure {@code NO_PREVIOUS} se il nodo
+     *         non ha predecessore
+     */
+    public int getPrevious(int i) {
+        return isTouched(i) ? this.previous[i] : NO_PREVIOUS;
+    }
+
+    /**
+     * Assegna un predecessore al nodo di indice dato.
+     *
+     * @param i
+     *                     l'indice del nodo
+     * @param previous
+     *                     l'indice del predecessore oppure
+     *                     {@code NO_PREVIOUS}
+     */
+    public void setPrevious(int i, int previous) {
+        touch(i);
+        this.previous[i] = previous;
+    }
+
+    /*
+     * Alla prima scrittura dopo un reset riporta la posizione ai valori di
+     * default prima di marcarla come valida.
+     */
+    private void touch(int i) {
+        if (this.stamp[i] != this.epoch) {
+            this.color[i] = GraphNode.COLOR_WHITE;
+            this.floatingPointDistance[i] = 0;
+            this.integerDistance[i] = 0;
+            this.enteringTime[i] = 0;
+            this.exitingTime[i] = 0;
+            this.previous[i] = NO_PREVIOUS;
+            this.stamp[i] = this.epoch;
+        }
+    }
+}
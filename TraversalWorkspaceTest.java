@@ -0,0 +1,70 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe TraversalWorkspace.
+ */
+class TraversalWorkspaceTest {
+
+    /**
+     * Verifica che i valori iniziali coincidano con quelli di default di
+     * GraphNode.
+     */
+    @Test
+    final void testDefaults() {
+        TraversalWorkspace w = new TraversalWorkspace(3);
+        assertEquals(3, w.capacity());
+        assertEquals(GraphNode.COLOR_WHITE, w.getColor(0));
+        assertEquals(0.0, w.getFloatingPointDistance(1));
+        assertEquals(0, w.getIntegerDistance(2));
+        assertEquals(TraversalWorkspace.NO_PREVIOUS, w.getPrevious(2));
+        assertFalse(w.isTouched(0));
+    }
+
+    /**
+     * Verifica che reset riporti ai valori di default solo i nodi toccati e
+     * che un valore assegnato non sporchi gli altri campi dopo il reset.
+     */
+    @Test
+    final void testSetAndReset() {
+        TraversalWorkspace w = new TraversalWorkspace(2);
+        w.setColor(0, GraphNode.COLOR_BLACK);
+        w.setFloatingPointDistance(0, 3.5);
+        w.setPrevious(1, 0);
+        w.setEnteringTime(1, 4);
+        w.setExitingTime(1, 7);
+        assertEquals(GraphNode.COLOR_BLACK, w.getColor(0));
+        assertEquals(3.5, w.getFloatingPointDistance(0));
+        assertEquals(0, w.getPrevious(1));
+        assertEquals(4, w.getEnteringTime(1));
+        assertEquals(7, w.getExitingTime(1));
+
+        w.reset();
+        assertFalse(w.isTouched(0));
+        assertEquals(GraphNode.COLOR_WHITE, w.getColor(0));
+        assertEquals(TraversalWorkspace.NO_PREVIOUS, w.getPrevious(1));
+
+        // Assegnare un campo dopo il reset non deve far riemergere gli altri
+        w.setIntegerDistance(0, 2);
+        assertEquals(2, w.getIntegerDistance(0));
+        assertEquals(0.0, w.getFloatingPointDistance(0));
+        assertEquals(GraphNode.COLOR_WHITE, w.getColor(0));
+    }
+
+    /**
+     * Verifica che ensureCapacity conservi i valori correnti.
+     */
+    @Test
+    final void testEnsureCapacity() {
+        TraversalWorkspace w = new TraversalWorkspace(1);
+        w.setIntegerDistance(0, 9);
+        w.ensureCapacity(10);
+        assertTrue(w.capacity() >= 10);
+        assertEquals(9, w.getIntegerDistance(0));
+        assertEquals(0, w.getIntegerDistance(9));
+        assertThrows(IllegalArgumentException.class, () -> new TraversalWorkspace(-1));
+    }
+}
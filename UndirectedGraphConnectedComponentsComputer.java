@@ -1,6 +1,10 @@
-import java.util.HashMap;
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -19,6 +23,11 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
      */
     private ForestDisjointSets<GraphNode<L>> f;
 
+    /*
+     * Destinatario delle misure di ogni esecuzione.
+     */
+    private MetricsListener listener = MetricsListener.NONE;
+
     /**
      * Crea un calcolatore di componenti connesse.
      */
@@ -47,21 +56,151 @@ public class UndirectedGraphConnectedComponentsComputer<L> {
         if (g.isDirected()) {
             throw new IllegalArgumentException("Il grafo passato deve essere non orientato.");
         }
+        PhaseRecorder recorder = new PhaseRecorder(
+                "UndirectedGraphConnectedComponentsComputer", this.listener);
         f.clear();
-        for (GraphNode<L> node : g.getNodes()) {
-            f.makeSet(node);
+        f.setMetricsEnabled(recorder.isEnabled());
+        f.resetMetrics();
+        recorder.begin("makeSet");
+        Set<GraphNode<L>> nodes = g.getNodes();
+        List<GraphNode<L>> byHandle = new ArrayList<>(nodes.size());
+        for (GraphNode<L> node : nodes) {
+            f.makeSetHandle(node);
+            byHandle.add(node);
         }
-        for (GraphEdge<L> edge : g.getEdges()) {
+        recorder.end();
+        recorder.begin("unionLoop");
+        // Traduce gli archi in coppie di handle ed esegue tutte le unioni con
+        // una sola chiamata
+        Set<GraphEdge<L>> edges = g.getEdges();
+        int[] handles1 = new int[edges.size()];
+        int[] handles2 = new int[edges.size()];
+        int scanned = 0;
+        int undirected = 0;
+        for (GraphEdge<L> edge : edges) {
+            scanned++;
             if (!edge.isDirected()) {
-                f.union(edge.getNode1(), edge.getNode2());
+                handles1[undirected] = f.handleOf(edge.getNode1());
+                handles2[undirected] = f.handleOf(edge.getNode2());
+                undirected++;
+            }
+        }
+        if (undirected < handles1.length) {
+            handles1 = Arrays.copyOf(handles1, undirected);
+            handles2 = Arrays.copyOf(handles2, undirected);
+        }
+        f.unionAll(handles1, handles2);
+        recorder.end();
+        recorder.begin("collect");
+        int[] representatives = new int[byHandle.size()];
+        for (int i = 0; i < representatives.length; i++) {
+            representatives[i] = i;
+        }
+        f.findAll(representatives, representatives);
+        // La componente di ogni rappresentante è nella posizione del suo
+        // handle
+        List<Set<GraphNode<L>>> byRepresentative = new ArrayList<>(
+                Collections.nCopies(representatives.length, null));
+        Set<Set<GraphNode<L>>> components = new HashSet<>();
+        for (int i = 0; i < representatives.length; i++) {
+            Set<GraphNode<L>> component = byRepresentative.get(representatives[i]);
+            if (component == null) {
+                // La dimensione della componente è nota, per cui l'insieme
+                // non deve mai essere ridimensionato
+                int size = f.sizeOfSetHandle(representatives[i]);
+                component = new HashSet<>(size * 4 / 3 + 1);
+                byRepresentative.set(representatives[i], component);
+            }
+            component.add(byHandle.get(i));
+        }
+        for (Set<GraphNode<L>> component : byRepresentative) {
+            if (component != null) {
+                components.add(component);
+            }
+        }
+        recorder.end();
+
+        if (recorder.isEnabled()) {
+            recorder.counter("edgesScanned", scanned);
+            recorder.counter("unionsPerformed", f.getUnionCount());
+            recorder.counter("findCount", f.getFindCount());
+            recorder.counter("findPathLength", f.getFindPathLength());
+            recorder.counter("compressionWrites", f.getCompressionWrites());
+        }
+        return components;
+    }
+
+    /**
+     * Aggiunge gli archi di una lista a una collezione di insiemi disgiunti
+     * fuori dallo heap e restituisce il numero di componenti connesse
+     * risultanti. I nodi della lista che non sono ancora presenti vengono
+     * inseriti come singoletti, mentre quelli già presenti conservano le
+     * unioni precedenti: in questo modo gli archi di un grafo troppo grande per
+     * la memoria possono essere elaborati a blocchi, passando ogni volta la
+     * stessa struttura. Alla fine {@code sets.findId(i)} identifica la
+     * componente del nodo i.
+     * 
+     * @param edges
+     *                  gli archi da aggiungere
+     * @param sets
+     *                  gli insiemi disgiunti da aggiornare
+     * @return il numero di componenti connesse dopo l'aggiunta degli archi
+     * @throws NullPointerException
+     *                                      se la lista o gli insiemi sono null
+     * @throws IllegalArgumentException
+     *                                      se la capacità degli insiemi è
+     *                                      minore del numero di nodi della
+     *                                      lista
+     */
+    public long computeConnectedComponents(EdgeList edges, OffHeapDisjointSets sets) {
+        if (edges == null || sets == null) {
+            throw new NullPointerException("Archi o insiemi nulli.");
+        }
+        if (sets.capacity() < edges.nodeCount()) {
+            throw new IllegalArgumentException("Capacità degli insiemi insufficiente.");
+        }
+        PhaseRecorder recorder = new PhaseRecorder(
+                "UndirectedGraphConnectedComponentsComputer", this.listener);
+        recorder.begin("makeSet");
+        for (int i = 0; i < edges.nodeCount(); i++) {
+            if (!sets.isPresentId(i)) {
+                sets.makeSetId(i);
+            }
+        }
+        recorder.end();
+        recorder.begin("unionLoop");
+        long unions = 0;
+        for (int i = 0; i < edges.size(); i++) {
+            if (sets.unionIds(edges.from(i), edges.to(i))) {
+                unions++;
             }
         }
-        Map<GraphNode<L>, Set<GraphNode<L>>> componentsMap = new HashMap<>();
-        for (GraphNode<L> node : g.getNodes()) {
-            GraphNode<L> representative = f.findSet(node);
-            componentsMap.computeIfAbsent(representative, k -> new HashSet<>()).add(node);
+        recorder.end();
+
+        if (recorder.isEnabled()) {
+            recorder.counter("edgesScanned", edges.size());
+            recorder.counter("unionsPerformed", unions);
         }
+        return sets.numberOfSets();
+    }
 
-        return new HashSet<>(componentsMap.values());
+    /**
+     * Imposta il listener che riceve la durata di ogni fase del calcolo
+     * (creazione degli insiemi, ciclo delle unioni e raccolta delle
+     * componenti) e i contatori di ogni esecuzione: archi esaminati, unioni
+     * eseguite, chiamate e lunghezza totale dei cammini di findSet,
+     * scritture della compressione dei cammini.
+     * 
+     * @param listener
+     *                     il listener, {@code MetricsListener.NONE} per non
+     *                     misurare nulla
+     * @throws NullPointerException
+     *                                  se il listener è null
+     */
+    public void setMetricsListener(MetricsListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("Il listener non può essere nullo.");
+        }
+        this.listener = listener;
     }
 }
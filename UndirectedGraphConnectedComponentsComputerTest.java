@@ -1,3 +1,5 @@
+package it.unicam.cs.asdl2425.mp2;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashSet;
@@ -168,4 +170,23 @@ class UndirectedGraphConnectedComponentsComputerTest {
         assertTrue(c.computeConnectedComponents(g).equals(result),
                 "Un grafo completamente connesso dovrebbe essere una singola componente.");
     }
+
+    @Test
+    final void testComputeConnectedComponentsOffHeapInBlocks() {
+        UndirectedGraphConnectedComponentsComputer<Integer> c = new UndirectedGraphConnectedComponentsComputer<>();
+        OffHeapDisjointSets sets = new OffHeapDisjointSets(6);
+        EdgeList first = new EdgeList(6, 2);
+        first.add(0, 1, 1);
+        first.add(2, 3, 1);
+        assertEquals(4, c.computeConnectedComponents(first, sets));
+        // Il secondo blocco conserva le unioni del primo
+        EdgeList second = new EdgeList(6, 2);
+        second.add(1, 2, 1);
+        second.add(4, 4, 1);
+        assertEquals(3, c.computeConnectedComponents(second, sets));
+        assertTrue(sets.connectedIds(0, 3));
+        assertFalse(sets.connectedIds(0, 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> c.computeConnectedComponents(new EdgeList(7, 0), sets));
+    }
 }
@@ -0,0 +1,356 @@
+package it.unicam.cs.asdl2425.mp2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark JMH per le operazioni più frequenti sul grafo, sugli insiemi
+ * disgiunti e sugli algoritmi di copertura minima e delle componenti
+ * connesse. Ogni benchmark è eseguito per ogni combinazione di numero di nodi
+ * e densità (probabilità che esista un arco tra due nodi) su input generati
+ * con seme fissato, per cui esecuzioni diverse misurano gli stessi input.
+ *
+ * Gli input in sola lettura sono preparati una volta per combinazione di
+ * parametri; quelli che le operazioni modificano sono preparati di nuovo,
+ * fuori dalla misura, prima di ogni invocazione. Ogni invocazione misura
+ * l'intera operazione, per esempio l'inserimento di tutti gli archi.
+ *
+ * <pre>
+ * mvn -P jmh package -DskipTests
+ * java -jar target/benchmarks.jar -prof gc -p size=400,1000 -p density=0.1 kruskal
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GraphBenchmarks {
+
+    private static final long SEED = 42;
+
+    @Param({ "100", "400", "1000" })
+    public int size;
+
+    @Param({ "0.01", "0.1", "0.5" })
+    public double density;
+
+    private List<GraphNode<Integer>> nodes;
+
+    private List<GraphEdge<Integer>> edges;
+
+    private Graph<Integer> graph;
+
+    private int[][] pairs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(SEED);
+        nodes = nodes(size);
+        edges = edges(nodes, density, random);
+        graph = new AdjacencyMatrixUndirectedGraph<>();
+        graph.addNodes(nodes);
+        graph.addEdges(edges);
+        pairs = pairs(size, density, random);
+    }
+
+    /**
+     * Grafo con i soli nodi, a cui {@code graphAddEdge} aggiunge gli archi.
+     */
+    @State(Scope.Thread)
+    public static class EmptyGraph {
+        Graph<Integer> graph;
+
+        @Setup(Level.Invocation)
+        public void setUp(GraphBenchmarks inputs) {
+            graph = new AdjacencyMatrixUndirectedGraph<>();
+            graph.addNodes(inputs.nodes);
+        }
+    }
+
+    /**
+     * Grafo casuale e un decimo dei suoi nodi, distinti e scelti a caso, da
+     * rimuovere.
+     */
+    @State(Scope.Thread)
+    public static class Removal {
+        Graph<Integer> graph;
+
+        List<GraphNode<Integer>> victims;
+
+        @Setup(Level.Invocation)
+        public void setUp(GraphBenchmarks inputs) {
+            graph = new AdjacencyMatrixUndirectedGraph<>();
+            graph.addNodes(inputs.nodes);
+            graph.addEdges(inputs.edges);
+            List<GraphNode<Integer>> shuffled = nodes(inputs.size);
+            Collections.shuffle(shuffled, new Random(SEED));
+            victims = shuffled.subList(0, inputs.size / 10);
+        }
+    }
+
+    /**
+     * Insiemi disgiunti di un solo elemento, che i benchmark delle unioni
+     * modificano.
+     */
+    @State(Scope.Thread)
+    public static class Singletons {
+        ForestDisjointSets<Integer> sets;
+
+        @Setup(Level.Invocation)
+        public void setUp(GraphBenchmarks inputs) {
+            sets = singletons(inputs.size);
+        }
+    }
+
+    /**
+     * Insiemi disgiunti dopo le unioni delle coppie casuali, ricostruiti a
+     * ogni iterazione perché la compressione dei cammini li modifica.
+     */
+    @State(Scope.Thread)
+    public static class Unioned {
+        ForestDisjointSets<Integer> sets;
+
+        int[] handles;
+
+        int[] representatives;
+
+        @Setup(Level.Iteration)
+        public void setUp(GraphBenchmarks inputs) {
+            sets = singletons(inputs.size);
+            sets.unionAll(inputs.pairs[0], inputs.pairs[1]);
+            handles = new int[inputs.size];
+            for (int i = 0; i < inputs.size; i++) {
+                handles[i] = i;
+            }
+            representatives = new int[inputs.size];
+        }
+    }
+
+    /**
+     * Lo stesso grafo casuale con i pesi arrotondati all'intero inferiore.
+     */
+    @State(Scope.Benchmark)
+    public static class IntegerWeights {
+        Graph<Integer> graph;
+
+        @Setup(Level.Trial)
+        public void setUp(GraphBenchmarks inputs) {
+            graph = new AdjacencyMatrixUndirectedGraph<>();
+            graph.addNodes(inputs.nodes);
+            for (GraphEdge<Integer> e : inputs.edges) {
+                graph.addEdge(new GraphEdge<>(e.getNode1(), e.getNode2(), false,
+                        Math.floor(e.getWeight())));
+            }
+        }
+    }
+
+    /**
+     * Foresta di copertura minima del grafo casuale, da verificare.
+     */
+    @State(Scope.Benchmark)
+    public static class Forest {
+        Set<GraphEdge<Integer>> mst;
+
+        @Setup(Level.Trial)
+        public void setUp(GraphBenchmarks inputs) {
+            mst = new RandomizedMSP<Integer>(SEED).computeMSP(inputs.graph);
+        }
+    }
+
+    @Benchmark
+    public Graph<Integer> graphAddNode() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<>();
+        for (GraphNode<Integer> node : nodes) {
+            g.addNode(node);
+        }
+        return g;
+    }
+
+    @Benchmark
+    public Graph<Integer> graphAddNodes() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<>();
+        g.addNodes(nodes);
+        return g;
+    }
+
+    @Benchmark
+    public Graph<Integer> graphAddEdge(EmptyGraph state) {
+        for (GraphEdge<Integer> edge : edges) {
+            state.graph.addEdge(edge);
+        }
+        return state.graph;
+    }
+
+    @Benchmark
+    public Graph<Integer> graphRemoveNode(Removal state) {
+        for (GraphNode<Integer> node : state.victims) {
+            state.graph.removeNode(node);
+        }
+        return state.graph;
+    }
+
+    @Benchmark
+    public Set<GraphEdge<Integer>> graphGetEdges() {
+        return graph.getEdges();
+    }
+
+    @Benchmark
+    public double graphForEachEdge() {
+        double[] total = new double[1];
+        graph.forEachEdge(e -> total[0] += e.getWeight());
+        return total[0];
+    }
+
+    @Benchmark
+    public DisjointSets<Integer> dsetsMakeSet() {
+        DisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 0; i < size; i++) {
+            ds.makeSet(i);
+        }
+        return ds;
+    }
+
+    @Benchmark
+    public DisjointSets<Integer> dsetsUnion(Singletons state) {
+        for (int i = 0; i < pairs[0].length; i++) {
+            state.sets.union(pairs[0][i], pairs[1][i]);
+        }
+        return state.sets;
+    }
+
+    @Benchmark
+    public Integer dsetsFindSet(Unioned state) {
+        Integer last = null;
+        for (int i = 0; i < size; i++) {
+            last = state.sets.findSet(i);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public int dsetsUnionAll(Singletons state) {
+        return state.sets.unionAll(pairs[0], pairs[1]);
+    }
+
+    @Benchmark
+    public int[] dsetsFindAll(Unioned state) {
+        state.sets.findAll(state.handles, state.representatives);
+        return state.representatives;
+    }
+
+    @Benchmark
+    public Set<GraphEdge<Integer>> kruskalComputeMSP() {
+        return new KruskalMSP<Integer>().computeMSP(graph);
+    }
+
+    @Benchmark
+    public Set<GraphEdge<Integer>> kruskalComputeMSPIntegerWeights(IntegerWeights state) {
+        return new KruskalMSP<Integer>().computeMSP(state.graph);
+    }
+
+    @Benchmark
+    public Set<GraphEdge<Integer>> randomizedComputeMSP() {
+        return new RandomizedMSP<Integer>(SEED).computeMSP(graph);
+    }
+
+    @Benchmark
+    public boolean verifierVerify(Forest state) {
+        return new MinimumSpanningForestVerifier<Integer>().verify(graph, state.mst);
+    }
+
+    @Benchmark
+    public double estimatorEstimateWeight() {
+        return new MSPWeightEstimator<Integer>(0.5, 0.01, 100, 25, SEED).estimateWeight(graph);
+    }
+
+    @Benchmark
+    public double bottleneckComputeBottleneckValue() {
+        return new BottleneckSpanningTree<Integer>().computeBottleneckValue(graph);
+    }
+
+    @Benchmark
+    public Set<GraphEdge<Integer>> bottleneckComputeBottleneckSpanningTree() {
+        return new BottleneckSpanningTree<Integer>().computeBottleneckSpanningTree(graph);
+    }
+
+    @Benchmark
+    public boolean bottleneckIsConnectedWithin() {
+        return new BottleneckSpanningTree<Integer>().isConnectedWithin(graph, 50);
+    }
+
+    @Benchmark
+    public Set<Set<GraphNode<Integer>>> ccComputeConnectedComponents() {
+        return new UndirectedGraphConnectedComponentsComputer<Integer>()
+                .computeConnectedComponents(graph);
+    }
+
+    private static List<GraphNode<Integer>> nodes(int n) {
+        List<GraphNode<Integer>> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new GraphNode<>(i));
+        }
+        return nodes;
+    }
+
+    /*
+     * Archi di un grafo casuale in cui ogni coppia di nodi distinti è
+     * collegata con probabilità density, con pesi uniformi in [0, 100).
+     */
+    private static List<GraphEdge<Integer>> edges(List<GraphNode<Integer>> nodes,
+            double density, Random random) {
+        List<GraphEdge<Integer>> edges = new ArrayList<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int j = i + 1; j < nodes.size(); j++) {
+                if (random.nextDouble() < density) {
+                    edges.add(new GraphEdge<>(nodes.get(i), nodes.get(j), false,
+                            100 * random.nextDouble()));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /*
+     * Gli elementi sono inseriti in ordine, per cui l'handle di i è i.
+     */
+    private static ForestDisjointSets<Integer> singletons(int n) {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<>();
+        for (int i = 0; i < n; i++) {
+            ds.makeSet(i);
+        }
+        return ds;
+    }
+
+    /*
+     * Coppie casuali di elementi in [0, n), tante quante gli archi attesi di
+     * un grafo casuale con la densità data.
+     */
+    private static int[][] pairs(int n, double density, Random random) {
+        int m = (int) Math.min(Integer.MAX_VALUE - 8,
+                Math.round(density * n * (n - 1) / 2.0));
+        int[][] pairs = new int[2][m];
+        for (int i = 0; i < m; i++) {
+            pairs[0][i] = random.nextInt(n);
+            pairs[1][i] = random.nextInt(n);
+        }
+        return pairs;
+    }
+}